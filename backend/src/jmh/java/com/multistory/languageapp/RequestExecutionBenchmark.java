@@ -0,0 +1,136 @@
+package com.multistory.languageapp;
+
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.repository.StoryRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end request throughput and latency of the platform-thread and virtual-thread execution
+ * profiles under the API stress mix of performance-test-plan.md (stories list : story : progress
+ * update = 500 : 300 : 200), with 1,000 concurrent clients by default. The application is booted
+ * once per profile; run the Throughput mode for requests/s and SampleTime for p99 latency.
+ * Rejected (503) and failed requests are reported as the rejected/failed counters.
+ *
+ * Virtual threads need the benchmark JVM to be Java 21+: on Java 17 spring.threads.virtual.enabled
+ * has no effect, so the "platform" and "virtual" params boot identical applications and their
+ * results only show run-to-run noise. Run the benchmark profile with a 21 toolchain to compare
+ * them. By default the application runs on an in-memory H2 database; point it at a real one to
+ * include JDBC latency, e.g.
+ *   -Djmh.args="RequestExecution -jvmArgs -Dbench.datasource.url=jdbc:postgresql://localhost:5432/bench"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Threads(1000)
+@Fork(1)
+public class RequestExecutionBenchmark {
+
+    private static final int STORIES = 200;
+    private static final int USERS = 1000;
+
+    @Param({"platform", "virtual"})
+    private String threading;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private List<Long> storyIds;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long rejected;
+        public long failed;
+    }
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(LanguageAppApplication.class).run(
+            "--server.port=0",
+            "--spring.threads.virtual.enabled=" + "virtual".equals(threading),
+            "--spring.datasource.url=" + System.getProperty("bench.datasource.url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1"),
+            "--spring.datasource.driverClassName=" + System.getProperty("bench.datasource.driver", "org.h2.Driver"),
+            "--spring.datasource.username=" + System.getProperty("bench.datasource.username", "sa"),
+            "--spring.datasource.password=" + System.getProperty("bench.datasource.password", ""),
+            "--spring.jpa.database-platform=" + System.getProperty("bench.dialect", "org.hibernate.dialect.H2Dialect"),
+            "--quiz.generation.enabled=false",
+            "--logging.level.root=WARN");
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+
+        StoryRepository storyRepository = context.getBean(StoryRepository.class);
+        List<Story> stories = new ArrayList<>(STORIES);
+        for (int i = 0; i < STORIES; i++) {
+            stories.add(new Story("Story " + i, "Once upon a time there was a story number " + i + ".",
+                                  "en", DifficultyLevel.values()[i % DifficultyLevel.values().length]));
+        }
+        storyIds = storyRepository.saveAll(stories).stream().map(Story::getId).toList();
+        client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int apiMix(Outcomes outcomes) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long storyId = storyIds.get(random.nextInt(storyIds.size()));
+        int pick = random.nextInt(10);
+        HttpRequest request;
+        if (pick < 5) {
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/stories?page=0&size=20")).GET().build();
+        } else if (pick < 8) {
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/stories/" + storyId)).GET().build();
+        } else {
+            String body = "{\"timeSpent\": 30, \"completionPercentage\": " + random.nextInt(100) + "}";
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/progress/user/" + (1 + random.nextInt(USERS))
+                                                        + "/story/" + storyId))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        }
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status == 503) {
+            outcomes.rejected++;
+        } else if (status >= 400) {
+            outcomes.failed++;
+        }
+        return status;
+    }
+}
@@ -0,0 +1,124 @@
+package com.multistory.languageapp.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.multistory.languageapp.entity.QuestionType;
+import com.multistory.languageapp.entity.QuizQuestion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quiz submission handling before and after streaming: binding the body into maps and scoring
+ * boxed answers, against QuizSubmissionReader plus a pass over the primitive answer array.
+ * Run with -prof gc to compare allocation per submission as well as time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizSubmissionBenchmark {
+
+    private static final TypeReference<Map<String, Object>> BODY = new TypeReference<>() {};
+
+    @Param({"10", "100"})
+    private int questions;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CompiledQuiz quiz;
+    private QuizSubmissionReader reader;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<QuizQuestion> quizQuestions = new ArrayList<>(questions);
+        StringBuilder json = new StringBuilder("{\"userId\": 42, \"answers\": [");
+        for (int i = 0; i < questions; i++) {
+            QuestionType type = QuestionType.values()[i % 3];
+            QuizQuestion question = new QuizQuestion(null, null, type, "Question " + i);
+            question.setId(1000L + i);
+            question.setPoints(10);
+            switch (type) {
+                case MULTIPLE_CHOICE -> {
+                    question.setOptions(List.of("forest", "garden", "window", "travel"));
+                    question.setCorrectOption(i % 4);
+                }
+                case TRUE_FALSE -> {
+                    question.setOptions(List.of("True", "False"));
+                    question.setCorrectOption(i % 2);
+                }
+                case FILL_BLANK -> question.setCorrectText("completed");
+            }
+            quizQuestions.add(question);
+
+            String answer = switch (type) {
+                case MULTIPLE_CHOICE -> Integer.toString(i % 3);
+                case TRUE_FALSE -> Boolean.toString(i % 4 == 0);
+                case FILL_BLANK -> "\"Completed\"";
+            };
+            json.append(i > 0 ? ", " : "")
+                .append("{\"questionId\": ").append(1000L + i).append(", \"userAnswer\": ").append(answer).append('}');
+        }
+        body = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        quiz = CompiledQuiz.compile(quizQuestions, objectMapper.writeValueAsBytes(List.of()));
+        reader = new QuizSubmissionReader(objectMapper.getFactory(), 500, 255);
+    }
+
+    @Benchmark
+    public int mapBinding() throws IOException {
+        Map<String, Object> requestBody = objectMapper.readValue(body, BODY);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> answers = (List<Map<String, Object>>) requestBody.get("answers");
+        boolean[] answered = new boolean[quiz.size()];
+        int score = 0;
+        for (Map<String, Object> answer : answers) {
+            if (answer == null || !(answer.get("questionId") instanceof Number questionId)) {
+                continue;
+            }
+            int position = quiz.positionOf(questionId.longValue());
+            if (position < 0 || answered[position]) {
+                continue;
+            }
+            answered[position] = true;
+            Object userAnswer = answer.get("userAnswer");
+            boolean correct = userAnswer instanceof Boolean value ? quiz.isCorrectBoolean(position, value)
+                : userAnswer instanceof Number option ? quiz.isCorrectOption(position, option.intValue())
+                : userAnswer instanceof String text && quiz.isCorrectText(position, text);
+            if (correct) {
+                score += quiz.getPoints(position);
+            }
+        }
+        return score;
+    }
+
+    @Benchmark
+    public int streaming() {
+        int[] answers = reader.read(new ByteArrayInputStream(body), quiz).answers();
+        int score = 0;
+        for (int position = 0; position < answers.length; position++) {
+            int answer = answers[position];
+            if (answer == QuizSubmission.TEXT_CORRECT || (answer >= 0 && quiz.isCorrectOption(position, answer))) {
+                score += quiz.getPoints(position);
+            }
+        }
+        return score;
+    }
+}
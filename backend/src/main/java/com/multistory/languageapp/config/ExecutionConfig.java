@@ -0,0 +1,52 @@
+package com.multistory.languageapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.multistory.languageapp.service.JobExecutors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Request execution settings. Switching to virtual threads (the virtual-threads profile, Java 21+)
+ * moves Tomcat request handling, the application task executor, scheduling and background jobs
+ * onto virtual threads; the request limiter then takes over the concurrency cap that Tomcat's
+ * thread pool used to provide, sized from the JDBC connection pool. On an older JVM Spring Boot
+ * would silently keep platform threads, so startup fails instead.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    @ConditionalOnProperty(name = "execution.request-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ConnectionPoolRequestLimiter> connectionPoolRequestLimiter(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            @Value("${execution.request-limit.permits-per-connection:2}") int permitsPerConnection,
+            @Value("${execution.request-limit.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        int permits = JobExecutors.connectionPoolSize(dataSource) * permitsPerConnection;
+        FilterRegistrationBean<ConnectionPoolRequestLimiter> registration = new FilterRegistrationBean<>(
+            new ConnectionPoolRequestLimiter(permits, acquireTimeoutMs, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    @ConditionalOnJava(range = ConditionalOnJava.Range.OLDER_THAN, value = JavaVersion.TWENTY_ONE)
+    static class VirtualThreadsUnavailable {
+
+        VirtualThreadsUnavailable() {
+            throw new IllegalStateException("spring.threads.virtual.enabled (the virtual-threads profile) needs Java 21+, "
+                + "but this JVM is Java " + JavaVersion.getJavaVersion() + "; run on Java 21 or drop the profile");
+        }
+    }
+}
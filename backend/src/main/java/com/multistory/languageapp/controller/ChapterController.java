@@ -0,0 +1,134 @@
+package com.multistory.languageapp.controller;
+
+import com.multistory.languageapp.dto.ChapterContentChunk;
+import com.multistory.languageapp.dto.ChapterSummaryDTO;
+import com.multistory.languageapp.dto.ResourceVersion;
+import com.multistory.languageapp.service.ChapterContentService;
+import com.multistory.languageapp.service.StoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stories/{storyId}/chapters")
+@CrossOrigin(origins = {"http://localhost:4200", "http://localhost:3000"},
+             exposedHeaders = {"Content-Range", "X-Next-Cursor"})
+public class ChapterController {
+
+    private static final String BYTES_PREFIX = "bytes=";
+
+    private final ChapterContentService chapterContentService;
+    private final StoryService storyService;
+
+    @Autowired
+    public ChapterController(ChapterContentService chapterContentService, StoryService storyService) {
+        this.chapterContentService = chapterContentService;
+        this.storyService = storyService;
+    }
+
+    /**
+     * Get chapter metadata (number, title, duration, audio) without content
+     */
+    @GetMapping
+    public ResponseEntity<List<ChapterSummaryDTO>> getChapters(@PathVariable Long storyId, WebRequest webRequest) {
+        if (StoryController.isNotModified(webRequest, storyService.getStoryVersion(storyId).derive("chapters"))) {
+            return null;
+        }
+        List<ChapterSummaryDTO> chapters = chapterContentService.getChapters(storyId);
+        return ResponseEntity.ok(chapters);
+    }
+
+    /**
+     * Get one chunk of chapter text as UTF-8 plain text.
+     * Resume with the X-Next-Cursor value (200 per chunk), or address bytes directly with a single
+     * Range header (bytes=start-, bytes=start-end or bytes=-suffix), answered with 206 and Content-Range.
+     * A Range this endpoint cannot satisfy or parse gets 416 rather than silently reading from the start.
+     */
+    @GetMapping("/{chapterNumber}/content")
+    public ResponseEntity<byte[]> getChapterContent(
+            @PathVariable Long storyId,
+            @PathVariable Integer chapterNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "16384") int maxBytes,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            WebRequest webRequest) {
+
+        ResourceVersion version = storyService.getStoryVersion(storyId).derive("ch" + chapterNumber);
+        if (StoryController.isNotModified(webRequest, version)) {
+            return null;
+        }
+
+        MediaType textPlain = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+        if (cursor != null || range == null || !range.startsWith(BYTES_PREFIX)) {
+            // Ranges in other units are ignored, as HTTP allows
+            ChapterContentChunk chunk = chapterContentService.readChunk(storyId, chapterNumber, cursor, maxBytes);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(textPlain)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (chunk.getNextCursor() != null) {
+                response.header("X-Next-Cursor", chunk.getNextCursor());
+            }
+            return response.body(chunk.getData());
+        }
+
+        String[] bounds = range.substring(BYTES_PREFIX.length()).trim().split("-", 2);
+        long start;
+        long end = -1;
+        try {
+            if (bounds.length < 2 || bounds[1].contains(",")) {
+                // Not a single byte range
+                return rangeNotSatisfiable(chapterContentService.getContentLength(storyId, chapterNumber));
+            }
+            if (bounds[0].isBlank()) {
+                long suffix = Long.parseLong(bounds[1].trim());
+                long totalBytes = chapterContentService.getContentLength(storyId, chapterNumber);
+                if (suffix <= 0 || totalBytes == 0) {
+                    return rangeNotSatisfiable(totalBytes);
+                }
+                start = Math.max(0, totalBytes - suffix);
+            } else {
+                start = Long.parseLong(bounds[0].trim());
+                if (!bounds[1].isBlank()) {
+                    end = Long.parseLong(bounds[1].trim());
+                }
+            }
+        } catch (NumberFormatException e) {
+            return rangeNotSatisfiable(chapterContentService.getContentLength(storyId, chapterNumber));
+        }
+        if (start < 0 || end >= 0 && end < start) {
+            return rangeNotSatisfiable(chapterContentService.getContentLength(storyId, chapterNumber));
+        }
+
+        int limit = end >= 0 ? (int) Math.min(maxBytes, end - start + 1) : maxBytes;
+        ChapterContentChunk chunk = chapterContentService.readRange(storyId, chapterNumber, start, limit);
+        if (start >= chunk.getTotalBytes()) {
+            return rangeNotSatisfiable(chunk.getTotalBytes());
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity
+            .status(chunk.isComplete() ? HttpStatus.OK : HttpStatus.PARTIAL_CONTENT)
+            .contentType(textPlain)
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (!chunk.isComplete()) {
+            response.header(HttpHeaders.CONTENT_RANGE,
+                "bytes " + chunk.getStart() + "-" + (chunk.getEnd() - 1) + "/" + chunk.getTotalBytes());
+        }
+        if (chunk.getNextCursor() != null) {
+            response.header("X-Next-Cursor", chunk.getNextCursor());
+        }
+        return response.body(chunk.getData());
+    }
+
+    private static ResponseEntity<byte[]> rangeNotSatisfiable(long totalBytes) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + totalBytes)
+            .build();
+    }
+}
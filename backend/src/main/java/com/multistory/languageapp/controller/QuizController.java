@@ -1,81 +1,104 @@
 package com.multistory.languageapp.controller;
 
-import org.springframework.web.bind.annotation.*;
+import com.multistory.languageapp.dto.QuizQuestionAnalyticsDTO;
+import com.multistory.languageapp.dto.QuizQuestionDTO;
+import com.multistory.languageapp.dto.QuizQuestionRequest;
+import com.multistory.languageapp.dto.QuizResultDTO;
+import com.multistory.languageapp.service.PrecompressedBody;
+import com.multistory.languageapp.service.QuizAnalyticsService;
+import com.multistory.languageapp.service.QuizService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import java.util.*;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/quiz")
 @CrossOrigin(origins = "http://localhost:4200")
 public class QuizController {
 
+    private final QuizService quizService;
+    private final QuizAnalyticsService quizAnalyticsService;
+
+    @Autowired
+    public QuizController(QuizService quizService, QuizAnalyticsService quizAnalyticsService) {
+        this.quizService = quizService;
+        this.quizAnalyticsService = quizAnalyticsService;
+    }
+
+    /**
+     * Get all quiz questions of a story (pre-serialized JSON, answer keys excluded)
+     */
     @GetMapping("/story/{storyId}")
-    public ResponseEntity<List<Map<String, Object>>> getQuizForStory(@PathVariable Long storyId) {
-        // Return mock quiz data for now
-        List<Map<String, Object>> quiz = new ArrayList<>();
-        
-        // Multiple choice question
-        Map<String, Object> question1 = new HashMap<>();
-        question1.put("id", 1);
-        question1.put("storyId", storyId);
-        question1.put("type", "multiple_choice");
-        question1.put("question", "What is the main theme of this story?");
-        question1.put("options", Arrays.asList("Adventure", "Romance", "Mystery", "Comedy"));
-        question1.put("correctAnswer", 0);
-        question1.put("points", 10);
-        quiz.add(question1);
-        
-        // Fill in the blank question
-        Map<String, Object> question2 = new HashMap<>();
-        question2.put("id", 2);
-        question2.put("storyId", storyId);
-        question2.put("type", "fill_blank");
-        question2.put("question", "The character _____ the challenge successfully.");
-        question2.put("correctAnswer", "completed");
-        question2.put("points", 15);
-        quiz.add(question2);
-        
-        // True/False question
-        Map<String, Object> question3 = new HashMap<>();
-        question3.put("id", 3);
-        question3.put("storyId", storyId);
-        question3.put("type", "true_false");
-        question3.put("question", "The story takes place in a modern city.");
-        question3.put("correctAnswer", true);
-        question3.put("points", 5);
-        quiz.add(question3);
-        
-        return ResponseEntity.ok(quiz);
+    public ResponseEntity<byte[]> getQuizForStory(
+            @PathVariable Long storyId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return quizBody(quizService.getQuiz(storyId, null).getBody(), acceptEncoding);
+    }
+
+    /**
+     * Get the quiz questions of one chapter
+     */
+    @GetMapping("/story/{storyId}/chapter/{chapterNumber}")
+    public ResponseEntity<byte[]> getQuizForChapter(
+            @PathVariable Long storyId,
+            @PathVariable Integer chapterNumber,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return quizBody(quizService.getQuiz(storyId, chapterNumber).getBody(), acceptEncoding);
     }
-    
-    @PostMapping("/{storyId}/submit")
-    public ResponseEntity<Map<String, Object>> submitQuiz(
+
+    /**
+     * Score a quiz submission against the story quiz, or a chapter quiz when chapterNumber is given.
+     * The body is {userId?, answers: [{questionId, userAnswer}]} and is parsed as it streams in.
+     */
+    @PostMapping(value = "/{storyId}/submit", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<QuizResultDTO> submitQuiz(
+            @PathVariable Long storyId,
+            @RequestParam(required = false) Integer chapterNumber,
+            InputStream body) {
+        return ResponseEntity.ok(quizService.submit(storyId, chapterNumber, body));
+    }
+
+    /**
+     * Per-question attempts, correct answers, option histograms and difficulty index of a story's quiz
+     */
+    @GetMapping("/{storyId}/analytics")
+    public ResponseEntity<List<QuizQuestionAnalyticsDTO>> getAnalytics(@PathVariable Long storyId) {
+        return ResponseEntity.ok(quizAnalyticsService.getAnalytics(storyId));
+    }
+
+    /**
+     * Add a question to a story's quiz
+     */
+    @PostMapping("/story/{storyId}/questions")
+    public ResponseEntity<QuizQuestionDTO> addQuestion(
             @PathVariable Long storyId,
-            @RequestBody Map<String, Object> requestBody) {
-        
-        // Extract answers from request body
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> answers = (List<Map<String, Object>>) requestBody.get("answers");
-        
-        // Mock scoring logic
-        int totalScore = 0;
-        int maxScore = 30; // Sum of all question points
-        
-        if (answers != null) {
-            for (Map<String, Object> answer : answers) {
-                // In real implementation, we would validate answers
-                // For now, just add points randomly
-                totalScore += 10;
-            }
+            @Valid @RequestBody QuizQuestionRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(quizService.addQuestion(storyId, request));
+    }
+
+    /**
+     * Remove a question from a story's quiz
+     */
+    @DeleteMapping("/story/{storyId}/questions/{questionId}")
+    public ResponseEntity<Void> deleteQuestion(@PathVariable Long storyId, @PathVariable Long questionId) {
+        quizService.deleteQuestion(storyId, questionId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ResponseEntity<byte[]> quizBody(PrecompressedBody body, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (body.getGzip() != null && StoryController.acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.getGzip());
         }
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("score", Math.min(totalScore, maxScore));
-        result.put("maxScore", maxScore);
-        result.put("percentage", (double) Math.min(totalScore, maxScore) / maxScore * 100);
-        result.put("passed", totalScore >= maxScore * 0.7); // 70% to pass
-        result.put("message", totalScore >= maxScore * 0.7 ? "Congratulations! You passed!" : "Keep studying!");
-        
-        return ResponseEntity.ok(result);
+        return response.body(body.getIdentity());
     }
 }
@@ -1,16 +1,27 @@
 package com.multistory.languageapp.controller;
 
+import com.multistory.languageapp.dto.CursorPage;
+import com.multistory.languageapp.dto.ResourceVersion;
 import com.multistory.languageapp.dto.StoryDTO;
 import com.multistory.languageapp.dto.StoryCreateRequest;
+import com.multistory.languageapp.dto.StorySummaryDTO;
 import com.multistory.languageapp.dto.StoryUpdateRequest;
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.exception.InvalidRequestException;
+import com.multistory.languageapp.service.PrecompressedBody;
 import com.multistory.languageapp.service.StoryService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,6 +30,9 @@ import java.util.List;
 @CrossOrigin(origins = {"http://localhost:4200", "http://localhost:3000"})
 public class StoryController {
     
+    // Largest page served by the endpoints that take raw page and size parameters
+    static final int MAX_PAGE_SIZE = 100;
+    
     private final StoryService storyService;
     
     @Autowired
@@ -27,26 +41,56 @@ public class StoryController {
     }
     
     /**
-     * Get all stories with optional filtering and pagination
+     * Get all stories with optional filtering and pagination.
+     * Passing a cursor parameter (empty for the first page) switches to keyset pagination,
+     * which skips the count query unless includeTotal=true.
      */
     @GetMapping
-    public ResponseEntity<Page<StoryDTO>> getAllStories(
+    public ResponseEntity<?> getAllStories(
             @RequestParam(required = false) String language,
             @RequestParam(required = false) String difficulty,
             @RequestParam(required = false) String keyword,
-            Pageable pageable) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Pageable pageable,
+            WebRequest webRequest) {
         
-        Page<StoryDTO> stories = storyService.getStoriesWithFilters(language, difficulty, keyword, pageable);
+        if (isNotModified(webRequest, storyService.getCatalogVersion())) {
+            return null;
+        }
+        if (cursor != null) {
+            CursorPage<StorySummaryDTO> stories = storyService.getStoriesAfterCursor(
+                language, difficulty, keyword, cursor, pageable.getPageSize(), includeTotal);
+            return ResponseEntity.ok(stories);
+        }
+        Page<StorySummaryDTO> stories = storyService.getStoriesWithFilters(language, difficulty, keyword, pageable);
         return ResponseEntity.ok(stories);
     }
     
     /**
-     * Get story by ID with chapters
+     * Get story by ID (pre-serialized JSON from the response cache). Conditional requests are
+     * answered from the story's validators alone, without loading or encoding the story.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<StoryDTO> getStoryById(@PathVariable Long id) {
-        StoryDTO story = storyService.getStoryById(id);
-        return ResponseEntity.ok(story);
+    public ResponseEntity<byte[]> getStoryById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest,
+            HttpServletResponse servletResponse) {
+        // Set up front so 304 responses carry it too
+        servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResourceVersion version = storyService.getStoryVersion(id);
+        // The gzip representation is a different byte sequence, so it gets its own validator
+        if (isNotModified(webRequest, gzip && version != null ? version.derive("gzip") : version)) {
+            return null;
+        }
+        PrecompressedBody story = storyService.getStoryResponse(id).body();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (gzip && story.getGzip() != null) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(story.getGzip());
+        }
+        return response.body(story.getIdentity());
     }
     
     /**
@@ -83,8 +127,14 @@ public class StoryController {
      * Get stories by language
      */
     @GetMapping("/language/{language}")
-    public ResponseEntity<List<StoryDTO>> getStoriesByLanguage(@PathVariable String language) {
-        List<StoryDTO> stories = storyService.getStoriesByLanguage(language);
+    public ResponseEntity<List<StorySummaryDTO>> getStoriesByLanguage(
+            @PathVariable String language,
+            WebRequest webRequest) {
+        
+        if (isNotModified(webRequest, storyService.getCatalogVersion())) {
+            return null;
+        }
+        List<StorySummaryDTO> stories = storyService.getStoriesByLanguage(language);
         return ResponseEntity.ok(stories);
     }
     
@@ -92,29 +142,68 @@ public class StoryController {
      * Get popular stories
      */
     @GetMapping("/popular")
-    public ResponseEntity<List<StoryDTO>> getPopularStories(
+    public ResponseEntity<List<StorySummaryDTO>> getPopularStories(
             @RequestParam(defaultValue = "10") int limit) {
         
-        List<StoryDTO> popularStories = storyService.getPopularStories(limit);
+        List<StorySummaryDTO> popularStories = storyService.getPopularStories(limit);
         return ResponseEntity.ok(popularStories);
     }
     
     /**
-     * Search stories by keyword
+     * Get trending stories (completions weighted towards the recent past)
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<StorySummaryDTO>> getTrendingStories(
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        List<StorySummaryDTO> trendingStories = storyService.getTrendingStories(limit);
+        return ResponseEntity.ok(trendingStories);
+    }
+    
+    /**
+     * Search stories by keyword, ranked by relevance.
+     * The total hit count is returned in the X-Total-Count header.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<StoryDTO>> searchStories(@RequestParam String keyword) {
-        List<StoryDTO> stories = storyService.searchStories(keyword);
-        return ResponseEntity.ok(stories);
+    public ResponseEntity<List<StorySummaryDTO>> searchStories(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String language,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        
+        if (isNotModified(webRequest, storyService.getCatalogVersion())) {
+            return null;
+        }
+        Page<StorySummaryDTO> results = storyService.searchStories(keyword, language, pageRequest(page, size));
+        return ResponseEntity.ok()
+            .header("X-Total-Count", String.valueOf(results.getTotalElements()))
+            .body(results.getContent());
     }
     
     /**
-     * Get stories by tags
+     * Get stories by tags: any of tags, all of allTags, none of excludeTags, newest first.
+     * The total number of matches is returned in the X-Total-Count header.
      */
     @GetMapping("/tags")
-    public ResponseEntity<List<StoryDTO>> getStoriesByTags(@RequestParam List<String> tags) {
-        List<StoryDTO> stories = storyService.getStoriesByTags(tags);
-        return ResponseEntity.ok(stories);
+    public ResponseEntity<List<StorySummaryDTO>> getStoriesByTags(
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(required = false) List<String> allTags,
+            @RequestParam(required = false) List<String> excludeTags,
+            @RequestParam(required = false) String language,
+            @RequestParam(required = false) DifficultyLevel difficulty,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        
+        if (isNotModified(webRequest, storyService.getCatalogVersion())) {
+            return null;
+        }
+        Page<StorySummaryDTO> stories = storyService.getStoriesByTags(
+            tags, allTags, excludeTags, language, difficulty, pageRequest(page, size));
+        return ResponseEntity.ok()
+            .header("X-Total-Count", String.valueOf(stories.getTotalElements()))
+            .body(stories.getContent());
     }
     
     /**
@@ -134,4 +223,47 @@ public class StoryController {
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Story service is running");
     }
+    
+    // True when the Accept-Encoding header lists gzip (or *) without q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        rejected = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        rejected = true;
+                    }
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // A negative page is rejected (400); size is clamped to 1..MAX_PAGE_SIZE
+    static PageRequest pageRequest(int page, int size) {
+        if (page < 0) {
+            throw new InvalidRequestException("page must not be negative");
+        }
+        return PageRequest.of(page, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+    
+    // Evaluates If-None-Match / If-Modified-Since and sets ETag and Last-Modified on the response.
+    // When true the response has already been turned into a 304 and the handler should return null.
+    static boolean isNotModified(WebRequest webRequest, ResourceVersion version) {
+        return version != null && webRequest.checkNotModified(version.getETag(), version.getLastModified());
+    }
 }
@@ -1,8 +1,14 @@
 package com.multistory.languageapp.controller;
 
+import com.multistory.languageapp.dto.LeaderboardEntryDTO;
+import com.multistory.languageapp.dto.ProgressEventResult;
+import com.multistory.languageapp.dto.UserDeletionJobDTO;
 import com.multistory.languageapp.dto.UserProgressDTO;
 import com.multistory.languageapp.dto.UserProgressUpdateRequest;
 import com.multistory.languageapp.dto.UserStatisticsDTO;
+import com.multistory.languageapp.service.IdempotencyStore;
+import com.multistory.languageapp.service.LeaderboardService;
+import com.multistory.languageapp.service.UserDeletionService;
 import com.multistory.languageapp.service.UserProgressService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,18 +16,32 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/progress")
 @CrossOrigin(origins = {"http://localhost:4200", "http://localhost:3000"})
 public class UserProgressController {
     
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    
     private final UserProgressService userProgressService;
+    private final LeaderboardService leaderboardService;
+    private final IdempotencyStore idempotencyStore;
+    private final UserDeletionService userDeletionService;
     
     @Autowired
-    public UserProgressController(UserProgressService userProgressService) {
+    public UserProgressController(UserProgressService userProgressService, LeaderboardService leaderboardService,
+                                  IdempotencyStore idempotencyStore, UserDeletionService userDeletionService) {
         this.userProgressService = userProgressService;
+        this.leaderboardService = leaderboardService;
+        this.idempotencyStore = idempotencyStore;
+        this.userDeletionService = userDeletionService;
     }
     
     /**
@@ -46,16 +66,35 @@ public class UserProgressController {
     }
     
     /**
-     * Create or update user progress
+     * Create or update user progress.
+     * A retry carrying the same Idempotency-Key gets the original response without being applied again.
      */
     @PostMapping("/user/{userId}/story/{storyId}")
     public ResponseEntity<UserProgressDTO> updateProgress(
             @PathVariable Long userId,
             @PathVariable Long storyId,
-            @Valid @RequestBody UserProgressUpdateRequest request) {
+            @Valid @RequestBody UserProgressUpdateRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
         
-        UserProgressDTO progress = userProgressService.updateProgress(userId, storyId, request);
-        return ResponseEntity.ok(progress);
+        IdempotencyStore.Outcome<UserProgressDTO> outcome = idempotencyStore.execute("progress:" + userId,
+            idempotencyKey, List.of(storyId, request), () -> userProgressService.updateProgress(userId, storyId, request));
+        return ResponseEntity.ok()
+            .header(IDEMPOTENT_REPLAYED, String.valueOf(outcome.replayed()))
+            .body(outcome.response());
+    }
+    
+    /**
+     * Bulk sync of progress events as NDJSON, one JSON object (with storyId) per line.
+     * Returns one result per event line; rejected lines do not affect the others.
+     * More event lines than progress.ingest.max-events fail the whole request with 400.
+     */
+    @PostMapping(value = "/user/{userId}/events", consumes = "application/x-ndjson")
+    public ResponseEntity<List<ProgressEventResult>> ingestEvents(
+            @PathVariable Long userId,
+            InputStream events) {
+        
+        List<ProgressEventResult> results = userProgressService.ingestEvents(userId, events);
+        return ResponseEntity.ok(results);
     }
     
     /**
@@ -94,6 +133,27 @@ public class UserProgressController {
         return ResponseEntity.ok(vocabulary);
     }
     
+    /**
+     * Get the number of distinct words the user has learned
+     */
+    @GetMapping("/user/{userId}/vocabulary/count")
+    public ResponseEntity<Map<String, Integer>> countUserVocabulary(@PathVariable Long userId) {
+        int count = userProgressService.countUserVocabulary(userId);
+        return ResponseEntity.ok(Map.of("count", count));
+    }
+    
+    /**
+     * Check how many of the given words (e.g. a story's vocabulary) the user already knows
+     */
+    @PostMapping("/user/{userId}/vocabulary/known")
+    public ResponseEntity<Map<String, Integer>> countKnownWords(
+            @PathVariable Long userId,
+            @RequestBody List<String> words) {
+        
+        int known = userProgressService.countKnownWords(userId, words);
+        return ResponseEntity.ok(Map.of("known", known, "total", words.size()));
+    }
+    
     /**
      * Add vocabulary word to user's learned list
      */
@@ -142,30 +202,57 @@ public class UserProgressController {
     }
     
     /**
-     * Complete a chapter
+     * Complete a chapter.
+     * A retry carrying the same Idempotency-Key gets the original response without being applied again.
      */
     @PostMapping("/user/{userId}/story/{storyId}/chapter/{chapterNumber}/complete")
     public ResponseEntity<UserProgressDTO> completeChapter(
             @PathVariable Long userId,
             @PathVariable Long storyId,
             @PathVariable Integer chapterNumber,
-            @RequestBody(required = false) UserProgressUpdateRequest request) {
+            @RequestBody(required = false) UserProgressUpdateRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
         
-        UserProgressDTO progress = userProgressService.completeChapter(userId, storyId, chapterNumber, request);
-        return ResponseEntity.ok(progress);
+        IdempotencyStore.Outcome<UserProgressDTO> outcome = idempotencyStore.execute("chapter:" + userId,
+            idempotencyKey, Arrays.asList(storyId, chapterNumber, request),
+            () -> userProgressService.completeChapter(userId, storyId, chapterNumber, request));
+        return ResponseEntity.ok()
+            .header(IDEMPOTENT_REPLAYED, String.valueOf(outcome.replayed()))
+            .body(outcome.response());
     }
     
     /**
-     * Get leaderboard data
+     * Get a page of the leaderboard, highest average completion first.
+     * The number of ranked users is returned in the X-Total-Count header.
      */
     @GetMapping("/leaderboard")
-    public ResponseEntity<List<?>> getLeaderboard() {
-        List<?> leaderboard = userProgressService.getLeaderboard();
-        return ResponseEntity.ok(leaderboard);
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboard(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        List<LeaderboardEntryDTO> leaderboard = leaderboardService.getPage(page, size);
+        return ResponseEntity.ok()
+            .header("X-Total-Count", String.valueOf(leaderboardService.size()))
+            .body(leaderboard);
     }
     
     /**
-     * Reset user progress for a story
+     * Get a user's leaderboard rank with the users ranked just above and below
+     */
+    @GetMapping("/leaderboard/user/{userId}")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboardNeighbourhood(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "5") int neighbours) {
+        
+        List<LeaderboardEntryDTO> neighbourhood = leaderboardService.getNeighbourhood(userId, neighbours);
+        if (neighbourhood.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(neighbourhood);
+    }
+    
+    /**
+     * Reset user progress for a story. Words learned while reading it stay in the user's vocabulary.
      */
     @DeleteMapping("/user/{userId}/story/{storyId}")
     public ResponseEntity<Void> resetStoryProgress(
@@ -177,11 +264,24 @@ public class UserProgressController {
     }
     
     /**
-     * Delete all user progress (GDPR compliance)
+     * Delete all user progress (GDPR compliance).
+     * Runs in the background; the Location header points at the job to poll.
      */
     @DeleteMapping("/user/{userId}")
-    public ResponseEntity<Void> deleteUserProgress(@PathVariable Long userId) {
-        userProgressService.deleteUserProgress(userId);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<UserDeletionJobDTO> deleteUserProgress(@PathVariable Long userId) {
+        UserDeletionJobDTO job = userDeletionService.requestDeletion(userId);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/progress/deletions/" + job.getId()))
+            .body(job);
+    }
+    
+    /**
+     * Get the status and progress of a user deletion job
+     */
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<UserDeletionJobDTO> getDeletionJob(@PathVariable Long jobId) {
+        return userDeletionService.getJob(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
     }
 }
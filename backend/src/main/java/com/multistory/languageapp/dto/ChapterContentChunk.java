@@ -0,0 +1,34 @@
+package com.multistory.languageapp.dto;
+
+/**
+ * A byte range of a chapter's UTF-8 content.
+ * start is inclusive, end is exclusive; nextCursor is null once the end of the chapter is reached.
+ * The cursor is "byteOffset:characterOffset" of end, so the next read can select from that character.
+ */
+public class ChapterContentChunk {
+    private final byte[] data;
+    private final long start;
+    private final long end;
+    private final long totalBytes;
+    private final long endCharacter;
+
+    public ChapterContentChunk(byte[] data, long start, long end, long totalBytes, long endCharacter) {
+        this.data = data;
+        this.start = start;
+        this.end = end;
+        this.totalBytes = totalBytes;
+        this.endCharacter = endCharacter;
+    }
+
+    public byte[] getData() { return data; }
+
+    public long getStart() { return start; }
+
+    public long getEnd() { return end; }
+
+    public long getTotalBytes() { return totalBytes; }
+
+    public boolean isComplete() { return start == 0 && end == totalBytes; }
+
+    public String getNextCursor() { return end < totalBytes ? end + ":" + endCharacter : null; }
+}
@@ -0,0 +1,45 @@
+package com.multistory.languageapp.dto;
+
+/**
+ * Chapter metadata without content; the text itself is read through the chunked content endpoint.
+ */
+public class ChapterSummaryDTO {
+    private Long id;
+    private Integer chapterNumber;
+    private String title;
+    private Integer duration;
+    private String audioUrl;
+    private Boolean isUnlocked;
+
+    // Constructors
+    public ChapterSummaryDTO() {}
+
+    public ChapterSummaryDTO(Long id, Integer chapterNumber, String title, Integer duration,
+                             String audioUrl, Boolean isUnlocked) {
+        this.id = id;
+        this.chapterNumber = chapterNumber;
+        this.title = title;
+        this.duration = duration;
+        this.audioUrl = audioUrl;
+        this.isUnlocked = isUnlocked;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Integer getChapterNumber() { return chapterNumber; }
+    public void setChapterNumber(Integer chapterNumber) { this.chapterNumber = chapterNumber; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public Integer getDuration() { return duration; }
+    public void setDuration(Integer duration) { this.duration = duration; }
+
+    public String getAudioUrl() { return audioUrl; }
+    public void setAudioUrl(String audioUrl) { this.audioUrl = audioUrl; }
+
+    public Boolean getIsUnlocked() { return isUnlocked; }
+    public void setIsUnlocked(Boolean isUnlocked) { this.isUnlocked = isUnlocked; }
+}
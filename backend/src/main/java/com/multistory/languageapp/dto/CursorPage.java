@@ -0,0 +1,38 @@
+package com.multistory.languageapp.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * nextCursor is an opaque token to pass back as the cursor parameter; it is null on the last page.
+ * totalElements is only populated when the client asked for it.
+ */
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private Boolean hasNext;
+    private Long totalElements;
+
+    // Constructors
+    public CursorPage() {}
+
+    public CursorPage(List<T> content, String nextCursor, Long totalElements) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+        this.totalElements = totalElements;
+    }
+
+    // Getters and Setters
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public Boolean getHasNext() { return hasNext; }
+    public void setHasNext(Boolean hasNext) { this.hasNext = hasNext; }
+
+    public Long getTotalElements() { return totalElements; }
+    public void setTotalElements(Long totalElements) { this.totalElements = totalElements; }
+}
@@ -0,0 +1,31 @@
+package com.multistory.languageapp.dto;
+
+public class LeaderboardEntryDTO {
+    private int rank;
+    private Long userId;
+    private Double avgCompletion;
+    private Long totalStories;
+    
+    // Constructors
+    public LeaderboardEntryDTO() {}
+    
+    public LeaderboardEntryDTO(int rank, Long userId, Double avgCompletion, Long totalStories) {
+        this.rank = rank;
+        this.userId = userId;
+        this.avgCompletion = avgCompletion;
+        this.totalStories = totalStories;
+    }
+    
+    // Getters and Setters
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public Double getAvgCompletion() { return avgCompletion; }
+    public void setAvgCompletion(Double avgCompletion) { this.avgCompletion = avgCompletion; }
+    
+    public Long getTotalStories() { return totalStories; }
+    public void setTotalStories(Long totalStories) { this.totalStories = totalStories; }
+}
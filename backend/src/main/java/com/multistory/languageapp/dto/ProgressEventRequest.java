@@ -0,0 +1,19 @@
+package com.multistory.languageapp.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One line of a bulk NDJSON progress sync: a progress update addressed to a story
+ */
+public class ProgressEventRequest extends UserProgressUpdateRequest {
+
+    @NotNull(message = "Story ID is required")
+    private Long storyId;
+
+    // Constructors
+    public ProgressEventRequest() {}
+
+    // Getters and Setters
+    public Long getStoryId() { return storyId; }
+    public void setStoryId(Long storyId) { this.storyId = storyId; }
+}
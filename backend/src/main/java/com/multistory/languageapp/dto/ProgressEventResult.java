@@ -0,0 +1,45 @@
+package com.multistory.languageapp.dto;
+
+/**
+ * Outcome of one event in a bulk progress sync, addressed by its 1-based line number
+ */
+public class ProgressEventResult {
+
+    public enum Status { APPLIED, REJECTED }
+
+    private int line;
+    private Long storyId;
+    private Status status;
+    private String message;
+
+    // Constructors
+    public ProgressEventResult() {}
+
+    public ProgressEventResult(int line, Long storyId, Status status, String message) {
+        this.line = line;
+        this.storyId = storyId;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static ProgressEventResult applied(int line, Long storyId) {
+        return new ProgressEventResult(line, storyId, Status.APPLIED, null);
+    }
+
+    public static ProgressEventResult rejected(int line, Long storyId, String message) {
+        return new ProgressEventResult(line, storyId, Status.REJECTED, message);
+    }
+
+    // Getters and Setters
+    public int getLine() { return line; }
+    public void setLine(int line) { this.line = line; }
+
+    public Long getStoryId() { return storyId; }
+    public void setStoryId(Long storyId) { this.storyId = storyId; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
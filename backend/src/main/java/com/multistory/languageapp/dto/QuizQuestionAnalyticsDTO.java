@@ -0,0 +1,59 @@
+package com.multistory.languageapp.dto;
+
+import java.util.List;
+
+/**
+ * How readers did on one quiz question. The difficulty index is the share of attempts answered
+ * correctly (1.0 means everyone got it right) and is null until the question has attempts.
+ */
+public class QuizQuestionAnalyticsDTO {
+    private Long questionId;
+    private Integer chapterNumber;
+    private Integer position;
+    private String type;
+    private String question;
+    private List<String> options;
+    private long attempts;
+    private long correctCount;
+    private long skippedCount;
+    private List<Long> choiceCounts;
+    private Double difficultyIndex;
+
+    // Constructors
+    public QuizQuestionAnalyticsDTO() {}
+
+    // Getters and Setters
+    public Long getQuestionId() { return questionId; }
+    public void setQuestionId(Long questionId) { this.questionId = questionId; }
+
+    public Integer getChapterNumber() { return chapterNumber; }
+    public void setChapterNumber(Integer chapterNumber) { this.chapterNumber = chapterNumber; }
+
+    public Integer getPosition() { return position; }
+    public void setPosition(Integer position) { this.position = position; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getQuestion() { return question; }
+    public void setQuestion(String question) { this.question = question; }
+
+    public List<String> getOptions() { return options; }
+    public void setOptions(List<String> options) { this.options = options; }
+
+    public long getAttempts() { return attempts; }
+    public void setAttempts(long attempts) { this.attempts = attempts; }
+
+    public long getCorrectCount() { return correctCount; }
+    public void setCorrectCount(long correctCount) { this.correctCount = correctCount; }
+
+    public long getSkippedCount() { return skippedCount; }
+    public void setSkippedCount(long skippedCount) { this.skippedCount = skippedCount; }
+
+    // Times each option was chosen, by option index; null for fill-in-the-blank questions
+    public List<Long> getChoiceCounts() { return choiceCounts; }
+    public void setChoiceCounts(List<Long> choiceCounts) { this.choiceCounts = choiceCounts; }
+
+    public Double getDifficultyIndex() { return difficultyIndex; }
+    public void setDifficultyIndex(Double difficultyIndex) { this.difficultyIndex = difficultyIndex; }
+}
@@ -0,0 +1,41 @@
+package com.multistory.languageapp.dto;
+
+import java.util.List;
+
+/**
+ * A quiz question as served to readers; answer keys are never included
+ */
+public class QuizQuestionDTO {
+    private Long id;
+    private Long storyId;
+    private Integer chapterNumber;
+    private String type;
+    private String question;
+    private List<String> options;
+    private Integer points;
+
+    // Constructors
+    public QuizQuestionDTO() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getStoryId() { return storyId; }
+    public void setStoryId(Long storyId) { this.storyId = storyId; }
+
+    public Integer getChapterNumber() { return chapterNumber; }
+    public void setChapterNumber(Integer chapterNumber) { this.chapterNumber = chapterNumber; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getQuestion() { return question; }
+    public void setQuestion(String question) { this.question = question; }
+
+    public List<String> getOptions() { return options; }
+    public void setOptions(List<String> options) { this.options = options; }
+
+    public Integer getPoints() { return points; }
+    public void setPoints(Integer points) { this.points = points; }
+}
@@ -0,0 +1,65 @@
+package com.multistory.languageapp.dto;
+
+import com.multistory.languageapp.entity.QuestionType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class QuizQuestionRequest {
+    
+    @Min(value = 1, message = "Chapter number must be at least 1")
+    private Integer chapterNumber;
+    
+    @Min(value = 0, message = "Position must be at least 0")
+    private Integer position;
+    
+    @NotNull(message = "Question type is required")
+    private QuestionType type;
+    
+    @NotBlank(message = "Question is required")
+    @Size(max = 1000, message = "Question must not exceed 1000 characters")
+    private String question;
+    
+    @Size(max = 10, message = "A question can have at most 10 options")
+    private List<@NotBlank @Size(max = 255) String> options;
+    
+    private Integer correctOption;
+    
+    @Size(max = 255, message = "Correct text must not exceed 255 characters")
+    private String correctText;
+    
+    @Min(value = 1, message = "Points must be at least 1")
+    @Max(value = 100, message = "Points must not exceed 100")
+    private Integer points;
+
+    // Constructors
+    public QuizQuestionRequest() {}
+
+    // Getters and Setters
+    public Integer getChapterNumber() { return chapterNumber; }
+    public void setChapterNumber(Integer chapterNumber) { this.chapterNumber = chapterNumber; }
+
+    public Integer getPosition() { return position; }
+    public void setPosition(Integer position) { this.position = position; }
+
+    public QuestionType getType() { return type; }
+    public void setType(QuestionType type) { this.type = type; }
+
+    public String getQuestion() { return question; }
+    public void setQuestion(String question) { this.question = question; }
+
+    public List<String> getOptions() { return options; }
+    public void setOptions(List<String> options) { this.options = options; }
+
+    public Integer getCorrectOption() { return correctOption; }
+    public void setCorrectOption(Integer correctOption) { this.correctOption = correctOption; }
+
+    public String getCorrectText() { return correctText; }
+    public void setCorrectText(String correctText) { this.correctText = correctText; }
+
+    public Integer getPoints() { return points; }
+    public void setPoints(Integer points) { this.points = points; }
+}
@@ -0,0 +1,36 @@
+package com.multistory.languageapp.dto;
+
+public class QuizResultDTO {
+    private int score;
+    private int maxScore;
+    private double percentage;
+    private int correctAnswers;
+    private int totalQuestions;
+    private boolean passed;
+    private String message;
+
+    // Constructors
+    public QuizResultDTO() {}
+
+    // Getters and Setters
+    public int getScore() { return score; }
+    public void setScore(int score) { this.score = score; }
+
+    public int getMaxScore() { return maxScore; }
+    public void setMaxScore(int maxScore) { this.maxScore = maxScore; }
+
+    public double getPercentage() { return percentage; }
+    public void setPercentage(double percentage) { this.percentage = percentage; }
+
+    public int getCorrectAnswers() { return correctAnswers; }
+    public void setCorrectAnswers(int correctAnswers) { this.correctAnswers = correctAnswers; }
+
+    public int getTotalQuestions() { return totalQuestions; }
+    public void setTotalQuestions(int totalQuestions) { this.totalQuestions = totalQuestions; }
+
+    public boolean isPassed() { return passed; }
+    public void setPassed(boolean passed) { this.passed = passed; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
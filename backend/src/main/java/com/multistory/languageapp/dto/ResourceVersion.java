@@ -0,0 +1,33 @@
+package com.multistory.languageapp.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validators for conditional GETs: a strong entity tag and a last-modified timestamp.
+ */
+public class ResourceVersion {
+    private final String eTag;
+    private final long lastModified;
+
+    public ResourceVersion(String eTag, long lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public static ResourceVersion of(String prefix, LocalDateTime modifiedAt) {
+        long millis = modifiedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new ResourceVersion("\"" + prefix + "-" + Long.toHexString(millis) + "\"", millis);
+    }
+
+    /**
+     * Version of a sub-resource that changes whenever this one does
+     */
+    public ResourceVersion derive(String suffix) {
+        return new ResourceVersion(eTag.substring(0, eTag.length() - 1) + "-" + suffix + "\"", lastModified);
+    }
+
+    public String getETag() { return eTag; }
+
+    public long getLastModified() { return lastModified; }
+}
@@ -0,0 +1,67 @@
+package com.multistory.languageapp.dto;
+
+import com.multistory.languageapp.entity.DifficultyLevel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lightweight story representation for listings. Built directly from a JPQL constructor
+ * expression so list queries never read the story content; tags are filled in afterwards.
+ */
+public class StorySummaryDTO {
+    private Long id;
+    private String title;
+    private String language;
+    private String difficulty;
+    private Integer estimatedDuration;
+    private Integer vocabularyCount;
+    private List<String> tags = new ArrayList<>();
+    private String excerpt;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public StorySummaryDTO() {}
+
+    public StorySummaryDTO(Long id, String title, String language, DifficultyLevel difficulty,
+                           Integer estimatedDuration, Integer vocabularyCount, String excerpt,
+                           LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.language = language;
+        this.difficulty = difficulty != null ? difficulty.toString() : null;
+        this.estimatedDuration = estimatedDuration;
+        this.vocabularyCount = vocabularyCount;
+        this.excerpt = excerpt;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getLanguage() { return language; }
+    public void setLanguage(String language) { this.language = language; }
+
+    public String getDifficulty() { return difficulty; }
+    public void setDifficulty(String difficulty) { this.difficulty = difficulty; }
+
+    public Integer getEstimatedDuration() { return estimatedDuration; }
+    public void setEstimatedDuration(Integer estimatedDuration) { this.estimatedDuration = estimatedDuration; }
+
+    public Integer getVocabularyCount() { return vocabularyCount; }
+    public void setVocabularyCount(Integer vocabularyCount) { this.vocabularyCount = vocabularyCount; }
+
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
+
+    public String getExcerpt() { return excerpt; }
+    public void setExcerpt(String excerpt) { this.excerpt = excerpt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
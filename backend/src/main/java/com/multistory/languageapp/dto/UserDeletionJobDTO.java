@@ -0,0 +1,52 @@
+package com.multistory.languageapp.dto;
+
+import com.multistory.languageapp.entity.DeletionJobStatus;
+
+import java.time.LocalDateTime;
+
+public class UserDeletionJobDTO {
+    private Long id;
+    private Long userId;
+    private DeletionJobStatus status;
+    private Long progressRows;
+    private Long deletedProgressRows;
+    private Long deletedRows;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    // Constructors
+    public UserDeletionJobDTO() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public DeletionJobStatus getStatus() { return status; }
+    public void setStatus(DeletionJobStatus status) { this.status = status; }
+
+    public Long getProgressRows() { return progressRows; }
+    public void setProgressRows(Long progressRows) { this.progressRows = progressRows; }
+
+    public Long getDeletedProgressRows() { return deletedProgressRows; }
+    public void setDeletedProgressRows(Long deletedProgressRows) { this.deletedProgressRows = deletedProgressRows; }
+
+    public Long getDeletedRows() { return deletedRows; }
+    public void setDeletedRows(Long deletedRows) { this.deletedRows = deletedRows; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
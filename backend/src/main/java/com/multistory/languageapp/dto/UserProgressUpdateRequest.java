@@ -2,6 +2,7 @@ package com.multistory.languageapp.dto;
 
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import java.util.List;
 
 public class UserProgressUpdateRequest {
@@ -17,7 +18,7 @@ public class UserProgressUpdateRequest {
     @Max(value = 100, message = "Quiz score must not exceed 100")
     private Integer quizScore;
     
-    private List<String> vocabularyLearned;
+    private List<@Size(max = 100, message = "Vocabulary words must not exceed 100 characters") String> vocabularyLearned;
     private Double pronunciationScore;
 
     // Constructors
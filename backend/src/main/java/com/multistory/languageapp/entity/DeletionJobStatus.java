@@ -0,0 +1,11 @@
+package com.multistory.languageapp.entity;
+
+/**
+ * Lifecycle of a user deletion job
+ */
+public enum DeletionJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,70 @@
+package com.multistory.languageapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One user's leaderboard score as of the last periodic snapshot, read back on startup so the
+ * in-memory leaderboard does not have to be rebuilt from user_statistics
+ */
+@Entity
+@Table(name = "leaderboard_snapshot")
+public class LeaderboardSnapshotEntry {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "completion_sum", nullable = false)
+    private Long completionSum;
+    
+    @Column(name = "total_stories", nullable = false)
+    private Long totalStories;
+    
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+    
+    // Constructors
+    public LeaderboardSnapshotEntry() {}
+    
+    public LeaderboardSnapshotEntry(Long userId, Long completionSum, Long totalStories, LocalDateTime takenAt) {
+        this.userId = userId;
+        this.completionSum = completionSum;
+        this.totalStories = totalStories;
+        this.takenAt = takenAt;
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getCompletionSum() {
+        return completionSum;
+    }
+    
+    public void setCompletionSum(Long completionSum) {
+        this.completionSum = completionSum;
+    }
+    
+    public Long getTotalStories() {
+        return totalStories;
+    }
+    
+    public void setTotalStories(Long totalStories) {
+        this.totalStories = totalStories;
+    }
+    
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+    
+    public void setTakenAt(LocalDateTime takenAt) {
+        this.takenAt = takenAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.multistory.languageapp.entity;
+
+/**
+ * Kinds of entries in the progress event log
+ */
+public enum ProgressEventType {
+    TIME_ADDED,
+    CHAPTER_COMPLETED,
+    WORD_LEARNED,
+    PRONUNCIATION_ATTEMPT
+}
@@ -0,0 +1,134 @@
+package com.multistory.languageapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of one progress change. Counter events (time added, pronunciation attempts)
+ * start out uncompacted and are folded into user_progress by the compactor; the other kinds are
+ * applied synchronously and logged already compacted, as history only.
+ */
+@Entity
+@Table(name = "progress_log", indexes = {
+    @Index(name = "idx_progress_log_pending", columnList = "compacted, id"),
+    @Index(name = "idx_progress_log_user_story", columnList = "user_id, story_id"),
+    @Index(name = "idx_progress_log_occurred", columnList = "occurred_at")
+})
+public class ProgressLogEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "progress_log_seq")
+    @SequenceGenerator(name = "progress_log_seq", sequenceName = "progress_log_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "story_id", nullable = false)
+    private Long storyId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 32)
+    private ProgressEventType type;
+    
+    // Seconds for TIME_ADDED, the chapter number for CHAPTER_COMPLETED
+    @Column(name = "amount")
+    private Integer amount;
+    
+    @Column(name = "score")
+    private Double score;
+    
+    @Column(name = "word", length = 100)
+    private String word;
+    
+    @Column(name = "compacted", nullable = false)
+    private Boolean compacted;
+    
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+    
+    // Constructors
+    public ProgressLogEntry() {}
+    
+    public ProgressLogEntry(Long userId, Long storyId, ProgressEventType type, boolean compacted) {
+        this.userId = userId;
+        this.storyId = storyId;
+        this.type = type;
+        this.compacted = compacted;
+        this.occurredAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getStoryId() {
+        return storyId;
+    }
+    
+    public void setStoryId(Long storyId) {
+        this.storyId = storyId;
+    }
+    
+    public ProgressEventType getType() {
+        return type;
+    }
+    
+    public void setType(ProgressEventType type) {
+        this.type = type;
+    }
+    
+    public Integer getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(Integer amount) {
+        this.amount = amount;
+    }
+    
+    public Double getScore() {
+        return score;
+    }
+    
+    public void setScore(Double score) {
+        this.score = score;
+    }
+    
+    public String getWord() {
+        return word;
+    }
+    
+    public void setWord(String word) {
+        this.word = word;
+    }
+    
+    public Boolean getCompacted() {
+        return compacted;
+    }
+    
+    public void setCompacted(Boolean compacted) {
+        this.compacted = compacted;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,35 @@
+package com.multistory.languageapp.entity;
+
+/**
+ * Enumeration representing the kinds of quiz questions
+ */
+public enum QuestionType {
+    MULTIPLE_CHOICE("multiple_choice"),
+    FILL_BLANK("fill_blank"),
+    TRUE_FALSE("true_false");
+    
+    private final String code;
+    
+    QuestionType(String code) {
+        this.code = code;
+    }
+    
+    /**
+     * Name used in the quiz JSON
+     */
+    public String getCode() {
+        return code;
+    }
+    
+    /**
+     * Parse string to QuestionType enum
+     */
+    public static QuestionType fromString(String text) {
+        for (QuestionType type : QuestionType.values()) {
+            if (type.name().equalsIgnoreCase(text) || type.code.equalsIgnoreCase(text)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("No question type found for: " + text);
+    }
+}
@@ -0,0 +1,94 @@
+package com.multistory.languageapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the cloze generator last produced questions from, per story text (chapter number 0)
+ * and per chapter. A source whose hash still matches is skipped on the next run.
+ */
+@Entity
+@Table(name = "quiz_generation_state", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_quiz_generation_source", columnNames = {"story_id", "chapter_number"})
+})
+public class QuizGenerationState {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_generation_state_seq")
+    @SequenceGenerator(name = "quiz_generation_state_seq", sequenceName = "quiz_generation_state_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "story_id", nullable = false)
+    private Long storyId;
+    
+    // 0 for the story text itself
+    @Column(name = "chapter_number", nullable = false)
+    private Integer chapterNumber;
+    
+    @Column(name = "source_hash", nullable = false, length = 64)
+    private String sourceHash;
+    
+    @Column(name = "question_count", nullable = false)
+    private Integer questionCount = 0;
+    
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+    
+    // Constructors
+    public QuizGenerationState() {}
+    
+    public QuizGenerationState(Long storyId, Integer chapterNumber) {
+        this.storyId = storyId;
+        this.chapterNumber = chapterNumber;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getStoryId() {
+        return storyId;
+    }
+    
+    public void setStoryId(Long storyId) {
+        this.storyId = storyId;
+    }
+    
+    public Integer getChapterNumber() {
+        return chapterNumber;
+    }
+    
+    public void setChapterNumber(Integer chapterNumber) {
+        this.chapterNumber = chapterNumber;
+    }
+    
+    public String getSourceHash() {
+        return sourceHash;
+    }
+    
+    public void setSourceHash(String sourceHash) {
+        this.sourceHash = sourceHash;
+    }
+    
+    public Integer getQuestionCount() {
+        return questionCount;
+    }
+    
+    public void setQuestionCount(Integer questionCount) {
+        this.questionCount = questionCount;
+    }
+    
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
@@ -0,0 +1,175 @@
+package com.multistory.languageapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A quiz question of a story, optionally tied to one chapter. Multiple choice and true/false
+ * questions are answered by option index, fill-in-the-blank questions by text.
+ */
+@Entity
+@Table(name = "quiz_questions", indexes = {
+    @Index(name = "idx_quiz_question_story_chapter", columnList = "story_id, chapter_number, position")
+})
+public class QuizQuestion {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_question_seq")
+    @SequenceGenerator(name = "quiz_question_seq", sequenceName = "quiz_question_seq", allocationSize = 50)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "story_id", nullable = false)
+    private Story story;
+    
+    // Null for questions about the story as a whole
+    @Column(name = "chapter_number")
+    private Integer chapterNumber;
+    
+    @Column(name = "position", nullable = false)
+    private Integer position = 0;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private QuestionType type;
+    
+    @Column(name = "question", nullable = false, length = 1000)
+    private String question;
+    
+    @ElementCollection
+    @CollectionTable(name = "quiz_question_options",
+                    joinColumns = @JoinColumn(name = "quiz_question_id"),
+                    indexes = @Index(name = "idx_quiz_option_question", columnList = "quiz_question_id"))
+    @OrderColumn(name = "option_index")
+    @Column(name = "option_text", length = 255)
+    private List<String> options = new ArrayList<>();
+    
+    // Index into options for multiple choice and true/false questions
+    @Column(name = "correct_option")
+    private Integer correctOption;
+    
+    // Expected text for fill-in-the-blank questions, compared ignoring case and surrounding whitespace
+    @Column(name = "correct_text", length = 255)
+    private String correctText;
+    
+    @Column(name = "points", nullable = false)
+    private Integer points = 10;
+    
+    // Written by the cloze generator; rewritten in place whenever the source text changes
+    @Column(name = "generated", nullable = false)
+    private Boolean generated = false;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public QuizQuestion() {}
+    
+    public QuizQuestion(Story story, Integer chapterNumber, QuestionType type, String question) {
+        this.story = story;
+        this.chapterNumber = chapterNumber;
+        this.type = type;
+        this.question = question;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Story getStory() {
+        return story;
+    }
+    
+    public void setStory(Story story) {
+        this.story = story;
+    }
+    
+    public Integer getChapterNumber() {
+        return chapterNumber;
+    }
+    
+    public void setChapterNumber(Integer chapterNumber) {
+        this.chapterNumber = chapterNumber;
+    }
+    
+    public Integer getPosition() {
+        return position;
+    }
+    
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+    
+    public QuestionType getType() {
+        return type;
+    }
+    
+    public void setType(QuestionType type) {
+        this.type = type;
+    }
+    
+    public String getQuestion() {
+        return question;
+    }
+    
+    public void setQuestion(String question) {
+        this.question = question;
+    }
+    
+    public List<String> getOptions() {
+        return options;
+    }
+    
+    public void setOptions(List<String> options) {
+        this.options = options;
+    }
+    
+    public Integer getCorrectOption() {
+        return correctOption;
+    }
+    
+    public void setCorrectOption(Integer correctOption) {
+        this.correctOption = correctOption;
+    }
+    
+    public String getCorrectText() {
+        return correctText;
+    }
+    
+    public void setCorrectText(String correctText) {
+        this.correctText = correctText;
+    }
+    
+    public Integer getPoints() {
+        return points;
+    }
+    
+    public void setPoints(Integer points) {
+        this.points = points;
+    }
+    
+    public Boolean getGenerated() {
+        return generated;
+    }
+    
+    public void setGenerated(Boolean generated) {
+        this.generated = generated;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,111 @@
+package com.multistory.languageapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-question rollup of scored quiz submissions: how often the question was part of a scored
+ * quiz, answered correctly or left out, and how often each option was chosen. Counters are
+ * collected in memory and added to these rows by a scheduled flush.
+ */
+@Entity
+@Table(name = "quiz_question_stats", indexes = {
+    @Index(name = "idx_quiz_question_stats_story", columnList = "story_id")
+})
+public class QuizQuestionStats {
+
+    @Id
+    @Column(name = "question_id")
+    private Long questionId;
+
+    @Column(name = "story_id", nullable = false)
+    private Long storyId;
+
+    @Column(name = "attempts", nullable = false)
+    private Long attempts = 0L;
+
+    @Column(name = "correct_count", nullable = false)
+    private Long correctCount = 0L;
+
+    @Column(name = "skipped_count", nullable = false)
+    private Long skippedCount = 0L;
+
+    // Times each option (by index) was chosen; empty for fill-in-the-blank questions
+    @ElementCollection
+    @CollectionTable(name = "quiz_question_choice_counts", joinColumns = @JoinColumn(name = "question_id"))
+    @MapKeyColumn(name = "option_index")
+    @Column(name = "answer_count", nullable = false)
+    private Map<Integer, Long> choiceCounts = new HashMap<>();
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public QuizQuestionStats() {}
+
+    public QuizQuestionStats(Long questionId, Long storyId) {
+        this.questionId = questionId;
+        this.storyId = storyId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(Long questionId) {
+        this.questionId = questionId;
+    }
+
+    public Long getStoryId() {
+        return storyId;
+    }
+
+    public void setStoryId(Long storyId) {
+        this.storyId = storyId;
+    }
+
+    public Long getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Long attempts) {
+        this.attempts = attempts;
+    }
+
+    public Long getCorrectCount() {
+        return correctCount;
+    }
+
+    public void setCorrectCount(Long correctCount) {
+        this.correctCount = correctCount;
+    }
+
+    public Long getSkippedCount() {
+        return skippedCount;
+    }
+
+    public void setSkippedCount(Long skippedCount) {
+        this.skippedCount = skippedCount;
+    }
+
+    public Map<Integer, Long> getChoiceCounts() {
+        return choiceCounts;
+    }
+
+    public void setChoiceCounts(Map<Integer, Long> choiceCounts) {
+        this.choiceCounts = choiceCounts;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -18,11 +19,16 @@ import java.util.List;
     @Index(name = "idx_story_difficulty", columnList = "difficulty"),
     @Index(name = "idx_story_active", columnList = "is_active"),
     @Index(name = "idx_story_created", columnList = "created_at"),
-    @Index(name = "idx_story_lang_diff", columnList = "language, difficulty")
+    @Index(name = "idx_story_updated", columnList = "updated_at"),
+    @Index(name = "idx_story_lang_diff", columnList = "language, difficulty"),
+    @Index(name = "idx_story_popularity", columnList = "is_active, completion_count"),
+    @Index(name = "idx_story_trending", columnList = "is_active, trending_score")
 })
 @EntityListeners(AuditingEntityListener.class)
 public class Story {
     
+    public static final int EXCERPT_LENGTH = 200;
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -36,6 +42,10 @@ public class Story {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
     
+    // Short plain-text preview derived from content on write, so listings never read the TEXT column
+    @Column(name = "excerpt", length = EXCERPT_LENGTH + 3)
+    private String excerpt;
+    
     @NotBlank(message = "Language is required")
     @Size(max = 10, message = "Language code must not exceed 10 characters")
     @Column(nullable = false)
@@ -56,6 +66,7 @@ public class Story {
     private Integer vocabularyCount;
     
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "story_tags", joinColumns = @JoinColumn(name = "story_id"))
     @Column(name = "tag")
     private List<String> tags = new ArrayList<>();
@@ -63,6 +74,17 @@ public class Story {
     @Column(name = "is_active")
     private Boolean isActive = true;
     
+    // Popularity counters, maintained by StoryPopularityService as progress changes
+    @Column(name = "start_count", nullable = false)
+    private Long startCount = 0L;
+    
+    @Column(name = "completion_count", nullable = false)
+    private Long completionCount = 0L;
+    
+    // Log of the exponentially decayed completion score, scaled to a fixed epoch (see StoryPopularityService)
+    @Column(name = "trending_score", nullable = false)
+    private Double trendingScore = 0.0;
+    
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -112,6 +134,14 @@ public class Story {
         this.content = content;
     }
     
+    public String getExcerpt() {
+        return excerpt;
+    }
+    
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+    
     public String getLanguage() {
         return language;
     }
@@ -168,6 +198,30 @@ public class Story {
         this.isActive = isActive;
     }
     
+    public Long getStartCount() {
+        return startCount;
+    }
+    
+    public void setStartCount(Long startCount) {
+        this.startCount = startCount;
+    }
+    
+    public Long getCompletionCount() {
+        return completionCount;
+    }
+    
+    public void setCompletionCount(Long completionCount) {
+        this.completionCount = completionCount;
+    }
+    
+    public Double getTrendingScore() {
+        return trendingScore;
+    }
+    
+    public void setTrendingScore(Double trendingScore) {
+        this.trendingScore = trendingScore;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -201,6 +255,25 @@ public class Story {
     }
     
     // Helper methods
+    @PrePersist
+    @PreUpdate
+    public void refreshExcerpt() {
+        excerpt = excerptOf(content);
+    }
+    
+    // Whitespace-collapsed content, cut at a word boundary past EXCERPT_LENGTH characters
+    public static String excerptOf(String content) {
+        if (content == null) {
+            return null;
+        }
+        String text = content.strip().replaceAll("\\s+", " ");
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        return text.substring(0, cut > EXCERPT_LENGTH / 2 ? cut : EXCERPT_LENGTH) + "...";
+    }
+    
     public void addChapter(Chapter chapter) {
         chapters.add(chapter);
         chapter.setStory(this);
@@ -0,0 +1,140 @@
+package com.multistory.languageapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background deletion of all data of one user (GDPR). Persisted so the job can be polled
+ * and resumed after a restart.
+ */
+@Entity
+@Table(name = "user_deletion_jobs", indexes = {
+    @Index(name = "idx_deletion_job_user_status", columnList = "user_id, status"),
+    @Index(name = "idx_deletion_job_status", columnList = "status")
+})
+public class UserDeletionJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private DeletionJobStatus status = DeletionJobStatus.QUEUED;
+    
+    // Progress rows found when the job started
+    @Column(name = "progress_rows")
+    private Long progressRows;
+    
+    @Column(name = "deleted_progress_rows", nullable = false)
+    private Long deletedProgressRows = 0L;
+    
+    // Rows deleted across all tables, progress rows included
+    @Column(name = "deleted_rows", nullable = false)
+    private Long deletedRows = 0L;
+    
+    @Column(name = "error", length = 500)
+    private String error;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    // Constructors
+    public UserDeletionJob() {}
+    
+    public UserDeletionJob(Long userId) {
+        this.userId = userId;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public DeletionJobStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(DeletionJobStatus status) {
+        this.status = status;
+    }
+    
+    public Long getProgressRows() {
+        return progressRows;
+    }
+    
+    public void setProgressRows(Long progressRows) {
+        this.progressRows = progressRows;
+    }
+    
+    public Long getDeletedProgressRows() {
+        return deletedProgressRows;
+    }
+    
+    public void setDeletedProgressRows(Long deletedProgressRows) {
+        this.deletedProgressRows = deletedProgressRows;
+    }
+    
+    public Long getDeletedRows() {
+        return deletedRows;
+    }
+    
+    public void setDeletedRows(Long deletedRows) {
+        this.deletedRows = deletedRows;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
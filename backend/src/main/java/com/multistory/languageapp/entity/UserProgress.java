@@ -4,21 +4,35 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Entity
-@Table(name = "user_progress")
+@Table(name = "user_progress", indexes = {
+    // One row per user and story; its user_id prefix also serves every other per-user lookup
+    @Index(name = "uk_progress_user_story", columnList = "user_id, story_id", unique = true),
+    // Completed, stale and current-story lookups filter on is_completed and order by last_accessed
+    @Index(name = "idx_progress_user_completed", columnList = "user_id, is_completed, last_accessed"),
+    // Per-story completion figures
+    @Index(name = "idx_progress_story_completed", columnList = "story_id, is_completed")
+})
 @EntityListeners(AuditingEntityListener.class)
+// Only dirty columns are written, so saving a loaded row never overwrites counters
+// that were incremented in the database meanwhile
+@DynamicUpdate
 public class UserProgress {
     
+    // Sequence ids (allocated 50 at a time) keep Hibernate's JDBC insert batching on;
+    // IDENTITY would force a round trip per row to learn the generated key
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_progress_seq")
+    @SequenceGenerator(name = "user_progress_seq", sequenceName = "user_progress_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "User ID is required")
@@ -47,9 +61,11 @@ public class UserProgress {
     
     @ElementCollection
     @CollectionTable(name = "user_vocabulary_learned", 
-                    joinColumns = @JoinColumn(name = "user_progress_id"))
+                    joinColumns = @JoinColumn(name = "user_progress_id"),
+                    indexes = @Index(name = "idx_vocabulary_learned_progress", columnList = "user_progress_id"))
     @Column(name = "vocabulary_word")
-    private List<String> vocabularyLearned = new ArrayList<>();
+    // A set, so adding a word is a hash lookup and Hibernate inserts only the new element rows
+    private Set<String> vocabularyLearned = new LinkedHashSet<>();
     
     @Column(name = "pronunciation_attempts")
     private Integer pronunciationAttempts = 0;
@@ -67,6 +83,11 @@ public class UserProgress {
     @Column(name = "status")
     private ProgressStatus status = ProgressStatus.NOT_STARTED;
     
+    // Guards read-modify-write saves; the atomic counter updates commute and leave it alone
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+    
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -146,11 +167,11 @@ public class UserProgress {
         this.quizScore = quizScore;
     }
     
-    public List<String> getVocabularyLearned() {
+    public Set<String> getVocabularyLearned() {
         return vocabularyLearned;
     }
     
-    public void setVocabularyLearned(List<String> vocabularyLearned) {
+    public void setVocabularyLearned(Set<String> vocabularyLearned) {
         this.vocabularyLearned = vocabularyLearned;
     }
     
@@ -210,11 +231,17 @@ public class UserProgress {
         this.updatedAt = updatedAt;
     }
     
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
     // Helper methods
     public void addVocabularyWord(String word) {
-        if (!vocabularyLearned.contains(word)) {
-            vocabularyLearned.add(word);
-        }
+        vocabularyLearned.add(word);
     }
     
     public void updatePronunciationScore(Double newScore) {
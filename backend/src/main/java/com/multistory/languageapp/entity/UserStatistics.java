@@ -0,0 +1,123 @@
+package com.multistory.languageapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user rollup of progress rows, maintained incrementally by the progress write paths.
+ * Sums and counts are stored instead of averages so every change is a single additive update.
+ */
+@Entity
+@Table(name = "user_statistics")
+public class UserStatistics {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "total_stories", nullable = false)
+    private Long totalStories = 0L;
+    
+    @Column(name = "completed_stories", nullable = false)
+    private Long completedStories = 0L;
+    
+    @Column(name = "completion_sum", nullable = false)
+    private Long completionSum = 0L;
+    
+    @Column(name = "total_time_spent", nullable = false)
+    private Long totalTimeSpent = 0L;
+    
+    @Column(name = "quiz_score_sum", nullable = false)
+    private Long quizScoreSum = 0L;
+    
+    @Column(name = "quiz_score_count", nullable = false)
+    private Long quizScoreCount = 0L;
+    
+    @Column(name = "vocabulary_count", nullable = false)
+    private Long vocabularyCount = 0L;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public UserStatistics() {}
+    
+    public UserStatistics(Long userId) {
+        this.userId = userId;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getTotalStories() {
+        return totalStories;
+    }
+    
+    public void setTotalStories(Long totalStories) {
+        this.totalStories = totalStories;
+    }
+    
+    public Long getCompletedStories() {
+        return completedStories;
+    }
+    
+    public void setCompletedStories(Long completedStories) {
+        this.completedStories = completedStories;
+    }
+    
+    public Long getCompletionSum() {
+        return completionSum;
+    }
+    
+    public void setCompletionSum(Long completionSum) {
+        this.completionSum = completionSum;
+    }
+    
+    public Long getTotalTimeSpent() {
+        return totalTimeSpent;
+    }
+    
+    public void setTotalTimeSpent(Long totalTimeSpent) {
+        this.totalTimeSpent = totalTimeSpent;
+    }
+    
+    public Long getQuizScoreSum() {
+        return quizScoreSum;
+    }
+    
+    public void setQuizScoreSum(Long quizScoreSum) {
+        this.quizScoreSum = quizScoreSum;
+    }
+    
+    public Long getQuizScoreCount() {
+        return quizScoreCount;
+    }
+    
+    public void setQuizScoreCount(Long quizScoreCount) {
+        this.quizScoreCount = quizScoreCount;
+    }
+    
+    public Long getVocabularyCount() {
+        return vocabularyCount;
+    }
+    
+    public void setVocabularyCount(Long vocabularyCount) {
+        this.vocabularyCount = vocabularyCount;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
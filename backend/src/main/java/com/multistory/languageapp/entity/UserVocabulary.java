@@ -0,0 +1,84 @@
+package com.multistory.languageapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compacted snapshot of a user's vocabulary: a bitmap over dictionary word ids.
+ * Words learned after the snapshot live in user_vocabulary_log until the next compaction.
+ */
+@Entity
+@Table(name = "user_vocabulary")
+public class UserVocabulary {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    // java.util.BitSet#toByteArray encoding, bit n set when word id n is known
+    @Column(name = "word_bitmap", nullable = false, length = 1048576)
+    private byte[] wordBitmap;
+    
+    @Column(name = "word_count", nullable = false)
+    private Integer wordCount = 0;
+    
+    // Highest log entry id folded into this snapshot
+    @Column(name = "last_log_id", nullable = false)
+    private Long lastLogId = 0L;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public UserVocabulary() {}
+    
+    public UserVocabulary(Long userId, byte[] wordBitmap, Integer wordCount, Long lastLogId) {
+        this.userId = userId;
+        this.wordBitmap = wordBitmap;
+        this.wordCount = wordCount;
+        this.lastLogId = lastLogId;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public byte[] getWordBitmap() {
+        return wordBitmap;
+    }
+    
+    public void setWordBitmap(byte[] wordBitmap) {
+        this.wordBitmap = wordBitmap;
+    }
+    
+    public Integer getWordCount() {
+        return wordCount;
+    }
+    
+    public void setWordCount(Integer wordCount) {
+        this.wordCount = wordCount;
+    }
+    
+    public Long getLastLogId() {
+        return lastLogId;
+    }
+    
+    public void setLastLogId(Long lastLogId) {
+        this.lastLogId = lastLogId;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
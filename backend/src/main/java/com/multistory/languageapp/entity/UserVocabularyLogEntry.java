@@ -0,0 +1,71 @@
+package com.multistory.languageapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of one word a user learned since their last vocabulary snapshot
+ */
+@Entity
+@Table(name = "user_vocabulary_log", indexes = {
+    @Index(name = "idx_vocabulary_log_user", columnList = "user_id, id")
+})
+public class UserVocabularyLogEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_vocabulary_log_seq")
+    @SequenceGenerator(name = "user_vocabulary_log_seq", sequenceName = "user_vocabulary_log_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "word_id", nullable = false)
+    private Integer wordId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public UserVocabularyLogEntry() {}
+    
+    public UserVocabularyLogEntry(Long userId, Integer wordId) {
+        this.userId = userId;
+        this.wordId = wordId;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Integer getWordId() {
+        return wordId;
+    }
+    
+    public void setWordId(Integer wordId) {
+        this.wordId = wordId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,48 @@
+package com.multistory.languageapp.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Global word dictionary: every distinct vocabulary word gets a small int id,
+ * which per-user vocabulary bitmaps are indexed by
+ */
+@Entity
+@Table(name = "vocabulary_words", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_vocabulary_word", columnNames = "word")
+})
+public class VocabularyWord {
+    
+    public static final int MAX_WORD_LENGTH = 100;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vocabulary_word_seq")
+    @SequenceGenerator(name = "vocabulary_word_seq", sequenceName = "vocabulary_word_seq", allocationSize = 50)
+    private Integer id;
+    
+    @Column(nullable = false, length = MAX_WORD_LENGTH)
+    private String word;
+    
+    // Constructors
+    public VocabularyWord() {}
+    
+    public VocabularyWord(String word) {
+        this.word = word;
+    }
+    
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+    
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    
+    public String getWord() {
+        return word;
+    }
+    
+    public void setWord(String word) {
+        this.word = word;
+    }
+}
@@ -0,0 +1,43 @@
+package com.multistory.languageapp.event;
+
+import com.multistory.languageapp.entity.Story;
+
+/**
+ * Published by StoryService after a story has been written, so in-process
+ * read models (search index, caches) can update incrementally.
+ */
+public class StoryChangedEvent {
+    
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+    
+    private final Story story;
+    private final ChangeType changeType;
+    
+    public StoryChangedEvent(Story story, ChangeType changeType) {
+        this.story = story;
+        this.changeType = changeType;
+    }
+    
+    public Story getStory() {
+        return story;
+    }
+    
+    public Long getStoryId() {
+        return story.getId();
+    }
+    
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+    
+    /**
+     * True when the story should no longer be visible to readers
+     */
+    public boolean isRemoval() {
+        return changeType == ChangeType.DELETED || !Boolean.TRUE.equals(story.getIsActive());
+    }
+}
@@ -0,0 +1,11 @@
+package com.multistory.languageapp.exception;
+
+public class ChapterNotFoundException extends RuntimeException {
+    public ChapterNotFoundException(String message) {
+        super(message);
+    }
+    
+    public ChapterNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
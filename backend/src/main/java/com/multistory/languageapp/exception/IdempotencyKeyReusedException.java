@@ -0,0 +1,11 @@
+package com.multistory.languageapp.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+    
+    public IdempotencyKeyReusedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
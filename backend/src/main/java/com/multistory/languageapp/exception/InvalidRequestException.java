@@ -0,0 +1,14 @@
+package com.multistory.languageapp.exception;
+
+/**
+ * Client input that is well-formed HTTP but cannot be processed (answered with 400)
+ */
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+    
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
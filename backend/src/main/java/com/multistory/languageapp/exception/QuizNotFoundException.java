@@ -0,0 +1,11 @@
+package com.multistory.languageapp.exception;
+
+public class QuizNotFoundException extends RuntimeException {
+    public QuizNotFoundException(String message) {
+        super(message);
+    }
+    
+    public QuizNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
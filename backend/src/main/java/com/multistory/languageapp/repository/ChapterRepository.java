@@ -0,0 +1,29 @@
+package com.multistory.languageapp.repository;
+
+import com.multistory.languageapp.dto.ChapterSummaryDTO;
+import com.multistory.languageapp.entity.Chapter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ChapterRepository extends JpaRepository<Chapter, Long> {
+    
+    // Chapter metadata for a story, without the TEXT content column
+    @Query("SELECT new com.multistory.languageapp.dto.ChapterSummaryDTO(" +
+           "c.id, c.chapterNumber, c.title, c.duration, c.audioUrl, c.isUnlocked) " +
+           "FROM Chapter c WHERE c.story.id = :storyId AND c.story.isActive = true ORDER BY c.chapterNumber")
+    List<ChapterSummaryDTO> findSummariesByStoryId(@Param("storyId") Long storyId);
+    
+    // Chapter text for a set of stories as [storyId, content] rows (used for index builds)
+    @Query("SELECT c.story.id, c.content FROM Chapter c WHERE c.story.id IN :storyIds")
+    List<Object[]> findContentByStoryIds(@Param("storyIds") Collection<Long> storyIds);
+    
+    // Chapter text for a set of stories as [storyId, chapterNumber, content] rows (used for quiz generation)
+    @Query("SELECT c.story.id, c.chapterNumber, c.content FROM Chapter c WHERE c.story.id IN :storyIds")
+    List<Object[]> findNumberedContentByStoryIds(@Param("storyIds") Collection<Long> storyIds);
+}
@@ -0,0 +1,24 @@
+package com.multistory.languageapp.repository;
+
+import com.multistory.languageapp.entity.LeaderboardSnapshotEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LeaderboardSnapshotRepository extends JpaRepository<LeaderboardSnapshotEntry, Long> {
+    
+    // Time the current snapshot was taken, null when there is none
+    @Query("SELECT MAX(e.takenAt) FROM LeaderboardSnapshotEntry e")
+    LocalDateTime findTakenAt();
+    
+    // Snapshot entries after a given user id whose rollup still exists (deleted users are skipped)
+    @Query("SELECT e FROM LeaderboardSnapshotEntry e WHERE e.userId > :afterId " +
+           "AND EXISTS (SELECT 1 FROM UserStatistics s WHERE s.userId = e.userId) ORDER BY e.userId")
+    List<LeaderboardSnapshotEntry> findLiveAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
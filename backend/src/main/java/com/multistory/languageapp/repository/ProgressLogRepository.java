@@ -0,0 +1,54 @@
+package com.multistory.languageapp.repository;
+
+import com.multistory.languageapp.entity.ProgressLogEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProgressLogRepository extends JpaRepository<ProgressLogEntry, Long> {
+    
+    // Oldest entries not yet folded into user_progress, locked; rows held by another compactor are skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM ProgressLogEntry e WHERE e.compacted = false ORDER BY e.id")
+    List<ProgressLogEntry> findPendingForUpdate(Pageable pageable);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProgressLogEntry e SET e.compacted = true WHERE e.id IN :ids")
+    int markCompacted(@Param("ids") Collection<Long> ids);
+    
+    // Drop entries not yet folded into a progress row that is being reset
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProgressLogEntry e WHERE e.userId = :userId AND e.storyId = :storyId AND e.compacted = false")
+    int deletePending(@Param("userId") Long userId, @Param("storyId") Long storyId);
+    
+    // Ids of a user's entries, for deleting them in chunks (GDPR compliance)
+    @Query("SELECT e.id FROM ProgressLogEntry e WHERE e.userId = :userId ORDER BY e.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProgressLogEntry e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+    
+    // Drop compacted entries past the retention period
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProgressLogEntry e WHERE e.compacted = true AND e.occurredAt < :before")
+    int deleteCompactedBefore(@Param("before") LocalDateTime before);
+}
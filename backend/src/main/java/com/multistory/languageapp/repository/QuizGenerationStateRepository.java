@@ -0,0 +1,18 @@
+package com.multistory.languageapp.repository;
+
+import com.multistory.languageapp.entity.QuizGenerationState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QuizGenerationStateRepository extends JpaRepository<QuizGenerationState, Long> {
+    
+    // Generation state of a set of stories, to find the sources that changed
+    @Query("SELECT s FROM QuizGenerationState s WHERE s.storyId IN :storyIds")
+    List<QuizGenerationState> findByStoryIds(@Param("storyIds") Collection<Long> storyIds);
+}
@@ -0,0 +1,34 @@
+package com.multistory.languageapp.repository;
+
+import com.multistory.languageapp.entity.QuizQuestion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QuizQuestionRepository extends JpaRepository<QuizQuestion, Long> {
+    
+    // All questions of a story with their options, in quiz order
+    @Query("SELECT DISTINCT q FROM QuizQuestion q LEFT JOIN FETCH q.options WHERE q.story.id = :storyId " +
+           "ORDER BY q.chapterNumber, q.position, q.id")
+    List<QuizQuestion> findByStoryIdWithOptions(@Param("storyId") Long storyId);
+    
+    // Questions of one chapter with their options, in quiz order
+    @Query("SELECT DISTINCT q FROM QuizQuestion q LEFT JOIN FETCH q.options " +
+           "WHERE q.story.id = :storyId AND q.chapterNumber = :chapterNumber ORDER BY q.position, q.id")
+    List<QuizQuestion> findByStoryIdAndChapterNumberWithOptions(@Param("storyId") Long storyId,
+                                                                @Param("chapterNumber") Integer chapterNumber);
+    
+    // Which of the given question ids still exist
+    @Query("SELECT q.id FROM QuizQuestion q WHERE q.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    // Generated questions of one source (chapter number 0 is the story text) with their options, by position
+    @Query("SELECT DISTINCT q FROM QuizQuestion q LEFT JOIN FETCH q.options WHERE q.story.id = :storyId " +
+           "AND q.generated = true AND COALESCE(q.chapterNumber, 0) = :chapterNumber ORDER BY q.position, q.id")
+    List<QuizQuestion> findGenerated(@Param("storyId") Long storyId, @Param("chapterNumber") Integer chapterNumber);
+}
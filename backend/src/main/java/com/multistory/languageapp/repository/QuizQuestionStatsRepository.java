@@ -0,0 +1,42 @@
+package com.multistory.languageapp.repository;
+
+import com.multistory.languageapp.entity.QuizQuestionStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QuizQuestionStatsRepository extends JpaRepository<QuizQuestionStats, Long> {
+    
+    // Rollups of a story's questions with their option histograms
+    @Query("SELECT DISTINCT s FROM QuizQuestionStats s LEFT JOIN FETCH s.choiceCounts WHERE s.storyId = :storyId")
+    List<QuizQuestionStats> findByStoryIdWithChoices(@Param("storyId") Long storyId);
+    
+    // Which of the given questions already have a rollup row
+    @Query("SELECT s.questionId FROM QuizQuestionStats s WHERE s.questionId IN :questionIds")
+    List<Long> findExistingIds(@Param("questionIds") Collection<Long> questionIds);
+    
+    // Drop the rollups of questions whose content was rewritten; histogram rows first
+    @Modifying
+    @Query(value = "DELETE FROM quiz_question_choice_counts WHERE question_id IN :questionIds", nativeQuery = true)
+    int deleteChoiceCountsByQuestionIdIn(@Param("questionIds") Collection<Long> questionIds);
+    
+    @Modifying
+    @Query("DELETE FROM QuizQuestionStats s WHERE s.questionId IN :questionIds")
+    int deleteByQuestionIdIn(@Param("questionIds") Collection<Long> questionIds);
+    
+    // Drop rollups of questions that no longer exist (deleted or regenerated); histogram rows first
+    @Modifying
+    @Query(value = "DELETE FROM quiz_question_choice_counts WHERE question_id NOT IN (SELECT id FROM quiz_questions)",
+           nativeQuery = true)
+    int deleteOrphanedChoiceCounts();
+    
+    @Modifying
+    @Query("DELETE FROM QuizQuestionStats s WHERE s.questionId NOT IN (SELECT q.id FROM QuizQuestion q)")
+    int deleteOrphaned();
+}
@@ -1,25 +1,38 @@
 package com.multistory.languageapp.repository;
 
+import com.multistory.languageapp.dto.StorySummaryDTO;
 import com.multistory.languageapp.entity.Story;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StoryRepository extends JpaRepository<Story, Long> {
     
+    // Listing columns only - never selects the TEXT content column
+    String SUMMARY_SELECT = "SELECT new com.multistory.languageapp.dto.StorySummaryDTO(" +
+        "s.id, s.title, s.language, s.difficulty, s.estimatedDuration, s.vocabularyCount, s.excerpt, s.createdAt) ";
+    
     // Find active stories
     List<Story> findByIsActiveTrue();
     
-    // Find stories by language
-    List<Story> findByLanguageAndIsActiveTrue(String language);
+    // Page through active stories (used to build in-memory indexes)
+    Page<Story> findByIsActiveTrue(Pageable pageable);
+    
+    // Find story summaries by language
+    @Query(SUMMARY_SELECT + "FROM Story s WHERE s.language = :language AND s.isActive = true")
+    List<StorySummaryDTO> findSummariesByLanguage(@Param("language") String language);
     
     // Find stories by difficulty level
     @Query("SELECT s FROM Story s WHERE s.difficulty = :difficulty AND s.isActive = true")
@@ -32,28 +45,84 @@ public interface StoryRepository extends JpaRepository<Story, Long> {
         @Param("difficulty") String difficulty
     );
     
-    // Find stories by tags
-    @Query("SELECT DISTINCT s FROM Story s JOIN s.tags t WHERE t IN :tags AND s.isActive = true")
-    List<Story> findByTagsInAndIsActiveTrue(@Param("tags") List<String> tags);
+    // Find [id, language, difficulty] of active stories after an id, for building the tag index
+    @Query("SELECT s.id, s.language, s.difficulty FROM Story s WHERE s.isActive = true AND s.id > :afterId ORDER BY s.id")
+    List<Object[]> findIndexKeysAfter(@Param("afterId") Long afterId, Pageable pageable);
     
-    // Search stories by title or content
-    @Query("SELECT s FROM Story s WHERE (LOWER(s.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-           "OR LOWER(s.content) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND s.isActive = true")
-    List<Story> searchByTitleOrContent(@Param("keyword") String keyword);
+    // Story text as [id, content] rows (used for quiz generation)
+    @Query("SELECT s.id, s.content FROM Story s WHERE s.id IN :ids")
+    List<Object[]> findContentByIds(@Param("ids") Collection<Long> ids);
     
-    // Paginated search with filters - optimized query without EntityGraph
-    @Query("SELECT s FROM Story s WHERE " +
+    // [id, content] of stories stored before excerpts were derived on write, after an id (excerpt backfill)
+    @Query("SELECT s.id, s.content FROM Story s WHERE s.excerpt IS NULL AND s.id > :afterId ORDER BY s.id")
+    List<Object[]> findContentWithoutExcerptAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Paginated summaries with filters
+    @Query(value = SUMMARY_SELECT + "FROM Story s WHERE " +
+           "(:language IS NULL OR s.language = :language) AND " +
+           "(:difficulty IS NULL OR s.difficulty = :difficulty) AND " +
+           "(:keyword IS NULL OR LOWER(s.title) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
+           "s.isActive = true",
+           countQuery = "SELECT COUNT(s) FROM Story s WHERE " +
            "(:language IS NULL OR s.language = :language) AND " +
            "(:difficulty IS NULL OR s.difficulty = :difficulty) AND " +
            "(:keyword IS NULL OR LOWER(s.title) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
            "s.isActive = true")
-    Page<Story> findStoriesWithFilters(
+    Page<StorySummaryDTO> findSummariesWithFilters(
+        @Param("language") String language,
+        @Param("difficulty") String difficulty,
+        @Param("keyword") String keyword,
+        Pageable pageable
+    );
+    
+    // Keyset page with the same filters, seeking on (created_at, id) instead of using OFFSET.
+    // Pass a null createdAt for the first page; the Pageable only carries the limit.
+    @Query(SUMMARY_SELECT + "FROM Story s WHERE " +
+           "(:language IS NULL OR s.language = :language) AND " +
+           "(:difficulty IS NULL OR s.difficulty = :difficulty) AND " +
+           "(:keyword IS NULL OR LOWER(s.title) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
+           "(:createdAt IS NULL OR s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)) AND " +
+           "s.isActive = true ORDER BY s.createdAt DESC, s.id DESC")
+    List<StorySummaryDTO> findSummariesAfterCursor(
         @Param("language") String language,
         @Param("difficulty") String difficulty,
         @Param("keyword") String keyword,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
         Pageable pageable
     );
     
+    // Total for the filtered listing (only run when the client asks for it)
+    @Query("SELECT COUNT(s) FROM Story s WHERE " +
+           "(:language IS NULL OR s.language = :language) AND " +
+           "(:difficulty IS NULL OR s.difficulty = :difficulty) AND " +
+           "(:keyword IS NULL OR LOWER(s.title) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
+           "s.isActive = true")
+    long countStoriesWithFilters(
+        @Param("language") String language,
+        @Param("difficulty") String difficulty,
+        @Param("keyword") String keyword
+    );
+    
+    // Summaries for a set of ids (hydrating search hits)
+    @Query(SUMMARY_SELECT + "FROM Story s WHERE s.id IN :ids AND s.isActive = true")
+    List<StorySummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Ids of the given stories that exist and are active
+    @Query("SELECT s.id FROM Story s WHERE s.id IN :ids AND s.isActive = true")
+    List<Long> findActiveIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Tags for a set of stories as [storyId, tag] rows, in one query
+    @Query("SELECT s.id, t FROM Story s JOIN s.tags t WHERE s.id IN :storyIds")
+    List<Object[]> findTagsByStoryIds(@Param("storyIds") Collection<Long> storyIds);
+    
+    // Cheap version lookups for conditional GETs (primary key / index-only reads)
+    @Query("SELECT COALESCE(s.updatedAt, s.createdAt) FROM Story s WHERE s.id = :id AND s.isActive = true")
+    Optional<LocalDateTime> findVersionById(@Param("id") Long id);
+    
+    @Query("SELECT MAX(s.updatedAt) FROM Story s")
+    LocalDateTime findCatalogVersion();
+    
     // Find story by ID with tags (using JOIN FETCH for better performance)
     @Query("SELECT s FROM Story s LEFT JOIN FETCH s.tags WHERE s.id = :id")
     Optional<Story> findByIdWithTags(@Param("id") Long id);
@@ -68,8 +137,29 @@ public interface StoryRepository extends JpaRepository<Story, Long> {
     // Count stories by language
     long countByLanguageAndIsActiveTrue(String language);
     
-    // Find popular stories (you might implement this based on user progress completion rates)
-    @Query("SELECT s FROM Story s WHERE s.isActive = true ORDER BY " +
-           "(SELECT COUNT(up) FROM UserProgress up WHERE up.story = s AND up.isCompleted = true) DESC")
-    List<Story> findPopularStories(Pageable pageable);
+    // Find popular story summaries - top-K read on idx_story_popularity
+    @Query(SUMMARY_SELECT + "FROM Story s WHERE s.isActive = true ORDER BY s.completionCount DESC, s.id DESC")
+    List<StorySummaryDTO> findPopularStorySummaries(Pageable pageable);
+    
+    // Find trending story summaries - top-K read on idx_story_trending
+    @Query(SUMMARY_SELECT + "FROM Story s WHERE s.isActive = true ORDER BY s.trendingScore DESC, s.id DESC")
+    List<StorySummaryDTO> findTrendingStorySummaries(Pageable pageable);
+    
+    // False until the first start is counted (popularity backfill check)
+    boolean existsByStartCountGreaterThan(Long startCount);
+    
+    // Atomic popularity counter updates
+    @Transactional
+    @Modifying
+    @Query("UPDATE Story s SET s.startCount = s.startCount + 1 WHERE s.id = :id")
+    int incrementStartCount(@Param("id") Long id);
+    
+    @Transactional
+    @Modifying
+    // trending_score = ln(exp(trending_score) + exp(logWeight)), computed without leaving log space
+    // (native: the JPQL parser rejects GREATEST and CASE in an update)
+    @Query(value = "UPDATE stories SET completion_count = completion_count + 1, " +
+                   "trending_score = GREATEST(trending_score, :logWeight) " +
+                   "+ LN(1 + EXP(-ABS(trending_score - :logWeight))) WHERE id = :id", nativeQuery = true)
+    int incrementCompletionCount(@Param("id") Long id, @Param("logWeight") double logWeight);
 }
@@ -0,0 +1,46 @@
+package com.multistory.languageapp.repository;
+
+import com.multistory.languageapp.entity.DeletionJobStatus;
+import com.multistory.languageapp.entity.UserDeletionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserDeletionJobRepository extends JpaRepository<UserDeletionJob, Long> {
+    
+    // Find a user's job that has not finished yet
+    Optional<UserDeletionJob> findFirstByUserIdAndStatusIn(Long userId, Collection<DeletionJobStatus> statuses);
+    
+    // Find unfinished jobs, oldest first, to resume them after a restart
+    List<UserDeletionJob> findByStatusInOrderById(Collection<DeletionJobStatus> statuses);
+    
+    // Status transitions are single-row UPDATEs so they never overwrite the chunk counters below
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserDeletionJob j SET j.status = :status, j.progressRows = :progressRows, " +
+           "j.startedAt = COALESCE(j.startedAt, :startedAt) WHERE j.id = :id")
+    int markStarted(@Param("id") Long id, @Param("status") DeletionJobStatus status,
+                    @Param("progressRows") long progressRows, @Param("startedAt") LocalDateTime startedAt);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserDeletionJob j SET j.status = :status, j.error = :error, j.finishedAt = :finishedAt WHERE j.id = :id")
+    int markFinished(@Param("id") Long id, @Param("status") DeletionJobStatus status,
+                     @Param("error") String error, @Param("finishedAt") LocalDateTime finishedAt);
+    
+    // Count rows deleted by one chunk
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserDeletionJob j SET j.deletedProgressRows = j.deletedProgressRows + :progressRows, " +
+           "j.deletedRows = j.deletedRows + :rows WHERE j.id = :id")
+    int addDeleted(@Param("id") Long id, @Param("progressRows") long progressRows, @Param("rows") long rows);
+}
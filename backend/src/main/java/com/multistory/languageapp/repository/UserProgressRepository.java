@@ -1,12 +1,16 @@
 package com.multistory.languageapp.repository;
 
 import com.multistory.languageapp.entity.UserProgress;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +23,9 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Long
     // Find user progress for specific story
     Optional<UserProgress> findByUserIdAndStoryId(Long userId, Long storyId);
     
+    // Find a user's progress rows for a set of stories
+    List<UserProgress> findByUserIdAndStoryIdIn(Long userId, Collection<Long> storyIds);
+    
     // Find completed stories for user
     List<UserProgress> findByUserIdAndIsCompletedTrue(Long userId);
     
@@ -26,15 +33,28 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Long
     @Query("SELECT up FROM UserProgress up WHERE up.userId = :userId AND up.status = 'IN_PROGRESS'")
     List<UserProgress> findInProgressByUserId(@Param("userId") Long userId);
     
-    // Get user's learning statistics
-    @Query("SELECT " +
-           "COUNT(up) as totalStories, " +
-           "COUNT(CASE WHEN up.isCompleted = true THEN 1 END) as completedStories, " +
-           "AVG(up.completionPercentage) as avgCompletion, " +
-           "SUM(up.timeSpent) as totalTimeSpent, " +
-           "AVG(up.quizScore) as avgQuizScore " +
-           "FROM UserProgress up WHERE up.userId = :userId")
-    Object[] getUserStatistics(@Param("userId") Long userId);
+    // Statistics source figures per user as [userId, stories, completed, completionSum, timeSpent,
+    // quizScoreSum, quizScoreCount] rows, for rebuilding the user_statistics rollup
+    @Query("SELECT up.userId, COUNT(up), " +
+           "SUM(CASE WHEN up.isCompleted = true THEN 1 ELSE 0 END), " +
+           "SUM(up.completionPercentage), SUM(COALESCE(up.timeSpent, 0)), " +
+           "SUM(COALESCE(up.quizScore, 0)), COUNT(up.quizScore) " +
+           "FROM UserProgress up WHERE up.userId IN :userIds GROUP BY up.userId")
+    List<Object[]> aggregateStatistics(@Param("userIds") Collection<Long> userIds);
+    
+    // [storyId, rows, completed rows] per story after a given story id, for walking all stories in chunks
+    @Query("SELECT up.story.id, COUNT(up), SUM(CASE WHEN up.isCompleted = true THEN 1 ELSE 0 END) " +
+           "FROM UserProgress up WHERE up.story.id > :afterId GROUP BY up.story.id ORDER BY up.story.id")
+    List<Object[]> countByStoryAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // [storyId, lastAccessed] of the completed rows of some stories
+    @Query("SELECT up.story.id, COALESCE(up.lastAccessed, up.updatedAt) FROM UserProgress up " +
+           "WHERE up.isCompleted = true AND up.story.id IN :storyIds")
+    List<Object[]> findCompletionTimesByStoryIdIn(@Param("storyIds") Collection<Long> storyIds);
+    
+    // Distinct user ids after a given id, for walking all users in chunks
+    @Query("SELECT DISTINCT up.userId FROM UserProgress up WHERE up.userId > :afterId ORDER BY up.userId")
+    List<Long> findUserIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
     
     // Find recent progress updates
     List<UserProgress> findByUserIdAndLastAccessedAfterOrderByLastAccessedDesc(
@@ -65,11 +85,40 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Long
            "ORDER BY up.lastAccessed DESC")
     List<UserProgress> findCurrentActiveStory(@Param("userId") Long userId);
     
-    // Delete user progress (for GDPR compliance)
-    void deleteByUserId(Long userId);
+    // Count a user's progress rows
+    long countByUserId(Long userId);
+    
+    // Ids of a user's progress rows, for deleting them in chunks (GDPR compliance)
+    @Query("SELECT up.id FROM UserProgress up WHERE up.userId = :userId ORDER BY up.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    // Bulk delete the learned-word rows of the given progress rows; must run before deleteByIds
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM user_vocabulary_learned WHERE user_progress_id IN (:ids)", nativeQuery = true)
+    int deleteVocabularyLearnedByProgressIds(@Param("ids") Collection<Long> ids);
+    
+    // Bulk delete progress rows by id, without loading them
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserProgress up WHERE up.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+    
+    // Atomic counter updates, applied in the database without loading the row
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserProgress up SET up.timeSpent = COALESCE(up.timeSpent, 0) + :seconds " +
+           "WHERE up.userId = :userId AND up.story.id = :storyId")
+    int addTimeSpent(@Param("userId") Long userId, @Param("storyId") Long storyId, @Param("seconds") int seconds);
     
-    // Get leaderboard data (top performers by completion rate)
-    @Query("SELECT up.userId, AVG(up.completionPercentage) as avgCompletion, COUNT(up) as totalStories " +
-           "FROM UserProgress up GROUP BY up.userId ORDER BY avgCompletion DESC")
-    List<Object[]> getLeaderboardData();
+    // The average is assigned before the attempt count: MySQL applies SET clauses left to right
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserProgress up SET " +
+           "up.avgPronunciationScore = CASE WHEN up.avgPronunciationScore IS NULL THEN :score " +
+           "ELSE (up.avgPronunciationScore * COALESCE(up.pronunciationAttempts, 0) + :score) " +
+           "/ (COALESCE(up.pronunciationAttempts, 0) + 1) END, " +
+           "up.pronunciationAttempts = COALESCE(up.pronunciationAttempts, 0) + 1 " +
+           "WHERE up.userId = :userId AND up.story.id = :storyId")
+    int addPronunciationScore(@Param("userId") Long userId, @Param("storyId") Long storyId, @Param("score") double score);
 }
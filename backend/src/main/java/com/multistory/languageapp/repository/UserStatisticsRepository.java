@@ -0,0 +1,66 @@
+package com.multistory.languageapp.repository;
+
+import com.multistory.languageapp.entity.UserStatistics;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserStatisticsRepository extends JpaRepository<UserStatistics, Long> {
+    
+    // Apply the change of one progress row to the rollup in a single statement
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserStatistics s SET s.totalStories = s.totalStories + :stories, " +
+           "s.completedStories = s.completedStories + :completed, " +
+           "s.completionSum = s.completionSum + :completion, " +
+           "s.totalTimeSpent = s.totalTimeSpent + :timeSpent, " +
+           "s.quizScoreSum = s.quizScoreSum + :quizScore, " +
+           "s.quizScoreCount = s.quizScoreCount + :quizScores, " +
+           "s.updatedAt = :now WHERE s.userId = :userId")
+    int applyDelta(@Param("userId") Long userId, @Param("stories") long stories, @Param("completed") long completed,
+                   @Param("completion") long completion, @Param("timeSpent") long timeSpent,
+                   @Param("quizScore") long quizScore, @Param("quizScores") long quizScores,
+                   @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserStatistics s SET s.vocabularyCount = s.vocabularyCount + :words, s.updatedAt = :now " +
+           "WHERE s.userId = :userId")
+    int addVocabulary(@Param("userId") Long userId, @Param("words") long words, @Param("now") LocalDateTime now);
+    
+    // Replace the totals of one rollup row with freshly aggregated ones, whatever the persistence context holds
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserStatistics s SET s.totalStories = :stories, s.completedStories = :completed, " +
+           "s.completionSum = :completion, s.totalTimeSpent = :timeSpent, s.quizScoreSum = :quizScore, " +
+           "s.quizScoreCount = :quizScores, s.vocabularyCount = :words, s.updatedAt = :now WHERE s.userId = :userId")
+    int overwrite(@Param("userId") Long userId, @Param("stories") long stories, @Param("completed") long completed,
+                  @Param("completion") long completion, @Param("timeSpent") long timeSpent,
+                  @Param("quizScore") long quizScore, @Param("quizScores") long quizScores,
+                  @Param("words") long words, @Param("now") LocalDateTime now);
+    
+    // Rollup rows of the given users, locked until the transaction ends so deltas wait for a rebuild
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserStatistics s WHERE s.userId IN :userIds ORDER BY s.userId")
+    List<UserStatistics> findByUserIdsForUpdate(@Param("userIds") Collection<Long> userIds);
+    
+    // Leaderboard inputs of one user as [completionSum, totalStories], read past the persistence context
+    @Query("SELECT s.completionSum, s.totalStories FROM UserStatistics s WHERE s.userId = :userId")
+    List<Object[]> findLeaderboardScore(@Param("userId") Long userId);
+    
+    // Rollup rows changed since a given time, after a given user id, for walking them in chunks
+    @Query("SELECT s FROM UserStatistics s WHERE s.updatedAt >= :since AND s.userId > :afterId ORDER BY s.userId")
+    List<UserStatistics> findUpdatedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+                                          Pageable pageable);
+}
@@ -0,0 +1,30 @@
+package com.multistory.languageapp.repository;
+
+import com.multistory.languageapp.entity.UserVocabularyLogEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface UserVocabularyLogRepository extends JpaRepository<UserVocabularyLogEntry, Long> {
+    
+    // Find log entries written after a user's snapshot, oldest first
+    List<UserVocabularyLogEntry> findByUserIdAndIdGreaterThanOrderById(Long userId, Long afterId);
+    
+    // Drop log entries already folded into a snapshot
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserVocabularyLogEntry e WHERE e.userId = :userId AND e.id <= :upToId")
+    int deleteByUserIdUpTo(@Param("userId") Long userId, @Param("upToId") Long upToId);
+    
+    // Drop all log entries of a user
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserVocabularyLogEntry e WHERE e.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,20 @@
+package com.multistory.languageapp.repository;
+
+import com.multistory.languageapp.entity.UserVocabulary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserVocabularyRepository extends JpaRepository<UserVocabulary, Long> {
+    
+    // Vocabulary sizes as [userId, snapshot word count, log entries after the snapshot] rows
+    @Query("SELECT v.userId, v.wordCount, " +
+           "(SELECT COUNT(e) FROM UserVocabularyLogEntry e WHERE e.userId = v.userId AND e.id > v.lastLogId) " +
+           "FROM UserVocabulary v WHERE v.userId IN :userIds")
+    List<Object[]> findVocabularySizes(@Param("userIds") Collection<Long> userIds);
+}
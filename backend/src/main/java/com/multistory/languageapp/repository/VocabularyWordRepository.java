@@ -0,0 +1,22 @@
+package com.multistory.languageapp.repository;
+
+import com.multistory.languageapp.entity.VocabularyWord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VocabularyWordRepository extends JpaRepository<VocabularyWord, Integer> {
+    
+    // Find dictionary entry for a word
+    Optional<VocabularyWord> findByWord(String word);
+    
+    // Find dictionary entries for a set of words
+    List<VocabularyWord> findByWordIn(Collection<String> words);
+    
+    // Find dictionary entries for a set of ids
+    List<VocabularyWord> findByIdIn(Collection<Integer> ids);
+}
@@ -0,0 +1,237 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.ChapterContentChunk;
+import com.multistory.languageapp.dto.ChapterSummaryDTO;
+import com.multistory.languageapp.exception.ChapterNotFoundException;
+import com.multistory.languageapp.exception.InvalidCursorException;
+import com.multistory.languageapp.repository.ChapterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Chapter reads for the reader view: light metadata listing plus paragraph-sized content chunks.
+ * Content is selected a window at a time with SUBSTRING, so neither the database nor the driver
+ * hands over the whole chapter for one chunk. Cursors carry the character position of the next
+ * chunk along with its byte offset, so reading a chapter front to back costs one window per chunk.
+ * A byte Range is located by searching for the character offset whose UTF-8 prefix reaches it,
+ * asking the database only for prefix byte lengths, so no text is transferred until the chunk.
+ */
+@Service
+public class ChapterContentService {
+
+    public static final int MAX_CHUNK_BYTES = 64 * 1024;
+
+    private static final String CHAPTER_FILTER =
+        "FROM chapters c JOIN stories s ON s.id = c.story_id " +
+        "WHERE c.story_id = ? AND c.chapter_number = ? AND s.is_active = true";
+
+    private static final String LENGTH_SQL = "SELECT OCTET_LENGTH(c.content) " + CHAPTER_FILTER;
+
+    // UTF-8 bytes taken up by the first ? characters
+    private static final String PREFIX_BYTES_SQL = "SELECT OCTET_LENGTH(SUBSTRING(c.content, 1, ?)) " + CHAPTER_FILTER;
+
+    // CHAR_LENGTH of the window tells whether the database counts code points or UTF-16 units
+    private static final String WINDOW_SQL =
+        "SELECT OCTET_LENGTH(c.content), CHAR_LENGTH(SUBSTRING(c.content, ?, ?)), SUBSTRING(c.content, ?, ?) " +
+        CHAPTER_FILTER;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Up to length characters from character offset from (0-based), in the database's character units
+     */
+    private record Window(long totalBytes, String text, boolean countsCodePoints) {
+
+        // Database characters taken up by the first javaChars UTF-16 units of the text
+        long characters(int javaChars) {
+            return countsCodePoints ? text.codePointCount(0, javaChars) : javaChars;
+        }
+    }
+
+    public List<ChapterSummaryDTO> getChapters(Long storyId) {
+        return chapterRepository.findSummariesByStoryId(storyId);
+    }
+
+    /**
+     * Size of the chapter's UTF-8 content in bytes
+     */
+    public long getContentLength(Long storyId, Integer chapterNumber) {
+        List<Long> lengths = jdbcTemplate.queryForList(LENGTH_SQL, Long.class, storyId, chapterNumber);
+        if (lengths.isEmpty()) {
+            throw notFound(storyId, chapterNumber);
+        }
+        return lengths.get(0);
+    }
+
+    /**
+     * Read up to maxBytes of UTF-8 content from a cursor returned with the previous chunk (null for
+     * the beginning). The chunk is cut at the last line break that fits, so clients receive whole
+     * paragraphs whenever possible.
+     */
+    public ChapterContentChunk readChunk(Long storyId, Integer chapterNumber, String cursor, int maxBytes) {
+        long startByte = 0;
+        long startChar = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            int separator = cursor.indexOf(':');
+            try {
+                startByte = Long.parseLong(cursor.substring(0, separator));
+                startChar = Long.parseLong(cursor.substring(separator + 1));
+            } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                throw new InvalidCursorException("Malformed cursor: " + cursor, e);
+            }
+            if (startByte < 0 || startChar < 0 || startChar > startByte) {
+                throw new InvalidCursorException("Malformed cursor: " + cursor);
+            }
+        }
+        return readAt(storyId, chapterNumber, startByte, startChar, chunkLimit(maxBytes));
+    }
+
+    /**
+     * Read up to maxBytes of UTF-8 content starting at byte offset start, as addressed by a Range
+     * header; a start offset inside a character snaps to the next character boundary
+     */
+    public ChapterContentChunk readRange(Long storyId, Integer chapterNumber, long start, int maxBytes) {
+        long totalBytes = getContentLength(storyId, chapterNumber);
+        if (start >= totalBytes) {
+            return new ChapterContentChunk(new byte[0], totalBytes, totalBytes, totalBytes, 0);
+        }
+        if (start <= 0) {
+            return readAt(storyId, chapterNumber, 0, 0, chunkLimit(maxBytes));
+        }
+
+        // The range starts at the fewest characters whose UTF-8 prefix reaches start. A character takes
+        // 1 to 4 bytes, so that count lies in [start / 4, start]; the first probe is exact for
+        // single-byte text and the second scales by the bytes per character it saw, then bisect.
+        long low = (start + 3) / 4;
+        long high = start;
+        long highBytes = -1;
+        long guess = start;
+        for (int probe = 0; low < high; probe++) {
+            long characters = Math.max(low, Math.min(guess, high));
+            long bytes = prefixBytes(storyId, chapterNumber, characters);
+            if (bytes >= start) {
+                high = characters;
+                highBytes = bytes;
+                if (bytes == start) {
+                    break;
+                }
+            } else {
+                low = characters + 1;
+            }
+            guess = probe == 0 && bytes > 0 ? characters * start / bytes : low + (high - low) / 2;
+        }
+        if (highBytes < 0) {
+            highBytes = prefixBytes(storyId, chapterNumber, high);
+        }
+        return readAt(storyId, chapterNumber, highBytes, high, chunkLimit(maxBytes));
+    }
+
+    private ChapterContentChunk readAt(Long storyId, Integer chapterNumber, long startByte, long startChar, int limit) {
+        // One character is at least one byte, plus room for a surrogate pair so a chunk always makes progress
+        Window window = window(storyId, chapterNumber, startChar, limit + 1);
+        long totalBytes = window.totalBytes();
+        if (startByte >= totalBytes || window.text().isEmpty()) {
+            return new ChapterContentChunk(new byte[0], totalBytes, totalBytes, totalBytes, startChar);
+        }
+
+        String text = window.text();
+        if (Character.isLowSurrogate(text.charAt(0))) {
+            // A database counting UTF-16 units put a located Range inside a surrogate pair; start after it
+            return readAt(storyId, chapterNumber, prefixBytes(storyId, chapterNumber, startChar + 1), startChar + 1, limit);
+        }
+        byte[] buffer = new byte[limit + 3];
+        int length = 0;
+        int consumed = 0;
+        int lastBreak = -1;
+        int consumedAtBreak = 0;
+        while (consumed < text.length()) {
+            int codePoint = text.codePointAt(consumed);
+            if (Character.isHighSurrogate(text.charAt(consumed)) && consumed + 1 == text.length()) {
+                break;
+            }
+            int encodedLength = utf8Length(codePoint);
+            if (length > 0 && length + encodedLength > limit) {
+                break;
+            }
+            length = encodeUtf8(codePoint, buffer, length);
+            consumed += Character.charCount(codePoint);
+            if (codePoint == '\n') {
+                lastBreak = length;
+                consumedAtBreak = consumed;
+            }
+        }
+
+        boolean reachedEnd = startByte + length >= totalBytes;
+        if (!reachedEnd && lastBreak > 0) {
+            length = lastBreak;
+            consumed = consumedAtBreak;
+        }
+        return new ChapterContentChunk(Arrays.copyOf(buffer, length), startByte, startByte + length, totalBytes,
+                                       startChar + window.characters(consumed));
+    }
+
+    private long prefixBytes(Long storyId, Integer chapterNumber, long characters) {
+        List<Long> bytes = jdbcTemplate.queryForList(PREFIX_BYTES_SQL, Long.class, characters, storyId, chapterNumber);
+        if (bytes.isEmpty()) {
+            throw notFound(storyId, chapterNumber);
+        }
+        return bytes.get(0) != null ? bytes.get(0) : 0;
+    }
+
+    private Window window(Long storyId, Integer chapterNumber, long from, int length) {
+        Window window = jdbcTemplate.query(WINDOW_SQL, rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            String text = rs.getString(3);
+            text = text != null ? text : "";
+            return new Window(rs.getLong(1), text, rs.getLong(2) != text.length());
+        }, from + 1, length, from + 1, length, storyId, chapterNumber);
+        if (window == null) {
+            throw notFound(storyId, chapterNumber);
+        }
+        return window;
+    }
+
+    private static int chunkLimit(int maxBytes) {
+        return Math.max(1, Math.min(maxBytes, MAX_CHUNK_BYTES));
+    }
+
+    private static ChapterNotFoundException notFound(Long storyId, Integer chapterNumber) {
+        return new ChapterNotFoundException("Chapter " + chapterNumber + " not found for story: " + storyId);
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) return 1;
+        if (codePoint < 0x800) return 2;
+        if (codePoint < 0x10000) return 3;
+        return 4;
+    }
+
+    private static int encodeUtf8(int codePoint, byte[] buffer, int offset) {
+        if (codePoint < 0x80) {
+            buffer[offset++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            buffer[offset++] = (byte) (0xC0 | (codePoint >> 6));
+            buffer[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            buffer[offset++] = (byte) (0xE0 | (codePoint >> 12));
+            buffer[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            buffer[offset++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,294 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.QuestionType;
+import com.multistory.languageapp.entity.QuizQuestion;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds cloze (gap-fill) questions from story text. Target words are picked by how common they
+ * are in the story language, matched to the story difficulty: beginner texts ask about frequent
+ * words, advanced texts about rare ones. Multiple choice distractors are words of similar
+ * frequency and length from the same language. Output is deterministic for the same text and
+ * vocabulary, so regenerating unchanged text gives the same quiz. The question text is just the
+ * blanked sentence, in the story language; the instruction that goes with each question type is
+ * left to the client, which knows the reader's interface language.
+ */
+final class ClozeGenerator {
+
+    // Bump when the output changes, so every source is regenerated once
+    static final int VERSION = 2;
+
+    static final String BLANK = "_____";
+
+    private static final int MIN_WORD_LENGTH = 4;
+    private static final int MAX_SENTENCE_LENGTH = 300;
+    private static final int DISTRACTORS = 3;
+    // How far from the target's frequency rank distractors are searched for
+    private static final int DISTRACTOR_SEARCH = 200;
+
+    private final SearchTokenizer tokenizer = new SearchTokenizer();
+
+    /**
+     * Word frequencies of one language, most frequent first, with a display form for each term
+     */
+    static final class Vocabulary {
+
+        private final List<String> terms;
+        private final Map<String, Integer> ranks;
+        private final Map<String, String> surfaces;
+
+        private Vocabulary(List<String> terms, Map<String, String> surfaces) {
+            this.terms = terms;
+            this.surfaces = surfaces;
+            this.ranks = new HashMap<>(terms.size() * 2);
+            for (int i = 0; i < terms.size(); i++) {
+                ranks.put(terms.get(i), i);
+            }
+        }
+
+        int size() {
+            return terms.size();
+        }
+
+        // 0 for the most frequent term, 1 for the rarest and for unknown terms
+        double percentile(String term) {
+            Integer rank = ranks.get(term);
+            return rank == null || terms.size() < 2 ? 1.0 : (double) rank / (terms.size() - 1);
+        }
+
+        /**
+         * Words ranked close to the term with a similar length, excluding the term, words sharing
+         * its stem and the given terms; fewer than requested when the vocabulary is too small
+         */
+        List<String> distractors(String term, int count, Set<String> exclude) {
+            Integer rank = ranks.get(term);
+            List<String> picked = new ArrayList<>(count);
+            if (rank == null) {
+                return picked;
+            }
+            String stem = term.substring(0, Math.min(3, term.length()));
+            for (int step = 1; step <= DISTRACTOR_SEARCH && picked.size() < count; step++) {
+                for (int candidate : new int[] {rank + step, rank - step}) {
+                    if (candidate < 0 || candidate >= terms.size() || picked.size() == count) {
+                        continue;
+                    }
+                    String other = terms.get(candidate);
+                    if (surfaces.containsKey(other) && Math.abs(other.length() - term.length()) <= 2
+                            && !other.startsWith(stem) && !exclude.contains(other)) {
+                        picked.add(surfaces.get(other));
+                    }
+                }
+            }
+            return picked;
+        }
+    }
+
+    /**
+     * Accumulates term counts of many texts of one language; not thread-safe, merge per-thread builders
+     */
+    static final class VocabularyBuilder {
+
+        private final Map<String, Long> counts = new HashMap<>();
+        private final Map<String, String> surfaces = new HashMap<>();
+
+        void add(TermCounts text) {
+            text.counts.forEach((term, count) -> counts.merge(term, (long) count, Long::sum));
+            text.surfaces.forEach(surfaces::putIfAbsent);
+        }
+
+        void merge(VocabularyBuilder other) {
+            other.counts.forEach((term, count) -> counts.merge(term, count, Long::sum));
+            other.surfaces.forEach(surfaces::putIfAbsent);
+        }
+
+        Vocabulary build() {
+            List<String> terms = new ArrayList<>(counts.keySet());
+            terms.sort(Comparator.<String>comparingLong(counts::get).reversed().thenComparing(Comparator.naturalOrder()));
+            return new Vocabulary(terms, surfaces);
+        }
+    }
+
+    /**
+     * Candidate target words of one text: term counts, and the first form each term appeared in
+     * lower case; terms only ever seen capitalized (names, sentence starts) have no form and are
+     * neither asked about nor offered as distractors
+     */
+    static final class TermCounts {
+
+        private final Map<String, Integer> counts = new HashMap<>();
+        private final Map<String, String> surfaces = new HashMap<>();
+    }
+
+    TermCounts countTerms(String text, String language) {
+        TermCounts terms = new TermCounts();
+        tokenizer.forEachWord(text, language, (start, end, term) -> {
+            if (isCandidate(text, start, end, term)) {
+                terms.counts.merge(term, 1, Integer::sum);
+                if (Character.isLowerCase(text.codePointAt(start))) {
+                    terms.surfaces.putIfAbsent(term, text.substring(start, end));
+                }
+            }
+        });
+        return terms;
+    }
+
+    /**
+     * Hash identifying the generator input; a source is regenerated only when this changes
+     */
+    static String sourceHash(String text, String language, DifficultyLevel difficulty) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((VERSION + "|" + language + "|" + difficulty + "|").getBytes(StandardCharsets.UTF_8));
+            digest.update(text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Up to maxQuestions questions for one text, alternating fill-in-the-blank and multiple
+     * choice; story and chapter are left for the caller to set
+     */
+    List<QuizQuestion> generate(String text, String language, DifficultyLevel difficulty, Vocabulary vocabulary,
+                                int maxQuestions) {
+        TermCounts terms = countTerms(text, language);
+        double target = targetPercentile(difficulty);
+        List<String> candidates = new ArrayList<>(terms.surfaces.keySet());
+        candidates.sort(Comparator.<String>comparingDouble(term -> Math.abs(vocabulary.percentile(term) - target))
+            .thenComparing(term -> -terms.counts.get(term))
+            .thenComparing(Comparator.naturalOrder()));
+        if (candidates.size() > maxQuestions * 4) {
+            candidates = candidates.subList(0, maxQuestions * 4);
+        }
+
+        List<QuizQuestion> questions = new ArrayList<>();
+        for (Cloze cloze : findSentences(text, language, candidates).values()) {
+            if (questions.size() == maxQuestions) {
+                break;
+            }
+            QuizQuestion question = questions.size() % 2 == 1
+                ? multipleChoice(cloze, vocabulary, language)
+                : null;
+            if (question == null) {
+                question = new QuizQuestion(null, null, QuestionType.FILL_BLANK, cloze.blanked());
+                question.setCorrectText(cloze.word());
+                question.setPoints(15);
+            }
+            question.setPosition(questions.size());
+            questions.add(question);
+        }
+        return questions;
+    }
+
+    // A sentence with one occurrence of a target word blanked out
+    private record Cloze(String term, String word, String blanked, Set<String> sentenceTerms) {}
+
+    // The first usable sentence for each candidate, at most one question per sentence, in candidate order
+    private Map<String, Cloze> findSentences(String text, String language, List<String> candidates) {
+        Map<String, Cloze> found = new HashMap<>();
+        Map<String, Integer> wanted = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            wanted.put(candidates.get(i), i);
+        }
+        Locale locale = tokenizer.toLocale(language);
+        BreakIterator sentences = BreakIterator.getSentenceInstance(locale);
+        sentences.setText(text);
+        int start = sentences.first();
+        for (int end = sentences.next(); end != BreakIterator.DONE && found.size() < wanted.size();
+             start = end, end = sentences.next()) {
+            String sentence = text.substring(start, end).strip();
+            if (sentence.length() > MAX_SENTENCE_LENGTH) {
+                continue;
+            }
+            Set<String> sentenceTerms = new HashSet<>();
+            int[] target = null;
+            String targetTerm = null;
+            List<int[]> ranges = new ArrayList<>();
+            List<String> rangeTerms = new ArrayList<>();
+            tokenizer.forEachWord(sentence, language, (wordStart, wordEnd, term) -> {
+                if (term != null) {
+                    sentenceTerms.add(term);
+                    ranges.add(new int[] {wordStart, wordEnd});
+                    rangeTerms.add(term);
+                }
+            });
+            // The best-ranked candidate of the sentence that has no question yet
+            for (int i = 0; i < ranges.size(); i++) {
+                String term = rangeTerms.get(i);
+                Integer rank = wanted.get(term);
+                if (rank != null && !found.containsKey(term) && (targetTerm == null || rank < wanted.get(targetTerm))
+                        && Character.isLowerCase(sentence.codePointAt(ranges.get(i)[0]))) {
+                    target = ranges.get(i);
+                    targetTerm = term;
+                }
+            }
+            if (target != null) {
+                String word = sentence.substring(target[0], target[1]);
+                String blanked = sentence.substring(0, target[0]) + BLANK + sentence.substring(target[1]);
+                found.put(targetTerm, new Cloze(targetTerm, word, blanked, sentenceTerms));
+            }
+        }
+
+        Map<String, Cloze> ordered = new LinkedHashMap<>();
+        for (String candidate : candidates) {
+            Cloze cloze = found.get(candidate);
+            if (cloze != null) {
+                ordered.put(candidate, cloze);
+            }
+        }
+        return ordered;
+    }
+
+    private QuizQuestion multipleChoice(Cloze cloze, Vocabulary vocabulary, String language) {
+        List<String> options = vocabulary.distractors(cloze.term(), DISTRACTORS, cloze.sentenceTerms());
+        if (options.size() < DISTRACTORS) {
+            return null;
+        }
+        // Where the answer goes depends only on the word, so it is stable across regenerations
+        int correct = Math.floorMod(cloze.term().hashCode(), DISTRACTORS + 1);
+        options.add(correct, cloze.word().toLowerCase(tokenizer.toLocale(language)));
+        QuizQuestion question = new QuizQuestion(null, null, QuestionType.MULTIPLE_CHOICE, cloze.blanked());
+        question.setOptions(options);
+        question.setCorrectOption(correct);
+        question.setPoints(10);
+        return question;
+    }
+
+    // Letters only and long enough to be worth asking about
+    private static boolean isCandidate(String text, int start, int end, String term) {
+        if (term == null || term.length() < MIN_WORD_LENGTH) {
+            return false;
+        }
+        for (int i = start; i < end; ) {
+            int codePoint = text.codePointAt(i);
+            if (!Character.isLetter(codePoint)) {
+                return false;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return true;
+    }
+
+    // Beginner texts target the most frequent tenth of the vocabulary, proficient ones the rarest
+    private static double targetPercentile(DifficultyLevel difficulty) {
+        int levels = DifficultyLevel.values().length;
+        int level = difficulty != null ? difficulty.ordinal() : levels / 2;
+        return 0.1 + 0.8 * level / (levels - 1);
+    }
+}
@@ -0,0 +1,172 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.QuestionType;
+import com.multistory.languageapp.entity.QuizQuestion;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, ready-to-serve form of one quiz: the reader payload serialized once, and the
+ * answer key flattened into arrays indexed by question position, so checking an answer is an
+ * id lookup plus an array read with no database access and no allocation.
+ */
+public final class CompiledQuiz {
+
+    private final PrecompressedBody body;
+    private final long[] questionIds;
+    // Question ids in ascending order, and the position each one has in the quiz
+    private final long[] sortedIds;
+    private final int[] positionOfSorted;
+    private final QuestionType[] types;
+    private final int[] correctOptions;
+    private final String[] correctTexts;
+    private final String[][] options;
+    private final int[] points;
+    private final int maxScore;
+
+    private CompiledQuiz(PrecompressedBody body, long[] questionIds, long[] sortedIds, int[] positionOfSorted, QuestionType[] types,
+                         int[] correctOptions, String[] correctTexts, String[][] options, int[] points) {
+        this.body = body;
+        this.questionIds = questionIds;
+        this.sortedIds = sortedIds;
+        this.positionOfSorted = positionOfSorted;
+        this.types = types;
+        this.correctOptions = correctOptions;
+        this.correctTexts = correctTexts;
+        this.options = options;
+        this.points = points;
+        this.maxScore = Arrays.stream(points).sum();
+    }
+
+    /**
+     * Compile questions (in quiz order) together with their already-serialized reader payload
+     */
+    public static CompiledQuiz compile(List<QuizQuestion> questions, byte[] payload) {
+        int size = questions.size();
+        long[] questionIds = new long[size];
+        QuestionType[] types = new QuestionType[size];
+        int[] correctOptions = new int[size];
+        String[] correctTexts = new String[size];
+        String[][] options = new String[size][];
+        int[] points = new int[size];
+        Integer[] byId = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            QuizQuestion question = questions.get(i);
+            questionIds[i] = question.getId();
+            types[i] = question.getType();
+            correctOptions[i] = question.getCorrectOption() != null ? question.getCorrectOption() : -1;
+            correctTexts[i] = question.getCorrectText() != null ? question.getCorrectText().strip() : null;
+            options[i] = question.getOptions().toArray(new String[0]);
+            points[i] = question.getPoints() != null ? question.getPoints() : 0;
+            byId[i] = i;
+        }
+        Arrays.sort(byId, (a, b) -> Long.compare(questions.get(a).getId(), questions.get(b).getId()));
+        long[] sortedIds = new long[size];
+        int[] positionOfSorted = new int[size];
+        for (int i = 0; i < size; i++) {
+            sortedIds[i] = questions.get(byId[i]).getId();
+            positionOfSorted[i] = byId[i];
+        }
+        return new CompiledQuiz(PrecompressedBody.of(payload), questionIds, sortedIds, positionOfSorted, types,
+                                correctOptions, correctTexts, options, points);
+    }
+
+    public PrecompressedBody getBody() {
+        return body;
+    }
+
+    public int size() {
+        return types.length;
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    public int getPoints(int position) {
+        return points[position];
+    }
+
+    public long getQuestionId(int position) {
+        return questionIds[position];
+    }
+
+    public int getOptionCount(int position) {
+        return options[position].length;
+    }
+
+    /**
+     * Position of a question in this quiz, or -1 when it is not part of it
+     */
+    public int positionOf(long questionId) {
+        int found = Arrays.binarySearch(sortedIds, questionId);
+        return found >= 0 ? positionOfSorted[found] : -1;
+    }
+
+    /**
+     * Answer given as an option index (multiple choice and true/false)
+     */
+    public boolean isCorrectOption(int position, int option) {
+        return types[position] != QuestionType.FILL_BLANK && correctOptions[position] == option;
+    }
+
+    /**
+     * Answer given as true/false; true is option 0
+     */
+    public boolean isCorrectBoolean(int position, boolean value) {
+        return types[position] == QuestionType.TRUE_FALSE && correctOptions[position] == (value ? 0 : 1);
+    }
+
+    public boolean hasOptions(int position) {
+        return types[position] != QuestionType.FILL_BLANK;
+    }
+
+    public boolean isTrueFalse(int position) {
+        return types[position] == QuestionType.TRUE_FALSE;
+    }
+
+    /**
+     * Index of the option whose text matches the answer (ignoring case and surrounding whitespace), or -1
+     */
+    public int optionIndexOf(int position, String text) {
+        String[] choices = options[position];
+        for (int i = 0; i < choices.length; i++) {
+            if (matches(choices[i], text)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Answer given as text: the expected word for fill-in-the-blank, the option text otherwise.
+     * Case and surrounding whitespace are ignored.
+     */
+    public boolean isCorrectText(int position, String text) {
+        if (text == null) {
+            return false;
+        }
+        String expected;
+        if (types[position] == QuestionType.FILL_BLANK) {
+            expected = correctTexts[position];
+        } else {
+            int correct = correctOptions[position];
+            expected = correct >= 0 && correct < options[position].length ? options[position][correct] : null;
+        }
+        return expected != null && matches(expected, text);
+    }
+
+    // Case-insensitive comparison of the stripped answer without building a trimmed copy
+    private static boolean matches(String expected, String answer) {
+        int start = 0;
+        int end = answer.length();
+        while (start < end && Character.isWhitespace(answer.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(answer.charAt(end - 1))) {
+            end--;
+        }
+        return end - start == expected.length() && expected.regionMatches(true, 0, answer, start, end - start);
+    }
+}
@@ -0,0 +1,129 @@
+package com.multistory.languageapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.multistory.languageapp.exception.IdempotencyKeyReusedException;
+import com.multistory.languageapp.exception.InvalidRequestException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded dedupe store for Idempotency-Key headers. Each key remembers a SHA-256 fingerprint of
+ * the request it was first used with and that request's response, so a retried request is
+ * answered from memory without touching the database. A retry arriving while the original is
+ * still running waits for its outcome. Entries expire after a TTL and the oldest are evicted
+ * beyond the size bound; failed requests are not remembered, so they can be retried.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${progress.idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${progress.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    // Insertion ordered, so the eldest entry is also the first to expire
+    private Map<String, Entry> entries;
+
+    private record Entry(byte[] fingerprint, CompletableFuture<Object> response, long createdAt) {}
+
+    /**
+     * A response and whether it was replayed from an earlier request with the same key
+     */
+    public record Outcome<T>(T response, boolean replayed) {}
+
+    @PostConstruct
+    void initEntries() {
+        int capacity = maxEntries;
+        entries = new LinkedHashMap<>(1024, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Run the action once per (scope, key); without a key it simply runs
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Outcome<T> execute(String scope, String key, Object request, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return new Outcome<>(action.get(), false);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must not exceed " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + ':' + key;
+        Entry created = new Entry(fingerprint(request), new CompletableFuture<>(), System.currentTimeMillis());
+        Entry existing;
+        synchronized (entries) {
+            evictExpired();
+            existing = entries.putIfAbsent(id, created);
+        }
+
+        if (existing != null) {
+            if (!Arrays.equals(existing.fingerprint(), created.fingerprint())) {
+                throw new IdempotencyKeyReusedException("Idempotency-Key " + key + " was already used for a different request");
+            }
+            try {
+                return new Outcome<>((T) existing.response().join(), true);
+            } catch (CompletionException e) {
+                // The original failed: report the same failure
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            T response = action.get();
+            created.response().complete(response);
+            return new Outcome<>(response, false);
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                entries.remove(id, created);
+            }
+            created.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMinutes * 60_000;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().createdAt() < cutoff) {
+            iterator.remove();
+        }
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+}
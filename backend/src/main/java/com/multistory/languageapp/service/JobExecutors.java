@@ -0,0 +1,113 @@
+package com.multistory.languageapp.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the worker pools of background jobs (statistics reconciliation, quiz generation, user
+ * deletion). Workers are virtual threads when spring.threads.virtual.enabled is set on Java 21+,
+ * platform threads otherwise. Each worker holds a connection while it runs and requests must still
+ * get one, so the workers of all pools together share one set of permits sized to a share of the
+ * JDBC connection pool; a worker waits for a permit before it starts a task.
+ */
+@Component
+public class JobExecutors {
+
+    private static final Logger log = LoggerFactory.getLogger(JobExecutors.class);
+
+    // Pool size assumed when the data source is not Hikari (e.g. an embedded test database)
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${execution.jobs.connection-share:0.5}")
+    private double connectionShare;
+
+    private boolean virtual;
+    private int maxWorkers;
+    private Semaphore connectionPermits;
+
+    @PostConstruct
+    public void init() {
+        virtual = Threading.VIRTUAL.isActive(environment);
+        maxWorkers = Math.max(1, (int) (connectionPoolSize(dataSource) * connectionShare));
+        connectionPermits = new Semaphore(maxWorkers);
+        log.info("Background jobs run on {} threads, at most {} workers across all jobs", virtual ? "virtual" : "platform",
+            maxWorkers);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Fixed pool of at most the requested workers, whose tasks run only while they hold one of the
+     * permits shared by all pools
+     */
+    public ExecutorService newWorkerPool(String name, int workers) {
+        ThreadFactory threadFactory = virtual
+            ? new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory()
+            : new CustomizableThreadFactory(name + "-");
+        int threads = Math.min(workers, maxWorkers);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                                      threadFactory) {
+            @Override
+            protected void beforeExecute(Thread thread, Runnable task) {
+                connectionPermits.acquireUninterruptibly();
+            }
+
+            @Override
+            protected void afterExecute(Runnable task, Throwable failure) {
+                connectionPermits.release();
+            }
+        };
+    }
+
+    /**
+     * Run a one-off task (a startup catch-up run) off the calling thread
+     */
+    public void runInBackground(String name, Runnable task) {
+        if (virtual) {
+            new VirtualThreadTaskExecutor(name + "-").execute(task);
+        } else {
+            CompletableFuture.runAsync(task);
+        }
+    }
+
+    /**
+     * Maximum size of the JDBC connection pool behind the data source
+     */
+    public static int connectionPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("Could not read the connection pool size, assuming {}", DEFAULT_POOL_SIZE, e);
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
@@ -0,0 +1,285 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.LeaderboardEntryDTO;
+import com.multistory.languageapp.entity.LeaderboardSnapshotEntry;
+import com.multistory.languageapp.entity.UserStatistics;
+import com.multistory.languageapp.repository.LeaderboardSnapshotRepository;
+import com.multistory.languageapp.repository.UserStatisticsRepository;
+import com.multistory.languageapp.service.LeaderboardSkipList.Score;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Leaderboard by average completion, kept in an indexable skip list and updated from the
+ * statistics rollup as progress changes. Pages and rank lookups never touch the database.
+ * The ranking is snapshotted to leaderboard_snapshot periodically and on shutdown; on startup
+ * the snapshot is reloaded and rollup rows changed since it was taken are applied on top.
+ * Changes made inside a transaction reach the ranking only once it commits.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final int RESTORE_PAGE_SIZE = 1000;
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO leaderboard_snapshot (user_id, completion_sum, total_stories, taken_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private LeaderboardSnapshotRepository leaderboardSnapshotRepository;
+
+    @Autowired
+    private UserStatisticsRepository userStatisticsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${leaderboard.snapshot.batch-size:1000}")
+    private int batchSize;
+
+    private final LeaderboardSkipList ranking = new LeaderboardSkipList();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Changed since the last snapshot
+    private volatile boolean dirty;
+    // A snapshot taken before the restore finished would overwrite the good one with a partial ranking
+    private volatile boolean restored;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        long started = System.currentTimeMillis();
+        LocalDateTime takenAt = leaderboardSnapshotRepository.findTakenAt();
+        int fromSnapshot = 0;
+        if (takenAt != null) {
+            long afterId = 0;
+            List<LeaderboardSnapshotEntry> entries;
+            do {
+                entries = leaderboardSnapshotRepository.findLiveAfter(afterId, PageRequest.of(0, RESTORE_PAGE_SIZE));
+                for (LeaderboardSnapshotEntry entry : entries) {
+                    set(entry.getUserId(), entry.getCompletionSum(), entry.getTotalStories());
+                    afterId = entry.getUserId();
+                }
+                fromSnapshot += entries.size();
+            } while (entries.size() == RESTORE_PAGE_SIZE);
+        }
+
+        // Rollup rows written since the snapshot (or all of them, without one) take precedence
+        int fromStatistics = 0;
+        long afterId = 0;
+        List<UserStatistics> changed;
+        do {
+            changed = userStatisticsRepository.findUpdatedSince(takenAt != null ? takenAt : BEGINNING, afterId,
+                PageRequest.of(0, RESTORE_PAGE_SIZE));
+            for (UserStatistics statistics : changed) {
+                set(statistics.getUserId(), statistics.getCompletionSum(), statistics.getTotalStories());
+                afterId = statistics.getUserId();
+            }
+            fromStatistics += changed.size();
+        } while (changed.size() == RESTORE_PAGE_SIZE);
+
+        restored = true;
+        log.info("Leaderboard restored: {} users from snapshot, {} from statistics in {} ms",
+                 fromSnapshot, fromStatistics, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * A page of the leaderboard, best first
+     */
+    public List<LeaderboardEntryDTO> getPage(int page, int size) {
+        if (page < 0 || size <= 0) {
+            return List.of();
+        }
+        long offset = (long) page * size;
+        lock.readLock().lock();
+        try {
+            if (offset >= ranking.size()) {
+                return List.of();
+            }
+            return toEntries(ranking.range((int) offset, size), (int) offset + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A user's entry with up to the given number of entries ranked directly above and below it;
+     * empty when the user is not ranked
+     */
+    public List<LeaderboardEntryDTO> getNeighbourhood(Long userId, int neighbours) {
+        int around = Math.max(0, neighbours);
+        lock.readLock().lock();
+        try {
+            int rank = ranking.rankOf(userId);
+            if (rank == 0) {
+                return List.of();
+            }
+            int first = Math.max(1, rank - around);
+            return toEntries(ranking.range(first - 1, rank - first + 1 + around), first);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranking.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Set a user's score from absolute rollup values; users without stories are not ranked
+     */
+    public void update(Long userId, long completionSum, long totalStories) {
+        afterCommit(() -> set(userId, completionSum, totalStories));
+    }
+
+    /**
+     * Apply a change that has already been added to the user's rollup row
+     */
+    public void applyDelta(Long userId, long completionDelta, long storiesDelta) {
+        if (completionDelta != 0 || storiesDelta != 0) {
+            afterCommit(() -> add(userId, completionDelta, storiesDelta));
+        }
+    }
+
+    public void remove(Long userId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                ranking.remove(userId);
+                dirty = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.snapshot.interval-ms:300000}",
+               initialDelayString = "${leaderboard.snapshot.interval-ms:300000}")
+    public void snapshot() {
+        if (restored && dirty) {
+            writeSnapshot();
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        snapshot();
+    }
+
+    private synchronized void writeSnapshot() {
+        long started = System.currentTimeMillis();
+        // Clear first: a change racing with the copy below marks it dirty again for the next run
+        dirty = false;
+        Timestamp takenAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Score> scores;
+        lock.readLock().lock();
+        try {
+            scores = ranking.range(0, ranking.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM leaderboard_snapshot");
+                jdbcTemplate.batchUpdate(INSERT_SQL, scores, batchSize, (ps, score) -> {
+                    ps.setLong(1, score.userId());
+                    ps.setLong(2, score.completionSum());
+                    ps.setLong(3, score.totalStories());
+                    ps.setTimestamp(4, takenAt);
+                });
+            });
+        } catch (RuntimeException e) {
+            dirty = true;
+            log.error("Failed to write leaderboard snapshot of {} users, retrying on the next run", scores.size(), e);
+            return;
+        }
+        log.info("Leaderboard snapshot of {} users written in {} ms", scores.size(), System.currentTimeMillis() - started);
+    }
+
+    // A rolled back rollup change must never reach the ranking, so inside a transaction wait for its commit
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private void set(Long userId, long completionSum, long totalStories) {
+        lock.writeLock().lock();
+        try {
+            put(userId, completionSum, totalStories);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Long userId, long completionDelta, long storiesDelta) {
+        lock.writeLock().lock();
+        try {
+            Score current = ranking.get(userId);
+            if (current != null) {
+                put(userId, current.completionSum() + completionDelta, current.totalStories() + storiesDelta);
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Not ranked yet, so there is no base to add to: read the rollup, which already includes the change
+        for (Object[] row : userStatisticsRepository.findLeaderboardScore(userId)) {
+            set(userId, ((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+    }
+
+    private void put(Long userId, long completionSum, long totalStories) {
+        if (totalStories > 0) {
+            ranking.put(new Score(userId, completionSum, totalStories));
+        } else {
+            ranking.remove(userId);
+        }
+        dirty = true;
+    }
+
+    private static List<LeaderboardEntryDTO> toEntries(List<Score> scores, int firstRank) {
+        List<LeaderboardEntryDTO> entries = new ArrayList<>(scores.size());
+        int rank = firstRank;
+        for (Score score : scores) {
+            entries.add(new LeaderboardEntryDTO(rank++, score.userId(), score.avgCompletion(), score.totalStories()));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,206 @@
+package com.multistory.languageapp.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Indexable skip list of leaderboard scores, one per user. Every forward link also records how
+ * many entries it skips (its span), so rank lookups and rank-based slicing are O(log n) like
+ * inserts and removals. Not thread-safe; LeaderboardService guards it with a lock.
+ */
+final class LeaderboardSkipList {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double PROMOTION_PROBABILITY = 0.25;
+
+    /**
+     * Ranked by average completion (descending), then stories started (descending), then user id
+     */
+    record Score(long userId, long completionSum, long totalStories) implements Comparable<Score> {
+
+        double avgCompletion() {
+            return totalStories > 0 ? (double) completionSum / totalStories : 0.0;
+        }
+
+        @Override
+        public int compareTo(Score other) {
+            // Cross-multiplied so equal averages compare equal without floating point rounding
+            int byAverage = Long.compare(other.completionSum * totalStories, completionSum * other.totalStories);
+            if (byAverage != 0) {
+                return byAverage;
+            }
+            int byStories = Long.compare(other.totalStories, totalStories);
+            return byStories != 0 ? byStories : Long.compare(userId, other.userId);
+        }
+    }
+
+    private static final class Node {
+        final Score score;
+        final Node[] next;
+        final int[] span;
+
+        Node(Score score, int level) {
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    private final Node head = new Node(null, MAX_LEVEL);
+    private final Map<Long, Score> byUser = new HashMap<>();
+    private int level = 1;
+
+    /**
+     * Insert or replace the score of a user
+     */
+    void put(Score score) {
+        Score previous = byUser.put(score.userId(), score);
+        if (previous != null) {
+            if (previous.equals(score)) {
+                return;
+            }
+            unlink(previous);
+        }
+        link(score);
+    }
+
+    Score get(long userId) {
+        return byUser.get(userId);
+    }
+
+    void remove(long userId) {
+        Score previous = byUser.remove(userId);
+        if (previous != null) {
+            unlink(previous);
+        }
+    }
+
+    int size() {
+        return byUser.size();
+    }
+
+    void clear() {
+        byUser.clear();
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        level = 1;
+    }
+
+    /**
+     * 1-based rank of a user, or 0 when the user is not ranked
+     */
+    int rankOf(long userId) {
+        Score score = byUser.get(userId);
+        if (score == null) {
+            return 0;
+        }
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i].score.compareTo(score) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Up to limit scores starting at the given 0-based offset, best first
+     */
+    List<Score> range(int offset, int limit) {
+        List<Score> scores = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        if (offset < 0 || offset >= size() || limit <= 0) {
+            return scores;
+        }
+        // Descend to the entry at rank offset + 1, then walk the bottom level
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= offset + 1) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+        }
+        for (; x != null && scores.size() < limit; x = x.next[0]) {
+            scores.add(x.score);
+        }
+        return scores;
+    }
+
+    private void link(Score score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && x.next[i].score.compareTo(score) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                // byUser already holds the new entry, so the old length is size() - 1
+                update[i].span[i] = size() - 1;
+            }
+            level = nodeLevel;
+        }
+
+        Node node = new Node(score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        // Links above the new node now jump over one more entry
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+    }
+
+    private void unlink(Score score) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i].score.compareTo(score) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        Node node = x.next[0];
+        if (node == null || !node.score.equals(score)) {
+            return;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && ThreadLocalRandom.current().nextDouble() < PROMOTION_PROBABILITY) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+}
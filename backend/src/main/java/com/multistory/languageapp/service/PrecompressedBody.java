@@ -0,0 +1,57 @@
+package com.multistory.languageapp.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body together with its gzip encoding, compressed once when the body is built
+ * so the request path only has to pick a variant.
+ */
+public final class PrecompressedBody {
+
+    // Below this size the gzip framing overhead outweighs the savings
+    static final int MIN_COMPRESS_BYTES = 1024;
+
+    private final byte[] identity;
+    private final byte[] gzip;
+
+    private PrecompressedBody(byte[] identity, byte[] gzip) {
+        this.identity = identity;
+        this.gzip = gzip;
+    }
+
+    public static PrecompressedBody of(byte[] identity) {
+        if (identity.length < MIN_COMPRESS_BYTES) {
+            return new PrecompressedBody(identity, null);
+        }
+        byte[] gzip = gzip(identity);
+        return new PrecompressedBody(identity, gzip.length < identity.length ? gzip : null);
+    }
+
+    public byte[] getIdentity() {
+        return identity;
+    }
+
+    /**
+     * Gzip-encoded body, or null when compression would not pay off
+     */
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public int size() {
+        return identity.length + (gzip != null ? gzip.length : 0);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,208 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.ProgressEventType;
+import com.multistory.languageapp.entity.ProgressLogEntry;
+import com.multistory.languageapp.repository.ProgressLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only log of progress changes. With the log enabled, time spent and pronunciation
+ * attempts on existing rows are inserted here instead of updating the contended user_progress
+ * row, and a background compactor folds them into the row in batches; until then those two
+ * counters lag by up to one compaction interval, including in the responses of the writes that
+ * appended them, which is why the log is off by default. Chapter completions and learned words are
+ * applied synchronously and only logged; time from buffered heartbeats is logged, one entry per
+ * row and flush, by the write-behind flush that writes it. The log thus holds the full history
+ * for analytics.
+ */
+@Service
+public class ProgressEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressEventLog.class);
+
+    // The average is assigned before the attempt count: MySQL applies SET clauses left to right
+    private static final String FOLD_SQL =
+        "UPDATE user_progress SET time_spent = COALESCE(time_spent, 0) + ?, " +
+        "avg_pronunciation_score = CASE WHEN ? = 0 THEN avg_pronunciation_score " +
+        "WHEN avg_pronunciation_score IS NULL THEN ? / ? " +
+        "ELSE (avg_pronunciation_score * COALESCE(pronunciation_attempts, 0) + ?) " +
+        "/ (COALESCE(pronunciation_attempts, 0) + ?) END, " +
+        "pronunciation_attempts = COALESCE(pronunciation_attempts, 0) + ?, updated_at = ? " +
+        "WHERE user_id = ? AND story_id = ?";
+
+    @Autowired
+    private ProgressLogRepository progressLogRepository;
+
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${progress.event-log.enabled:false}")
+    private boolean enabled;
+
+    @Value("${progress.event-log.compact-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${progress.event-log.retention-days:90}")
+    private int retentionDays;
+
+    private record Key(Long userId, Long storyId) {}
+
+    /**
+     * Time the write-behind buffer added to one progress row in one flush
+     */
+    public record AppliedTime(Long userId, Long storyId, int seconds, LocalDateTime occurredAt) {}
+
+    // What a batch of counter events adds to one progress row
+    private static final class Fold {
+        private long timeSpent;
+        private int attempts;
+        private double scoreSum;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Log counter changes for an existing row; the compactor applies them
+     */
+    public void recordCounters(Long userId, Long storyId, int timeSpent, List<Double> pronunciationScores) {
+        List<ProgressLogEntry> entries = new ArrayList<>();
+        if (timeSpent != 0) {
+            ProgressLogEntry entry = new ProgressLogEntry(userId, storyId, ProgressEventType.TIME_ADDED, false);
+            entry.setAmount(timeSpent);
+            entries.add(entry);
+        }
+        for (Double score : pronunciationScores) {
+            ProgressLogEntry entry = new ProgressLogEntry(userId, storyId, ProgressEventType.PRONUNCIATION_ATTEMPT, false);
+            entry.setScore(score);
+            entries.add(entry);
+        }
+        progressLogRepository.saveAll(entries);
+    }
+
+    /**
+     * Log time that was written to the rows by another path (a write-behind flush), as one batch
+     */
+    public void recordTimeApplied(List<AppliedTime> applied) {
+        if (!enabled || applied.isEmpty()) {
+            return;
+        }
+        List<ProgressLogEntry> entries = new ArrayList<>(applied.size());
+        for (AppliedTime time : applied) {
+            ProgressLogEntry entry = new ProgressLogEntry(time.userId(), time.storyId(), ProgressEventType.TIME_ADDED, true);
+            entry.setAmount(time.seconds());
+            entry.setOccurredAt(time.occurredAt());
+            entries.add(entry);
+        }
+        progressLogRepository.saveAll(entries);
+    }
+
+    public void recordChapterCompleted(Long userId, Long storyId, Integer chapterNumber) {
+        if (enabled) {
+            ProgressLogEntry entry = new ProgressLogEntry(userId, storyId, ProgressEventType.CHAPTER_COMPLETED, true);
+            entry.setAmount(chapterNumber);
+            progressLogRepository.save(entry);
+        }
+    }
+
+    public void recordWordsLearned(Long userId, Long storyId, Collection<String> words) {
+        if (enabled && !words.isEmpty()) {
+            List<ProgressLogEntry> entries = new ArrayList<>(words.size());
+            for (String word : words) {
+                ProgressLogEntry entry = new ProgressLogEntry(userId, storyId, ProgressEventType.WORD_LEARNED, true);
+                entry.setWord(word);
+                entries.add(entry);
+            }
+            progressLogRepository.saveAll(entries);
+        }
+    }
+
+    /**
+     * Drop counter events not yet folded into a progress row that is being reset
+     */
+    public void discard(Long userId, Long storyId) {
+        progressLogRepository.deletePending(userId, storyId);
+    }
+
+    @Scheduled(fixedDelayString = "${progress.event-log.compact-interval-ms:1000}")
+    public void compact() {
+        int folded;
+        do {
+            folded = transactionTemplate.execute(status -> compactBatch());
+        } while (folded == batchSize);
+    }
+
+    @Scheduled(cron = "${progress.event-log.purge-cron:0 0 4 * * *}")
+    public void purge() {
+        int purged = progressLogRepository.deleteCompactedBefore(LocalDateTime.now().minusDays(retentionDays));
+        log.info("Purged {} progress log entries older than {} days", purged, retentionDays);
+    }
+
+    // Fold one batch of pending events into their rows; returns how many events were consumed
+    private int compactBatch() {
+        List<ProgressLogEntry> entries = progressLogRepository.findPendingForUpdate(PageRequest.of(0, batchSize));
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        Map<Key, Fold> folds = new LinkedHashMap<>();
+        List<Long> ids = new ArrayList<>(entries.size());
+        for (ProgressLogEntry entry : entries) {
+            ids.add(entry.getId());
+            Fold fold = folds.computeIfAbsent(new Key(entry.getUserId(), entry.getStoryId()), key -> new Fold());
+            if (entry.getType() == ProgressEventType.TIME_ADDED && entry.getAmount() != null) {
+                fold.timeSpent += entry.getAmount();
+            } else if (entry.getType() == ProgressEventType.PRONUNCIATION_ATTEMPT && entry.getScore() != null) {
+                fold.attempts++;
+                fold.scoreSum += entry.getScore();
+            }
+        }
+
+        List<Map.Entry<Key, Fold>> rows = new ArrayList<>(folds.entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(FOLD_SQL, rows, rows.size(), (ps, row) -> {
+            Fold fold = row.getValue();
+            // Divisors are never bound to zero; the first CASE branch covers rows without attempts
+            int divisor = Math.max(fold.attempts, 1);
+            ps.setLong(1, fold.timeSpent);
+            ps.setInt(2, fold.attempts);
+            ps.setDouble(3, fold.scoreSum);
+            ps.setInt(4, divisor);
+            ps.setDouble(5, fold.scoreSum);
+            ps.setInt(6, divisor);
+            ps.setInt(7, fold.attempts);
+            ps.setTimestamp(8, now);
+            ps.setLong(9, row.getKey().userId());
+            ps.setLong(10, row.getKey().storyId());
+        });
+        progressLogRepository.markCompacted(ids);
+
+        Map<Long, Long> timeByUser = new HashMap<>();
+        folds.forEach((key, fold) -> timeByUser.merge(key.userId(), fold.timeSpent, Long::sum));
+        timeByUser.forEach(userStatisticsService::recordTimeSpent);
+        return entries.size();
+    }
+}
@@ -0,0 +1,376 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.UserProgressDTO;
+import com.multistory.languageapp.dto.UserProgressUpdateRequest;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for reader heartbeats. Updates to the same (userId, storyId) are merged in
+ * memory (time spent is summed, completion takes the max, vocabulary is unioned) and written as one
+ * JDBC batch on a timer, when the buffer grows past its size threshold, and on shutdown. The
+ * time and completion each flush adds are applied to the statistics rollup in the same
+ * transaction, together with the progress log entries for the added time, so a heartbeat never
+ * writes to the database on the request path.
+ * Reads go through overlay()/find() so callers always see the merged state.
+ */
+@Component
+public class ProgressWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressWriteBuffer.class);
+
+    private static final String UPDATE_SQL =
+        "UPDATE user_progress SET time_spent = COALESCE(time_spent, 0) + ?, " +
+        "completion_percentage = GREATEST(completion_percentage, COALESCE(?, completion_percentage)), " +
+        "current_chapter = COALESCE(?, current_chapter), last_accessed = ?, updated_at = ? WHERE id = ?";
+
+    private static final String INSERT_WORD_SQL =
+        "INSERT INTO user_vocabulary_learned (user_progress_id, vocabulary_word) VALUES (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+
+    @Autowired
+    private ProgressEventLog progressEventLog;
+
+    @Value("${progress.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${progress.write-behind.max-pending:10000}")
+    private int maxPending;
+
+    private final ConcurrentMap<Key, Pending> pending = new ConcurrentHashMap<>();
+    // Held while deltas are in flight, so a synchronous write path never reads around them
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private record Key(Long userId, Long storyId) {}
+
+    // completionChange is how far the merged completion moved since the last written delta
+    private record Delta(Key key, Long progressId, int timeSpent, Integer completionPercentage, int completionChange,
+                         Integer currentChapter, List<String> words, LocalDateTime lastAccessed) {}
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Heartbeats only touch fields that merge cleanly; anything that scores, or completes the
+     * story, has side effects and must take the synchronous path
+     */
+    public static boolean isHeartbeat(UserProgressUpdateRequest request) {
+        return request.getQuizScore() == null
+            && request.getPronunciationScore() == null
+            && (request.getCompletionPercentage() == null || request.getCompletionPercentage() < 100);
+    }
+
+    /**
+     * Merge a heartbeat into the buffer and return the merged view, or null when there is no
+     * persisted progress row to buffer against (the caller then writes synchronously)
+     */
+    public UserProgressDTO update(Long userId, Long storyId, UserProgressUpdateRequest request,
+                                  Supplier<UserProgressDTO> loader) {
+        if (!enabled) {
+            return null;
+        }
+        Key key = new Key(userId, storyId);
+        UserProgressDTO base = pending.containsKey(key) ? null : loader.get();
+        Pending merged = pending.compute(key, (k, current) -> {
+            if (current == null) {
+                if (base == null) {
+                    return null;
+                }
+                current = new Pending(base);
+            }
+            current.merge(request);
+            return current;
+        });
+        if (merged == null) {
+            return null;
+        }
+        if (pending.size() >= maxPending) {
+            flush();
+        }
+        return merged.view();
+    }
+
+    public Optional<UserProgressDTO> find(Long userId, Long storyId) {
+        Pending current = pending.get(new Key(userId, storyId));
+        return current != null ? Optional.of(current.view()) : Optional.empty();
+    }
+
+    public UserProgressDTO overlay(UserProgressDTO progress) {
+        return find(progress.getUserId(), progress.getStoryId()).orElse(progress);
+    }
+
+    /**
+     * Write out anything buffered for this progress row before a synchronous update reads it
+     */
+    public void drain(Long userId, Long storyId) {
+        Key key = new Key(userId, storyId);
+        if (!pending.containsKey(key)) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Pending removed = pending.remove(key);
+            Delta delta = removed != null ? removed.takeDelta() : null;
+            if (delta != null) {
+                write(List.of(delta));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Drop buffered updates for rows that are about to be deleted
+     */
+    public void discard(Long userId, Long storyId) {
+        flushLock.lock();
+        try {
+            pending.keySet().removeIf(key -> key.userId().equals(userId)
+                && (storyId == null || key.storyId().equals(storyId)));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${progress.write-behind.flush-interval-ms:5000}")
+    public void flush() {
+        // A flush already in progress will pick up whatever is pending now
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drainAll() {
+        flushLock.lock();
+        try {
+            flushPending();
+            // Second pass writes anything merged while the first batch was in flight
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    private void flushPending() {
+        List<Delta> deltas = new ArrayList<>();
+        for (Key key : pending.keySet()) {
+            pending.computeIfPresent(key, (k, current) -> {
+                Delta delta = current.takeDelta();
+                if (delta == null) {
+                    // Nothing new since the last flush: stop buffering this row
+                    return null;
+                }
+                deltas.add(delta);
+                return current;
+            });
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            write(deltas);
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} buffered progress updates, retrying on the next flush", deltas.size(), e);
+            for (Delta delta : deltas) {
+                pending.computeIfPresent(delta.key(), (k, current) -> current.restore(delta));
+            }
+        }
+    }
+
+    private void write(List<Delta> deltas) {
+        List<Object[]> words = new ArrayList<>();
+        List<ProgressEventLog.AppliedTime> times = new ArrayList<>();
+        Map<Long, long[]> rollup = new LinkedHashMap<>();
+        for (Delta delta : deltas) {
+            delta.words().forEach(word -> words.add(new Object[] { delta.progressId(), word }));
+            if (delta.timeSpent() != 0) {
+                times.add(new ProgressEventLog.AppliedTime(delta.key().userId(), delta.key().storyId(),
+                    delta.timeSpent(), delta.lastAccessed()));
+            }
+            long[] change = rollup.computeIfAbsent(delta.key().userId(), id -> new long[2]);
+            change[0] += delta.timeSpent();
+            change[1] += delta.completionChange();
+        }
+        List<UserStatisticsService.BufferedChange> changes = new ArrayList<>(rollup.size());
+        rollup.forEach((userId, change) -> {
+            if (change[0] != 0 || change[1] != 0) {
+                changes.add(new UserStatisticsService.BufferedChange(userId, change[0], change[1]));
+            }
+        });
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, deltas, deltas.size(), (ps, delta) -> {
+                ps.setInt(1, delta.timeSpent());
+                ps.setObject(2, delta.completionPercentage(), Types.INTEGER);
+                ps.setObject(3, delta.currentChapter(), Types.INTEGER);
+                ps.setTimestamp(4, Timestamp.valueOf(delta.lastAccessed()));
+                ps.setTimestamp(5, now);
+                ps.setLong(6, delta.progressId());
+            });
+            if (!words.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_WORD_SQL, words);
+            }
+            userStatisticsService.recordBufferedChanges(changes);
+            progressEventLog.recordTimeApplied(times);
+        });
+    }
+
+    /**
+     * Merged view of one progress row plus the part of it not yet written
+     */
+    private static final class Pending {
+
+        private final UserProgressDTO view;
+        private int timeSpent;
+        private Integer completionPercentage;
+        private Integer currentChapter;
+        private final Set<String> words = new LinkedHashSet<>();
+        // Completion as of the last delta taken, which the rollup already counts
+        private int countedCompletion;
+        private boolean dirty;
+
+        Pending(UserProgressDTO base) {
+            this.view = copy(base);
+            view.setVocabularyLearned(new ArrayList<>(base.getVocabularyLearned() != null
+                ? base.getVocabularyLearned() : List.of()));
+            if (view.getTimeSpent() == null) {
+                view.setTimeSpent(0);
+            }
+            countedCompletion = valueOf(view.getCompletionPercentage());
+        }
+
+        synchronized void merge(UserProgressUpdateRequest request) {
+            if (request.getTimeSpent() != null) {
+                timeSpent += request.getTimeSpent();
+                view.setTimeSpent(view.getTimeSpent() + request.getTimeSpent());
+            }
+            if (request.getCompletionPercentage() != null) {
+                completionPercentage = max(completionPercentage, request.getCompletionPercentage());
+                view.setCompletionPercentage(max(view.getCompletionPercentage(), request.getCompletionPercentage()));
+            }
+            if (request.getCurrentChapter() != null) {
+                currentChapter = request.getCurrentChapter();
+                view.setCurrentChapter(request.getCurrentChapter());
+            }
+            if (request.getVocabularyLearned() != null) {
+                for (String word : request.getVocabularyLearned()) {
+                    if (!view.getVocabularyLearned().contains(word)) {
+                        view.getVocabularyLearned().add(word);
+                        words.add(word);
+                    }
+                }
+            }
+            view.setLastAccessed(LocalDateTime.now());
+            dirty = true;
+        }
+
+        synchronized Delta takeDelta() {
+            if (!dirty) {
+                return null;
+            }
+            int completion = valueOf(view.getCompletionPercentage());
+            Delta delta = new Delta(new Key(view.getUserId(), view.getStoryId()), view.getId(), timeSpent,
+                completionPercentage, completion - countedCompletion, currentChapter, new ArrayList<>(words),
+                view.getLastAccessed());
+            countedCompletion = completion;
+            timeSpent = 0;
+            completionPercentage = null;
+            currentChapter = null;
+            words.clear();
+            dirty = false;
+            return delta;
+        }
+
+        // Put back a delta whose write failed, under anything merged since
+        synchronized Pending restore(Delta delta) {
+            timeSpent += delta.timeSpent();
+            if (delta.completionPercentage() != null) {
+                completionPercentage = max(completionPercentage, delta.completionPercentage());
+            }
+            if (currentChapter == null) {
+                currentChapter = delta.currentChapter();
+            }
+            words.addAll(delta.words());
+            countedCompletion -= delta.completionChange();
+            dirty = true;
+            return this;
+        }
+
+        synchronized UserProgressDTO view() {
+            UserProgressDTO snapshot = copy(view);
+            snapshot.setVocabularyLearned(new ArrayList<>(view.getVocabularyLearned()));
+            return snapshot;
+        }
+
+        private static int valueOf(Integer value) {
+            return value != null ? value : 0;
+        }
+
+        private static Integer max(Integer current, Integer candidate) {
+            return current == null ? candidate : Math.max(current, candidate);
+        }
+
+        private static UserProgressDTO copy(UserProgressDTO source) {
+            UserProgressDTO dto = new UserProgressDTO();
+            dto.setId(source.getId());
+            dto.setUserId(source.getUserId());
+            dto.setStoryId(source.getStoryId());
+            dto.setCompletionPercentage(source.getCompletionPercentage());
+            dto.setCurrentChapter(source.getCurrentChapter());
+            dto.setTimeSpent(source.getTimeSpent());
+            dto.setQuizScore(source.getQuizScore());
+            dto.setVocabularyLearned(source.getVocabularyLearned());
+            dto.setPronunciationAttempts(source.getPronunciationAttempts());
+            dto.setAvgPronunciationScore(source.getAvgPronunciationScore());
+            dto.setLastAccessed(source.getLastAccessed());
+            dto.setIsCompleted(source.getIsCompleted());
+            dto.setStatus(source.getStatus());
+            dto.setCreatedAt(source.getCreatedAt());
+            dto.setUpdatedAt(source.getUpdatedAt());
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.QuizQuestionAnalyticsDTO;
+import com.multistory.languageapp.entity.QuestionType;
+import com.multistory.languageapp.entity.QuizQuestion;
+import com.multistory.languageapp.entity.QuizQuestionStats;
+import com.multistory.languageapp.exception.QuizNotFoundException;
+import com.multistory.languageapp.repository.QuizQuestionRepository;
+import com.multistory.languageapp.repository.QuizQuestionStatsRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-question quiz analytics. Every scored submission bumps in-memory LongAdder counters
+ * (attempts, correct, skipped and one per option), so recording contends on no lock and never
+ * touches the database. A scheduled flush takes the counters' deltas and adds them to the
+ * quiz_question_stats rollup in JDBC batches; deltas of a failed flush are put back and retried.
+ * A question rewritten with new content starts over: its rollup and unflushed counts are dropped.
+ */
+@Service
+public class QuizAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizAnalyticsService.class);
+
+    private static final String UPDATE_SQL =
+        "UPDATE quiz_question_stats SET attempts = attempts + ?, correct_count = correct_count + ?, " +
+        "skipped_count = skipped_count + ?, updated_at = ? WHERE question_id = ?";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO quiz_question_stats (question_id, story_id, attempts, correct_count, skipped_count, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_CHOICE_SQL =
+        "UPDATE quiz_question_choice_counts SET answer_count = answer_count + ? WHERE question_id = ? AND option_index = ?";
+
+    private static final String INSERT_CHOICE_SQL =
+        "INSERT INTO quiz_question_choice_counts (question_id, option_index, answer_count) VALUES (?, ?, ?)";
+
+    @Autowired
+    private QuizQuestionStatsRepository quizQuestionStatsRepository;
+
+    @Autowired
+    private QuizQuestionRepository quizQuestionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${quiz.analytics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quiz.analytics.flush-batch-size:500}")
+    private int batchSize;
+
+    private final ConcurrentMap<Long, QuestionCounters> counters = new ConcurrentHashMap<>();
+    // Held while deltas are in flight, so a scheduled flush and the shutdown flush never overlap
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private record Delta(Long questionId, Long storyId, long attempts, long correct, long skipped, long[] choices) {}
+
+    /**
+     * Count one scored submission of a quiz; answers are the submission's slots in quiz order
+     */
+    public void record(Long storyId, CompiledQuiz quiz, int[] answers) {
+        if (!enabled) {
+            return;
+        }
+        for (int position = 0; position < answers.length; position++) {
+            long questionId = quiz.getQuestionId(position);
+            int optionCount = quiz.getOptionCount(position);
+            QuestionCounters question = counters.get(questionId);
+            if (question == null || question.optionCount() != optionCount) {
+                // First count, or the question was rewritten with another number of options since
+                question = counters.compute(questionId, (id, current) ->
+                    current != null && current.optionCount() == optionCount ? current : new QuestionCounters(storyId, optionCount));
+            }
+            int answer = answers[position];
+            question.record(answer,
+                answer == QuizSubmission.TEXT_CORRECT || (answer >= 0 && quiz.isCorrectOption(position, answer)));
+        }
+    }
+
+    /**
+     * Analytics of every question of a story in quiz order, as of the last flush
+     */
+    public List<QuizQuestionAnalyticsDTO> getAnalytics(Long storyId) {
+        List<QuizQuestion> questions = quizQuestionRepository.findByStoryIdWithOptions(storyId);
+        if (questions.isEmpty()) {
+            throw new QuizNotFoundException("No quiz found for story " + storyId);
+        }
+        Map<Long, QuizQuestionStats> stats = quizQuestionStatsRepository.findByStoryIdWithChoices(storyId).stream()
+            .collect(Collectors.toMap(QuizQuestionStats::getQuestionId, Function.identity()));
+        List<QuizQuestionAnalyticsDTO> analytics = new ArrayList<>(questions.size());
+        for (QuizQuestion question : questions) {
+            analytics.add(convertToDTO(question, stats.get(question.getId())));
+        }
+        return analytics;
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.analytics.flush-interval-ms:10000}")
+    public void flush() {
+        // A flush already in progress will pick up whatever is counted now
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Drop rollups and counters of questions that were deleted since
+     */
+    @Scheduled(cron = "${quiz.analytics.prune-cron:0 15 4 * * *}")
+    public void pruneDeletedQuestions() {
+        Integer removed = transactionTemplate.execute(status -> {
+            quizQuestionStatsRepository.deleteOrphanedChoiceCounts();
+            return quizQuestionStatsRepository.deleteOrphaned();
+        });
+        List<Long> counted = new ArrayList<>(counters.keySet());
+        for (int from = 0; from < counted.size(); from += batchSize) {
+            List<Long> chunk = counted.subList(from, Math.min(from + batchSize, counted.size()));
+            Set<Long> existing = new HashSet<>(quizQuestionRepository.findExistingIds(chunk));
+            chunk.stream().filter(id -> !existing.contains(id)).forEach(counters::remove);
+        }
+        log.info("Pruned quiz analytics of {} deleted questions", removed);
+    }
+
+    /**
+     * Start the analytics of rewritten questions over; called in the transaction that rewrites them.
+     * Holds off flushes, so no delta counted against the old content is written after the delete.
+     */
+    public void reset(Collection<Long> questionIds) {
+        if (questionIds.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            questionIds.forEach(counters::remove);
+            quizQuestionStatsRepository.deleteChoiceCountsByQuestionIdIn(questionIds);
+            quizQuestionStatsRepository.deleteByQuestionIdIn(questionIds);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    private void flushPending() {
+        List<Delta> deltas = new ArrayList<>();
+        counters.forEach((questionId, question) -> {
+            Delta delta = question.take(questionId);
+            if (delta != null) {
+                deltas.add(delta);
+            }
+        });
+        for (int from = 0; from < deltas.size(); from += batchSize) {
+            List<Delta> batch = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to flush quiz analytics of {} questions, retrying on the next flush", batch.size(), e);
+                for (Delta delta : batch) {
+                    QuestionCounters question = counters.get(delta.questionId());
+                    if (question != null) {
+                        question.restore(delta);
+                    }
+                }
+            }
+        }
+    }
+
+    // Existing rollups get additive updates; new ones are inserted with a histogram row per option.
+    // Histogram rows are upserted per option index, so options added since the rollup was created count too.
+    private void write(List<Delta> deltas) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> existing = new HashSet<>(quizQuestionStatsRepository.findExistingIds(
+                deltas.stream().map(Delta::questionId).toList()));
+            List<Object[]> updates = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> choiceUpdates = new ArrayList<>();
+            List<Object[]> choiceInserts = new ArrayList<>();
+            for (Delta delta : deltas) {
+                boolean exists = existing.contains(delta.questionId());
+                if (exists) {
+                    updates.add(new Object[] { delta.attempts(), delta.correct(), delta.skipped(), now, delta.questionId() });
+                } else {
+                    inserts.add(new Object[] { delta.questionId(), delta.storyId(), delta.attempts(), delta.correct(),
+                                               delta.skipped(), now });
+                }
+                for (int option = 0; option < delta.choices().length; option++) {
+                    long chosen = delta.choices()[option];
+                    if (!exists) {
+                        choiceInserts.add(new Object[] { delta.questionId(), option, chosen });
+                    } else if (chosen != 0) {
+                        choiceUpdates.add(new Object[] { chosen, delta.questionId(), option });
+                    }
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            }
+            if (!choiceUpdates.isEmpty()) {
+                int[] updated = jdbcTemplate.batchUpdate(UPDATE_CHOICE_SQL, choiceUpdates);
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i] == 0) {
+                        Object[] row = choiceUpdates.get(i);
+                        choiceInserts.add(new Object[] { row[1], row[2], row[0] });
+                    }
+                }
+            }
+            if (!choiceInserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_CHOICE_SQL, choiceInserts);
+            }
+        });
+    }
+
+    private QuizQuestionAnalyticsDTO convertToDTO(QuizQuestion question, QuizQuestionStats stats) {
+        QuizQuestionAnalyticsDTO dto = new QuizQuestionAnalyticsDTO();
+        dto.setQuestionId(question.getId());
+        dto.setChapterNumber(question.getChapterNumber());
+        dto.setPosition(question.getPosition());
+        dto.setType(question.getType().getCode());
+        dto.setQuestion(question.getQuestion());
+        boolean hasOptions = question.getType() != QuestionType.FILL_BLANK;
+        dto.setOptions(hasOptions ? List.copyOf(question.getOptions()) : null);
+        if (stats != null) {
+            dto.setAttempts(stats.getAttempts());
+            dto.setCorrectCount(stats.getCorrectCount());
+            dto.setSkippedCount(stats.getSkippedCount());
+            if (stats.getAttempts() > 0) {
+                dto.setDifficultyIndex((double) stats.getCorrectCount() / stats.getAttempts());
+            }
+        }
+        if (hasOptions) {
+            List<Long> choiceCounts = new ArrayList<>(question.getOptions().size());
+            for (int option = 0; option < question.getOptions().size(); option++) {
+                choiceCounts.add(stats != null ? stats.getChoiceCounts().getOrDefault(option, 0L) : 0L);
+            }
+            dto.setChoiceCounts(choiceCounts);
+        }
+        return dto;
+    }
+
+    /**
+     * Unflushed counts of one question. An attempt is counted before its outcome and deltas are
+     * taken in the opposite order, so a flush never writes an outcome without its attempt.
+     */
+    private static final class QuestionCounters {
+
+        private final Long storyId;
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder correct = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder[] choices;
+
+        QuestionCounters(Long storyId, int optionCount) {
+            this.storyId = storyId;
+            this.choices = new LongAdder[optionCount];
+            for (int option = 0; option < optionCount; option++) {
+                choices[option] = new LongAdder();
+            }
+        }
+
+        int optionCount() {
+            return choices.length;
+        }
+
+        void record(int answer, boolean isCorrect) {
+            attempts.increment();
+            if (answer == QuizSubmission.UNANSWERED) {
+                skipped.increment();
+            } else if (answer >= 0 && answer < choices.length) {
+                choices[answer].increment();
+            }
+            if (isCorrect) {
+                correct.increment();
+            }
+        }
+
+        // Reset the counters and return what they held, or null when nothing was counted since
+        Delta take(Long questionId) {
+            long[] chosen = new long[choices.length];
+            for (int option = 0; option < choices.length; option++) {
+                chosen[option] = choices[option].sumThenReset();
+            }
+            long correctDelta = correct.sumThenReset();
+            long skippedDelta = skipped.sumThenReset();
+            long attemptsDelta = attempts.sumThenReset();
+            if (attemptsDelta == 0 && correctDelta == 0 && skippedDelta == 0 && isZero(chosen)) {
+                return null;
+            }
+            return new Delta(questionId, storyId, attemptsDelta, correctDelta, skippedDelta, chosen);
+        }
+
+        void restore(Delta delta) {
+            attempts.add(delta.attempts());
+            correct.add(delta.correct());
+            skipped.add(delta.skipped());
+            for (int option = 0; option < choices.length; option++) {
+                choices[option].add(delta.choices()[option]);
+            }
+        }
+
+        private static boolean isZero(long[] values) {
+            for (long value : values) {
+                if (value != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.QuizGenerationState;
+import com.multistory.languageapp.entity.QuizQuestion;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.event.StoryChangedEvent;
+import com.multistory.languageapp.repository.ChapterRepository;
+import com.multistory.languageapp.repository.QuizGenerationStateRepository;
+import com.multistory.languageapp.repository.QuizQuestionRepository;
+import com.multistory.languageapp.repository.StoryRepository;
+import com.multistory.languageapp.service.ClozeGenerator.Vocabulary;
+import com.multistory.languageapp.service.ClozeGenerator.VocabularyBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generates cloze quiz questions from story and chapter text ahead of time, so quiz requests
+ * only ever read stored questions. A catalog run walks active stories in keyset chunks on a
+ * bounded pool: the first pass counts words per language for the distractor vocabularies and
+ * finds sources whose text hash differs from the last generation, the second regenerates just
+ * those, one transaction per story. Story edits regenerate that story against the vocabulary
+ * of the last run.
+ */
+@Service
+public class QuizGenerationService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizGenerationService.class);
+
+    // Chapter number under which the story text itself is tracked
+    private static final int STORY_TEXT = 0;
+
+    @Autowired
+    private StoryRepository storyRepository;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private QuizQuestionRepository quizQuestionRepository;
+
+    @Autowired
+    private QuizGenerationStateRepository quizGenerationStateRepository;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuizAnalyticsService quizAnalyticsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JobExecutors jobExecutors;
+
+    @Value("${quiz.generation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quiz.generation.on-startup:true}")
+    private boolean onStartup;
+
+    @Value("${quiz.generation.chunk-size:50}")
+    private int chunkSize;
+
+    @Value("${quiz.generation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${quiz.generation.questions-per-source:6}")
+    private int questionsPerSource;
+
+    private final ClozeGenerator generator = new ClozeGenerator();
+    private final AtomicBoolean running = new AtomicBoolean();
+    // Distractor vocabularies by language, from the last catalog run
+    private final Map<String, Vocabulary> vocabularies = new ConcurrentHashMap<>();
+    // Story edits are regenerated one at a time, off the request thread
+    private ExecutorService changeExecutor;
+    // A story is never regenerated by two threads at once
+    private final Object[] storyLocks = new Object[64];
+
+    private record StoryKey(Long id, String language, DifficultyLevel difficulty) {}
+
+    private record Source(int chapterNumber, String text, String hash) {}
+
+    // What the first pass learned about one chunk of stories
+    private record ChunkScan(Map<String, VocabularyBuilder> vocabularies, List<StoryKey> changed) {}
+
+    public QuizGenerationService() {
+        for (int i = 0; i < storyLocks.length; i++) {
+            storyLocks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        changeExecutor = jobExecutors.newWorkerPool("quiz-changes", 1);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void generateOnStartup() {
+        if (enabled && onStartup) {
+            jobExecutors.runInBackground("quiz-generation", this::generateAll);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        changeExecutor.shutdownNow();
+    }
+
+    @EventListener
+    public void onStoryChanged(StoryChangedEvent event) {
+        if (!enabled || event.isRemoval()) {
+            return;
+        }
+        Story story = event.getStory();
+        StoryKey key = new StoryKey(story.getId(), story.getLanguage(), story.getDifficulty());
+        changeExecutor.execute(() -> {
+            Vocabulary vocabulary = vocabularies.get(key.language());
+            if (vocabulary == null) {
+                // No catalog run has covered this language yet; the next one will generate the story
+                return;
+            }
+            try {
+                regenerate(key, vocabulary);
+            } catch (RuntimeException e) {
+                log.error("Quiz generation failed for story {}", key.id(), e);
+            }
+        });
+    }
+
+    /**
+     * Regenerate the questions of every changed source in the catalog
+     */
+    @Scheduled(cron = "${quiz.generation.cron:0 0 5 * * *}")
+    public void generateAll() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        ExecutorService workers = jobExecutors.newWorkerPool("quiz-generation", parallelism);
+        try {
+            List<CompletableFuture<ChunkScan>> scans = new ArrayList<>();
+            long afterId = 0;
+            List<Object[]> rows;
+            do {
+                rows = storyRepository.findIndexKeysAfter(afterId, PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<StoryKey> chunk = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    chunk.add(new StoryKey((Long) row[0], (String) row[1], (DifficultyLevel) row[2]));
+                }
+                scans.add(CompletableFuture.supplyAsync(() -> scan(chunk), workers));
+                afterId = chunk.get(chunk.size() - 1).id();
+            } while (rows.size() == chunkSize);
+
+            Map<String, VocabularyBuilder> builders = new HashMap<>();
+            List<StoryKey> changed = new ArrayList<>();
+            for (CompletableFuture<ChunkScan> future : scans) {
+                ChunkScan scan = future.join();
+                scan.vocabularies().forEach((language, builder) ->
+                    builders.computeIfAbsent(language, l -> new VocabularyBuilder()).merge(builder));
+                changed.addAll(scan.changed());
+            }
+            builders.forEach((language, builder) -> vocabularies.put(language, builder.build()));
+
+            List<CompletableFuture<Integer>> regenerations = new ArrayList<>(changed.size());
+            for (StoryKey story : changed) {
+                Vocabulary vocabulary = vocabularies.get(story.language());
+                regenerations.add(CompletableFuture.supplyAsync(() -> regenerate(story, vocabulary), workers));
+            }
+            int sources = regenerations.stream().mapToInt(CompletableFuture::join).sum();
+            log.info("Quiz generation: {} sources of {} stories regenerated in {} ms",
+                     sources, changed.size(), System.currentTimeMillis() - started);
+        } finally {
+            workers.shutdown();
+            running.set(false);
+        }
+    }
+
+    // First pass over a chunk: count words for the vocabularies and collect stories with changed sources
+    private ChunkScan scan(List<StoryKey> stories) {
+        Map<Long, StoryKey> byId = new HashMap<>();
+        stories.forEach(story -> byId.put(story.id(), story));
+        Map<Long, Map<Integer, Source>> sources = loadSources(byId);
+        Map<Long, Map<Integer, String>> hashes = loadHashes(byId.keySet());
+
+        Map<String, VocabularyBuilder> builders = new HashMap<>();
+        List<StoryKey> changed = new ArrayList<>();
+        for (StoryKey story : stories) {
+            Map<Integer, Source> storySources = sources.getOrDefault(story.id(), Map.of());
+            VocabularyBuilder builder = builders.computeIfAbsent(story.language(), l -> new VocabularyBuilder());
+            storySources.values().forEach(source -> builder.add(generator.countTerms(source.text(), story.language())));
+            if (!changedSources(storySources, hashes.getOrDefault(story.id(), Map.of())).isEmpty()) {
+                changed.add(story);
+            }
+        }
+        return new ChunkScan(builders, changed);
+    }
+
+    /**
+     * Regenerate the sources of one story whose text changed since the last generation, and drop
+     * generated questions of chapters that no longer exist; returns how many sources were written.
+     * Questions are rewritten in place by position, so their ids (which submissions refer to)
+     * survive a regeneration; the analytics of a question whose content changed start over.
+     */
+    private int regenerate(StoryKey story, Vocabulary vocabulary) {
+        synchronized (storyLocks[Math.floorMod(story.id().hashCode(), storyLocks.length)]) {
+            Map<Integer, Source> sources = loadSources(Map.of(story.id(), story)).getOrDefault(story.id(), Map.of());
+            Map<Integer, String> hashes = loadHashes(Set.of(story.id())).getOrDefault(story.id(), Map.of());
+            Set<Integer> changed = changedSources(sources, hashes);
+            if (changed.isEmpty()) {
+                return 0;
+            }
+
+            // Generate outside the transaction; only the writes hold a connection
+            Map<Integer, List<QuizQuestion>> generated = new HashMap<>();
+            for (Integer chapterNumber : changed) {
+                Source source = sources.get(chapterNumber);
+                if (source != null) {
+                    generated.put(chapterNumber, generator.generate(source.text(), story.language(),
+                        story.difficulty(), vocabulary, questionsPerSource));
+                }
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                Story reference = storyRepository.getReferenceById(story.id());
+                Map<Integer, QuizGenerationState> states = new HashMap<>();
+                quizGenerationStateRepository.findByStoryIds(List.of(story.id()))
+                    .forEach(state -> states.put(state.getChapterNumber(), state));
+                List<QuizQuestion> questions = new ArrayList<>();
+                List<QuizQuestion> removed = new ArrayList<>();
+                List<Long> rewritten = new ArrayList<>();
+                for (Integer chapterNumber : changed) {
+                    Map<Integer, QuizQuestion> existing = new HashMap<>();
+                    for (QuizQuestion question : quizQuestionRepository.findGenerated(story.id(), chapterNumber)) {
+                        if (existing.putIfAbsent(question.getPosition(), question) != null) {
+                            removed.add(question);
+                        }
+                    }
+                    QuizGenerationState state = states.get(chapterNumber);
+                    Source source = sources.get(chapterNumber);
+                    if (source == null) {
+                        removed.addAll(existing.values());
+                        if (state != null) {
+                            quizGenerationStateRepository.delete(state);
+                        }
+                        continue;
+                    }
+                    for (QuizQuestion question : generated.get(chapterNumber)) {
+                        QuizQuestion target = existing.remove(question.getPosition());
+                        if (target == null) {
+                            target = question;
+                            target.setStory(reference);
+                            target.setChapterNumber(chapterNumber == STORY_TEXT ? null : chapterNumber);
+                            target.setGenerated(true);
+                        } else if (!sameContent(question, target)) {
+                            copyContent(question, target);
+                            rewritten.add(target.getId());
+                        }
+                        questions.add(target);
+                    }
+                    removed.addAll(existing.values());
+                    if (state == null) {
+                        state = new QuizGenerationState(story.id(), chapterNumber);
+                    }
+                    state.setSourceHash(source.hash());
+                    state.setQuestionCount(generated.get(chapterNumber).size());
+                    state.setGeneratedAt(LocalDateTime.now());
+                    quizGenerationStateRepository.save(state);
+                }
+                quizQuestionRepository.deleteAll(removed);
+                quizQuestionRepository.saveAll(questions);
+                quizAnalyticsService.reset(rewritten);
+            });
+            quizService.invalidate(story.id());
+            return changed.size();
+        }
+    }
+
+    private static boolean sameContent(QuizQuestion a, QuizQuestion b) {
+        return a.getType() == b.getType()
+            && Objects.equals(a.getQuestion(), b.getQuestion())
+            && Objects.equals(a.getOptions(), b.getOptions())
+            && Objects.equals(a.getCorrectOption(), b.getCorrectOption())
+            && Objects.equals(a.getCorrectText(), b.getCorrectText())
+            && Objects.equals(a.getPoints(), b.getPoints());
+    }
+
+    private static void copyContent(QuizQuestion from, QuizQuestion to) {
+        to.setType(from.getType());
+        to.setQuestion(from.getQuestion());
+        to.getOptions().clear();
+        to.getOptions().addAll(from.getOptions());
+        to.setCorrectOption(from.getCorrectOption());
+        to.setCorrectText(from.getCorrectText());
+        to.setPoints(from.getPoints());
+    }
+
+    // Sources whose hash differs from the stored one, plus stored sources that no longer exist
+    private static Set<Integer> changedSources(Map<Integer, Source> sources, Map<Integer, String> hashes) {
+        Set<Integer> changed = new TreeSet<>();
+        sources.forEach((chapterNumber, source) -> {
+            if (!source.hash().equals(hashes.get(chapterNumber))) {
+                changed.add(chapterNumber);
+            }
+        });
+        hashes.keySet().stream().filter(chapterNumber -> !sources.containsKey(chapterNumber)).forEach(changed::add);
+        return changed;
+    }
+
+    // Story and chapter text of the given stories, by story id and chapter number
+    private Map<Long, Map<Integer, Source>> loadSources(Map<Long, StoryKey> stories) {
+        Map<Long, Map<Integer, Source>> sources = new HashMap<>();
+        for (Object[] row : storyRepository.findContentByIds(stories.keySet())) {
+            addSource(sources, stories.get((Long) row[0]), STORY_TEXT, (String) row[1]);
+        }
+        for (Object[] row : chapterRepository.findNumberedContentByStoryIds(stories.keySet())) {
+            addSource(sources, stories.get((Long) row[0]), (Integer) row[1], (String) row[2]);
+        }
+        return sources;
+    }
+
+    private static void addSource(Map<Long, Map<Integer, Source>> sources, StoryKey story, Integer chapterNumber,
+                                  String text) {
+        if (text == null || text.isBlank() || chapterNumber == null) {
+            return;
+        }
+        String hash = ClozeGenerator.sourceHash(text, story.language(), story.difficulty());
+        sources.computeIfAbsent(story.id(), id -> new HashMap<>()).put(chapterNumber, new Source(chapterNumber, text, hash));
+    }
+
+    private Map<Long, Map<Integer, String>> loadHashes(Set<Long> storyIds) {
+        Map<Long, Map<Integer, String>> hashes = new HashMap<>();
+        for (QuizGenerationState state : quizGenerationStateRepository.findByStoryIds(storyIds)) {
+            hashes.computeIfAbsent(state.getStoryId(), id -> new HashMap<>()).put(state.getChapterNumber(), state.getSourceHash());
+        }
+        return hashes;
+    }
+}
@@ -0,0 +1,278 @@
+package com.multistory.languageapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.multistory.languageapp.dto.QuizQuestionDTO;
+import com.multistory.languageapp.dto.QuizQuestionRequest;
+import com.multistory.languageapp.dto.QuizResultDTO;
+import com.multistory.languageapp.entity.QuestionType;
+import com.multistory.languageapp.entity.QuizQuestion;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.event.StoryChangedEvent;
+import com.multistory.languageapp.exception.InvalidRequestException;
+import com.multistory.languageapp.exception.QuizNotFoundException;
+import com.multistory.languageapp.exception.StoryNotFoundException;
+import com.multistory.languageapp.repository.QuizQuestionRepository;
+import com.multistory.languageapp.repository.StoryRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Quizzes per story (all questions) and per chapter. Each quiz is read from the database once,
+ * compiled into a CompiledQuiz and kept in a bounded cache, so serving a quiz writes
+ * pre-serialized bytes and scoring a submission is a pass over array lookups. Reads take no
+ * lock; once the cache is over capacity the least recently used tenth is evicted, judged by
+ * an access tick per entry, so eviction is approximately LRU. Writes to a story's questions,
+ * and changes to the story itself, drop its cached quizzes.
+ */
+@Service
+public class QuizService {
+
+    private static final List<String> TRUE_FALSE_OPTIONS = List.of("True", "False");
+
+    @Autowired
+    private QuizQuestionRepository quizQuestionRepository;
+
+    @Autowired
+    private StoryRepository storyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private QuizAnalyticsService quizAnalyticsService;
+
+    @Value("${quiz.cache.max-quizzes:10000}")
+    private int maxQuizzes;
+
+    @Value("${quiz.pass-percentage:70}")
+    private int passPercentage;
+
+    @Value("${quiz.submission.max-answers:500}")
+    private int maxAnswers;
+
+    @Value("${quiz.submission.max-text-length:255}")
+    private int maxTextLength;
+
+    private QuizSubmissionReader submissionReader;
+
+    // Null chapter number is the whole-story quiz
+    private record QuizKey(Long storyId, Integer chapterNumber) {}
+
+    // A cached quiz and the access tick of its last read
+    private static final class Entry {
+
+        private final CompiledQuiz quiz;
+        private volatile long lastUsed;
+
+        private Entry(CompiledQuiz quiz, long lastUsed) {
+            this.quiz = quiz;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private record Candidate(QuizKey key, Entry entry, long lastUsed) {}
+
+    private final ConcurrentMap<QuizKey, Entry> cache = new ConcurrentHashMap<>(256);
+    private final AtomicLong clock = new AtomicLong();
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+    // One thread evicts at a time; others skip eviction rather than wait
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        submissionReader = new QuizSubmissionReader(objectMapper.getFactory(), maxAnswers, maxTextLength);
+    }
+
+    /**
+     * Quiz of a story, or of one of its chapters when chapterNumber is given; empty quizzes are cached too
+     */
+    public CompiledQuiz getQuiz(Long storyId, Integer chapterNumber) {
+        QuizKey key = new QuizKey(storyId, chapterNumber);
+        Entry cached = cache.get(key);
+        if (cached != null) {
+            cached.lastUsed = clock.incrementAndGet();
+            return cached.quiz;
+        }
+        long loadGeneration = generation.get();
+
+        CompiledQuiz loaded = compile(chapterNumber == null
+            ? quizQuestionRepository.findByStoryIdWithOptions(storyId)
+            : quizQuestionRepository.findByStoryIdAndChapterNumberWithOptions(storyId, chapterNumber));
+        if (loadGeneration == generation.get()) {
+            Entry entry = new Entry(loaded, clock.incrementAndGet());
+            cache.put(key, entry);
+            // An invalidation between the check and the put must not leave the stale quiz behind
+            if (loadGeneration != generation.get()) {
+                cache.remove(key, entry);
+            }
+            if (cache.size() > maxQuizzes) {
+                evictToCapacity();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Score a JSON submission streamed from the request body in one pass over its answer slots.
+     * When the submission names a user, the score (as a percentage) is stored on their progress.
+     * Per-question analytics are only counted in memory here and written by a scheduled flush.
+     */
+    public QuizResultDTO submit(Long storyId, Integer chapterNumber, InputStream body) {
+        CompiledQuiz quiz = getQuiz(storyId, chapterNumber);
+        if (quiz.size() == 0) {
+            throw new QuizNotFoundException("No quiz found for story " + storyId
+                + (chapterNumber != null ? " chapter " + chapterNumber : ""));
+        }
+        QuizSubmission submission = submissionReader.read(body, quiz);
+        int[] answers = submission.answers();
+        int score = 0;
+        int correct = 0;
+        for (int position = 0; position < answers.length; position++) {
+            int answer = answers[position];
+            if (answer == QuizSubmission.TEXT_CORRECT || (answer >= 0 && quiz.isCorrectOption(position, answer))) {
+                score += quiz.getPoints(position);
+                correct++;
+            }
+        }
+        quizAnalyticsService.record(storyId, quiz, answers);
+
+        int maxScore = quiz.getMaxScore();
+        double percentage = maxScore > 0 ? (double) score / maxScore * 100 : 0;
+        boolean passed = percentage >= passPercentage;
+        if (submission.userId() != null) {
+            userProgressService.recordQuizScore(submission.userId(), storyId, (int) Math.round(percentage));
+        }
+        QuizResultDTO result = new QuizResultDTO();
+        result.setScore(score);
+        result.setMaxScore(maxScore);
+        result.setPercentage(percentage);
+        result.setCorrectAnswers(correct);
+        result.setTotalQuestions(quiz.size());
+        result.setPassed(passed);
+        result.setMessage(passed ? "Congratulations! You passed!" : "Keep studying!");
+        return result;
+    }
+
+    public QuizQuestionDTO addQuestion(Long storyId, QuizQuestionRequest request) {
+        Story story = storyRepository.findById(storyId)
+            .orElseThrow(() -> new StoryNotFoundException("Story not found with id: " + storyId));
+        QuizQuestion question = new QuizQuestion(story, request.getChapterNumber(), request.getType(), request.getQuestion());
+        question.setPosition(request.getPosition() != null ? request.getPosition() : 0);
+        question.setPoints(request.getPoints() != null ? request.getPoints() : 10);
+        List<String> options = request.getOptions() != null ? request.getOptions() : List.of();
+        switch (request.getType()) {
+            case MULTIPLE_CHOICE -> {
+                if (options.size() < 2) {
+                    throw new InvalidRequestException("A multiple choice question needs at least 2 options");
+                }
+                question.setOptions(new ArrayList<>(options));
+                question.setCorrectOption(requireOption(request.getCorrectOption(), options.size()));
+            }
+            case TRUE_FALSE -> {
+                question.setOptions(new ArrayList<>(TRUE_FALSE_OPTIONS));
+                question.setCorrectOption(requireOption(request.getCorrectOption(), TRUE_FALSE_OPTIONS.size()));
+            }
+            case FILL_BLANK -> {
+                if (request.getCorrectText() == null || request.getCorrectText().isBlank()) {
+                    throw new InvalidRequestException("A fill in the blank question needs its correct text");
+                }
+                question.setCorrectText(request.getCorrectText().strip());
+            }
+        }
+        QuizQuestion saved = quizQuestionRepository.save(question);
+        invalidate(storyId);
+        return convertToDTO(saved, storyId);
+    }
+
+    public void deleteQuestion(Long storyId, Long questionId) {
+        QuizQuestion question = quizQuestionRepository.findById(questionId)
+            .filter(found -> found.getStory().getId().equals(storyId))
+            .orElseThrow(() -> new QuizNotFoundException("Quiz question not found with id: " + questionId));
+        quizQuestionRepository.delete(question);
+        invalidate(storyId);
+    }
+
+    public void invalidate(Long storyId) {
+        generation.incrementAndGet();
+        cache.keySet().removeIf(key -> key.storyId().equals(storyId));
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @EventListener
+    public void onStoryChanged(StoryChangedEvent event) {
+        invalidate(event.getStoryId());
+    }
+
+    private static int requireOption(Integer correctOption, int optionCount) {
+        if (correctOption == null || correctOption < 0 || correctOption >= optionCount) {
+            throw new InvalidRequestException("Correct option must be between 0 and " + (optionCount - 1));
+        }
+        return correctOption;
+    }
+
+    private CompiledQuiz compile(List<QuizQuestion> questions) {
+        List<QuizQuestionDTO> payload = new ArrayList<>(questions.size());
+        for (QuizQuestion question : questions) {
+            payload.add(convertToDTO(question, question.getStory().getId()));
+        }
+        try {
+            return CompiledQuiz.compile(questions, objectMapper.writeValueAsBytes(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize quiz", e);
+        }
+    }
+
+    // Drop the least recently used entries down to 90% of capacity, so eviction runs once per batch of loads
+    private void evictToCapacity() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int excess = cache.size() - maxQuizzes * 9 / 10;
+            if (excess <= 0) {
+                return;
+            }
+            // Ticks are copied first: they keep moving under concurrent reads while the list is sorted
+            List<Candidate> candidates = new ArrayList<>(cache.size());
+            cache.forEach((key, entry) -> candidates.add(new Candidate(key, entry, entry.lastUsed)));
+            candidates.sort(Comparator.comparingLong(Candidate::lastUsed));
+            for (Candidate eldest : candidates.subList(0, Math.min(excess, candidates.size()))) {
+                cache.remove(eldest.key(), eldest.entry());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private QuizQuestionDTO convertToDTO(QuizQuestion question, Long storyId) {
+        QuizQuestionDTO dto = new QuizQuestionDTO();
+        dto.setId(question.getId());
+        dto.setStoryId(storyId);
+        dto.setChapterNumber(question.getChapterNumber());
+        dto.setType(question.getType().getCode());
+        dto.setQuestion(question.getQuestion());
+        dto.setOptions(question.getType() == QuestionType.FILL_BLANK ? null : List.copyOf(question.getOptions()));
+        dto.setPoints(question.getPoints());
+        return dto;
+    }
+}
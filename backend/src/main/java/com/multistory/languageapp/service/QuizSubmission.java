@@ -0,0 +1,15 @@
+package com.multistory.languageapp.service;
+
+/**
+ * A parsed quiz submission: the submitting user (null for anonymous attempts) and one answer
+ * slot per question in quiz order. A slot holds the chosen option index, or one of the
+ * negative markers below for unanswered questions and text answers.
+ */
+public record QuizSubmission(Long userId, int[] answers) {
+
+    public static final int UNANSWERED = -1;
+    // A fill-in-the-blank answer that matched the expected text
+    public static final int TEXT_CORRECT = -2;
+    // A text answer that matched nothing, or an answer of the wrong kind for the question
+    public static final int WRONG = -3;
+}
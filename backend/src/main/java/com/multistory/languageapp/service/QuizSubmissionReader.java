@@ -0,0 +1,131 @@
+package com.multistory.languageapp.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.multistory.languageapp.exception.InvalidRequestException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Streams a quiz submission of the form {"userId": 1, "answers": [{"questionId": 7, "userAnswer": 2}]}
+ * straight into a QuizSubmission, without binding an object per answer. userAnswer is an option
+ * index, true/false, or text; other fields are skipped. Each answer is resolved against the
+ * compiled quiz as soon as its object ends, so only text answers are ever materialized.
+ * The first answer to a question counts; unknown question ids are ignored.
+ */
+final class QuizSubmissionReader {
+
+    private final JsonFactory jsonFactory;
+    private final int maxAnswers;
+    private final int maxTextLength;
+
+    QuizSubmissionReader(JsonFactory jsonFactory, int maxAnswers, int maxTextLength) {
+        this.jsonFactory = jsonFactory;
+        this.maxAnswers = maxAnswers;
+        this.maxTextLength = maxTextLength;
+    }
+
+    /**
+     * Parse a submission for the given quiz; throws InvalidRequestException for malformed or oversized input
+     */
+    QuizSubmission read(InputStream body, CompiledQuiz quiz) {
+        int[] answers = new int[quiz.size()];
+        Arrays.fill(answers, QuizSubmission.UNANSWERED);
+        Long userId = null;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expect(parser.nextToken() == JsonToken.START_OBJECT, "Quiz submission must be a JSON object");
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("userId".equals(field)) {
+                    expect(value == JsonToken.VALUE_NUMBER_INT || value == JsonToken.VALUE_NULL, "userId must be a number");
+                    userId = value == JsonToken.VALUE_NULL ? null : parser.getLongValue();
+                } else if ("answers".equals(field)) {
+                    readAnswers(parser, value, quiz, answers);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequestException("Malformed quiz submission: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new QuizSubmission(userId, answers);
+    }
+
+    private void readAnswers(JsonParser parser, JsonToken value, CompiledQuiz quiz, int[] answers) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return;
+        }
+        expect(value == JsonToken.START_ARRAY, "answers must be an array");
+        int count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            expect(++count <= maxAnswers, "A quiz submission can have at most " + maxAnswers + " answers");
+            expect(parser.currentToken() == JsonToken.START_OBJECT, "Each answer must be a JSON object");
+            readAnswer(parser, quiz, answers);
+        }
+    }
+
+    // One answer object; the parser is left on its END_OBJECT
+    private void readAnswer(JsonParser parser, CompiledQuiz quiz, int[] answers) throws IOException {
+        long questionId = -1;
+        JsonToken kind = JsonToken.VALUE_NULL;
+        int option = 0;
+        String text = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("questionId".equals(field)) {
+                expect(value == JsonToken.VALUE_NUMBER_INT, "questionId must be a number");
+                questionId = parser.getLongValue();
+            } else if ("userAnswer".equals(field)) {
+                kind = value;
+                switch (value) {
+                    case VALUE_NUMBER_INT -> option = parser.getIntValue();
+                    case VALUE_STRING -> {
+                        expect(parser.getTextLength() <= maxTextLength,
+                               "Text answers must not exceed " + maxTextLength + " characters");
+                        text = parser.getText();
+                    }
+                    case VALUE_TRUE, VALUE_FALSE, VALUE_NULL -> { }
+                    default -> throw new InvalidRequestException("userAnswer must be a number, boolean or string");
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        int position = quiz.positionOf(questionId);
+        if (position < 0 || answers[position] != QuizSubmission.UNANSWERED) {
+            return;
+        }
+        answers[position] = switch (kind) {
+            case VALUE_NULL -> QuizSubmission.WRONG;
+            case VALUE_NUMBER_INT -> quiz.hasOptions(position) && option >= 0 ? option : QuizSubmission.WRONG;
+            case VALUE_TRUE -> quiz.isTrueFalse(position) ? 0 : QuizSubmission.WRONG;
+            case VALUE_FALSE -> quiz.isTrueFalse(position) ? 1 : QuizSubmission.WRONG;
+            default -> resolveText(quiz, position, text);
+        };
+    }
+
+    // Text picks an option by its label, or is checked against the expected word of a fill-in-the-blank
+    private static int resolveText(CompiledQuiz quiz, int position, String text) {
+        if (quiz.hasOptions(position)) {
+            int option = quiz.optionIndexOf(position, text);
+            return option >= 0 ? option : QuizSubmission.WRONG;
+        }
+        return quiz.isCorrectText(position, text) ? QuizSubmission.TEXT_CORRECT : QuizSubmission.WRONG;
+    }
+
+    private static void expect(boolean condition, String message) {
+        if (!condition) {
+            throw new InvalidRequestException(message);
+        }
+    }
+}
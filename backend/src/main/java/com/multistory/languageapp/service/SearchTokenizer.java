@@ -0,0 +1,115 @@
+package com.multistory.languageapp.service;
+
+import java.text.BreakIterator;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Language-aware tokenizer used by the in-process search index.
+ * Word boundaries come from the JDK BreakIterator for the story language;
+ * scripts written without spaces (Han, Hiragana, Katakana) are split into bigrams.
+ */
+final class SearchTokenizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Map<String, Set<String>> STOP_WORDS = Map.of(
+        "en", Set.of("a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into",
+                     "is", "it", "of", "on", "or", "that", "the", "their", "then", "there", "these",
+                     "they", "this", "to", "was", "will", "with"),
+        "es", Set.of("a", "al", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los", "o",
+                     "para", "por", "que", "se", "un", "una", "y"),
+        "fr", Set.of("a", "au", "avec", "ce", "de", "des", "du", "elle", "en", "est", "et", "il", "la",
+                     "le", "les", "ou", "pour", "que", "un", "une"),
+        "de", Set.of("das", "dem", "den", "der", "die", "ein", "eine", "es", "im", "in", "ist", "mit",
+                     "oder", "und", "von", "zu")
+    );
+
+    // Text without a language (a query across all languages) drops the stop words of every language,
+    // since the stories it is matched against had theirs dropped at index time
+    private static final Set<String> ANY_LANGUAGE_STOP_WORDS = STOP_WORDS.values().stream()
+        .flatMap(Set::stream)
+        .collect(Collectors.toUnmodifiableSet());
+
+    /**
+     * Receives each word of a text as its [start, end) range and its search term; the term is
+     * null for words of scripts written without spaces, and stop words are not reported
+     */
+    interface WordConsumer {
+        void accept(int start, int end, String term);
+    }
+
+    List<String> tokenize(String text, String language) {
+        List<String> tokens = new ArrayList<>();
+        forEachWord(text, language, (start, end, term) -> {
+            if (term == null) {
+                addBigrams(text.substring(start, end), tokens);
+            } else {
+                tokens.add(term);
+            }
+        });
+        return tokens;
+    }
+
+    void forEachWord(String text, String language, WordConsumer consumer) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+
+        Locale locale = toLocale(language);
+        Set<String> stopWords = locale.getLanguage().isEmpty()
+            ? ANY_LANGUAGE_STOP_WORDS : STOP_WORDS.getOrDefault(locale.getLanguage(), Set.of());
+        BreakIterator words = BreakIterator.getWordInstance(locale);
+        words.setText(text);
+
+        int start = words.first();
+        for (int end = words.next(); end != BreakIterator.DONE; start = end, end = words.next()) {
+            int first = text.codePointAt(start);
+            if (!Character.isLetterOrDigit(first)) {
+                continue;
+            }
+            if (isUnsegmentedScript(first)) {
+                consumer.accept(start, end, null);
+                continue;
+            }
+            String term = normalize(text.substring(start, end), locale);
+            if (!term.isEmpty() && !stopWords.contains(term)) {
+                consumer.accept(start, end, term);
+            }
+        }
+    }
+
+    Locale toLocale(String language) {
+        return language == null || language.isBlank() ? Locale.ROOT : Locale.forLanguageTag(language);
+    }
+
+    // Lower-case with the story locale and fold accents so "café" matches "cafe"
+    private String normalize(String word, Locale locale) {
+        String lower = word.toLowerCase(locale);
+        return COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private boolean isUnsegmentedScript(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+            || script == Character.UnicodeScript.HIRAGANA
+            || script == Character.UnicodeScript.KATAKANA;
+    }
+
+    private void addBigrams(String word, List<String> tokens) {
+        int[] codePoints = word.codePoints().toArray();
+        if (codePoints.length == 1) {
+            tokens.add(word);
+            return;
+        }
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            tokens.add(new String(codePoints, i, 2));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.repository.StoryRepository;
+import com.multistory.languageapp.repository.UserProgressRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the per-story start/completion counters behind /api/stories/popular and /trending.
+ *
+ * The trending score is an exponentially decayed completion count. Instead of decaying every
+ * row over time, each completion adds exp(lambda * (now - EPOCH)): all scores then share the
+ * same decay factor, so ordering by the stored column equals ordering by the decayed score
+ * and every update stays a single atomic increment. Those weights grow without bound, so the
+ * column stores the natural log of the sum and a completion is added with log-sum-exp; the
+ * stored value grows only linearly with time and never overflows. The initial 0 counts as one
+ * completion at the epoch, which real completions quickly outweigh.
+ *
+ * Counters start at zero on a schema that already has progress; a one-time startup job seeds
+ * them from user_progress, counting each completed row at its last access.
+ */
+@Service
+public class StoryPopularityService {
+    
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    
+    private static final Logger log = LoggerFactory.getLogger(StoryPopularityService.class);
+    
+    private static final int BACKFILL_CHUNK = 200;
+    
+    private static final String ADD_COUNTS_SQL =
+        "UPDATE stories SET start_count = start_count + ?, completion_count = completion_count + ? WHERE id = ?";
+    
+    // Same log-sum-exp step as StoryRepository.incrementCompletionCount, with the chunk's summed weight
+    private static final String ADD_TRENDING_SQL =
+        "UPDATE stories SET trending_score = GREATEST(trending_score, ?) + LN(1 + EXP(-ABS(trending_score - ?))) WHERE id = ?";
+    
+    @Autowired
+    private StoryRepository storyRepository;
+    
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JobExecutors jobExecutors;
+    
+    private final Clock clock = Clock.systemUTC();
+    
+    @Value("${story.trending.half-life-hours:168}")
+    private long halfLifeHours;
+    
+    public void recordStart(Long storyId) {
+        if (storyId != null) {
+            storyRepository.incrementStartCount(storyId);
+        }
+    }
+    
+    public void recordCompletion(Long storyId) {
+        recordCompletion(storyId, clock.instant());
+    }
+    
+    void recordCompletion(Long storyId, Instant at) {
+        if (storyId != null) {
+            storyRepository.incrementCompletionCount(storyId, trendingLogWeight(at));
+        }
+    }
+    
+    /**
+     * Seed the counters once when progress exists but no start has been counted yet (the
+     * counter columns were just added), off the startup thread
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfUnseeded() {
+        if (!storyRepository.existsByStartCountGreaterThan(0L)
+                && !userProgressRepository.findUserIdsAfter(0L, PageRequest.of(0, 1)).isEmpty()) {
+            jobExecutors.runInBackground("story-popularity-backfill", this::backfill);
+        }
+    }
+    
+    /**
+     * Add start and completion counts and trending weight from user_progress, walking stories in
+     * keyset chunks; each chunk is written in one transaction. Counts are added rather than set, so
+     * starts and completions recorded while the job runs are kept.
+     */
+    public int backfill() {
+        int seeded = 0;
+        long afterId = 0;
+        List<Object[]> counts;
+        do {
+            counts = userProgressRepository.countByStoryAfter(afterId, PageRequest.of(0, BACKFILL_CHUNK));
+            if (counts.isEmpty()) {
+                break;
+            }
+            List<Object[]> chunk = counts;
+            transactionTemplate.executeWithoutResult(status -> seed(chunk));
+            seeded += counts.size();
+            afterId = (Long) counts.get(counts.size() - 1)[0];
+        } while (counts.size() == BACKFILL_CHUNK);
+        log.info("Seeded popularity counters of {} stories", seeded);
+        return seeded;
+    }
+    
+    private void seed(List<Object[]> counts) {
+        jdbcTemplate.batchUpdate(ADD_COUNTS_SQL, counts, counts.size(), (ps, row) -> {
+            ps.setLong(1, (Long) row[1]);
+            ps.setLong(2, ((Number) row[2]).longValue());
+            ps.setLong(3, (Long) row[0]);
+        });
+        
+        List<Long> completedIds = counts.stream()
+            .filter(row -> ((Number) row[2]).longValue() > 0)
+            .map(row -> (Long) row[0])
+            .toList();
+        if (completedIds.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Double>> weights = new HashMap<>();
+        for (Object[] row : userProgressRepository.findCompletionTimesByStoryIdIn(completedIds)) {
+            Instant at = row[1] != null ? ((LocalDateTime) row[1]).atZone(ZoneId.systemDefault()).toInstant() : EPOCH;
+            weights.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(trendingLogWeight(at));
+        }
+        List<Map.Entry<Long, Double>> sums = weights.entrySet().stream()
+            .map(entry -> Map.entry(entry.getKey(), logSumExp(entry.getValue())))
+            .toList();
+        jdbcTemplate.batchUpdate(ADD_TRENDING_SQL, sums, sums.size(), (ps, sum) -> {
+            ps.setDouble(1, sum.getValue());
+            ps.setDouble(2, sum.getValue());
+            ps.setLong(3, sum.getKey());
+        });
+    }
+    
+    // ln(sum(exp(w))), shifted by the largest weight so no term overflows
+    private static double logSumExp(List<Double> logWeights) {
+        double max = Collections.max(logWeights);
+        double sum = 0;
+        for (double weight : logWeights) {
+            sum += Math.exp(weight - max);
+        }
+        return max + Math.log(sum);
+    }
+    
+    // Natural log of a completion's weight: lambda * (at - EPOCH)
+    double trendingLogWeight(Instant at) {
+        double hours = Duration.between(EPOCH, at).toSeconds() / 3600.0;
+        return Math.log(2) * hours / halfLifeHours;
+    }
+}
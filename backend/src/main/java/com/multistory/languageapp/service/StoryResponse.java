@@ -0,0 +1,14 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.ResourceVersion;
+
+/**
+ * A cached story detail response: the encoded body and the validators it was built from,
+ * so conditional GETs of a cached story need no database round trip.
+ */
+public record StoryResponse(PrecompressedBody body, ResourceVersion version) {
+
+    public int size() {
+        return body.size();
+    }
+}
@@ -0,0 +1,122 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.event.StoryChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of already-serialized story detail responses, keyed by story id.
+ * Each entry holds the JSON, its precomputed gzip variant and the ETag/Last-Modified it was built from.
+ * Capacity is a byte budget rather than an entry count because story payloads vary widely in size.
+ * Metrics are published as story.response.cache.* and show up under /actuator/metrics.
+ */
+@Component
+public class StoryResponseCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<Long, StoryResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long currentBytes;
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public StoryResponseCache(MeterRegistry meterRegistry,
+                              @Value("${story.response-cache.max-bytes:67108864}") long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.hits = Counter.builder("story.response.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("story.response.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("story.response.cache.evictions").register(meterRegistry);
+        Gauge.builder("story.response.cache.entries", this, StoryResponseCache::size).register(meterRegistry);
+        Gauge.builder("story.response.cache.bytes", this, StoryResponseCache::bytes)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    public StoryResponse get(Long storyId, Supplier<StoryResponse> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            StoryResponse cached = entries.get(storyId);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        misses.increment();
+        return load(storyId, loader, loadGeneration);
+    }
+
+    /**
+     * Rebuild an entry right after a write, so compression happens on the write path
+     * instead of on the next read
+     */
+    public StoryResponse refresh(Long storyId, Supplier<StoryResponse> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            invalidate(storyId);
+            loadGeneration = generation;
+        }
+        return load(storyId, loader, loadGeneration);
+    }
+
+    private StoryResponse load(Long storyId, Supplier<StoryResponse> loader, long loadGeneration) {
+        StoryResponse loaded = loader.get();
+        synchronized (this) {
+            if (loadGeneration == generation && loaded.size() <= maxBytes) {
+                StoryResponse previous = entries.put(storyId, loaded);
+                currentBytes += loaded.size() - (previous != null ? previous.size() : 0);
+                evictToBudget();
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate(Long storyId) {
+        generation++;
+        StoryResponse removed = entries.remove(storyId);
+        if (removed != null) {
+            currentBytes -= removed.size();
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    @EventListener
+    public void onStoryChanged(StoryChangedEvent event) {
+        invalidate(event.getStoryId());
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return currentBytes;
+    }
+
+    private void evictToBudget() {
+        Iterator<Map.Entry<Long, StoryResponse>> eldest = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            currentBytes -= eldest.next().getValue().size();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.event.StoryChangedEvent;
+import com.multistory.languageapp.repository.ChapterRepository;
+import com.multistory.languageapp.repository.StoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over story titles, story content and chapter content.
+ * Results are ranked with BM25 (title matches are boosted) and every query term must match.
+ * The index is built once at startup and then kept current from StoryChangedEvent.
+ */
+@Component
+public class StorySearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(StorySearchIndex.class);
+
+    private static final int REBUILD_PAGE_SIZE = 200;
+    private static final int TITLE_BOOST = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    @Autowired
+    private StoryRepository storyRepository;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    private final SearchTokenizer tokenizer = new SearchTokenizer();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> storyId -> weighted term frequency
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, IndexedStory> documents = new HashMap<>();
+    private long totalLength;
+
+    public record SearchPage(List<Long> storyIds, long totalHits) {}
+
+    private record IndexedStory(String language, int length, Set<String> terms) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        clear();
+        Pageable pageable = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+        Page<Story> page;
+        do {
+            page = storyRepository.findByIsActiveTrue(pageable);
+            indexBatch(page.getContent());
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        log.info("Search index built: {} stories, {} terms in {} ms",
+                 documents.size(), postings.size(), System.currentTimeMillis() - started);
+    }
+
+    @EventListener
+    public void onStoryChanged(StoryChangedEvent event) {
+        if (event.isRemoval()) {
+            remove(event.getStoryId());
+        } else {
+            indexBatch(List.of(event.getStory()));
+        }
+    }
+
+    public SearchPage search(String query, String language, Pageable pageable) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenizer.tokenize(query, language)));
+        if (queryTerms.isEmpty()) {
+            return new SearchPage(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            // Intersect starting from the rarest term to keep the candidate set small
+            queryTerms.sort(Comparator.comparingInt(term -> postings.getOrDefault(term, Map.of()).size()));
+            Map<Long, Double> scores = null;
+            double avgLength = documents.isEmpty() ? 1.0 : (double) totalLength / documents.size();
+
+            for (String term : queryTerms) {
+                Map<Long, Integer> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    return new SearchPage(List.of(), 0);
+                }
+                double idf = Math.log(1 + (documents.size() - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                Map<Long, Double> next = new HashMap<>();
+                Iterable<Long> candidates = scores == null ? termPostings.keySet() : scores.keySet();
+                for (Long storyId : candidates) {
+                    Integer frequency = termPostings.get(storyId);
+                    IndexedStory document = documents.get(storyId);
+                    if (frequency == null || !matchesLanguage(document, language)) {
+                        continue;
+                    }
+                    double norm = K1 * (1 - B + B * document.length() / avgLength);
+                    double termScore = idf * frequency * (K1 + 1) / (frequency + norm);
+                    next.put(storyId, (scores == null ? 0.0 : scores.get(storyId)) + termScore);
+                }
+                scores = next;
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()));
+
+            int from = (int) Math.min(pageable.getOffset(), ranked.size());
+            int to = Math.min(from + pageable.getPageSize(), ranked.size());
+            List<Long> storyIds = new ArrayList<>(to - from);
+            for (Map.Entry<Long, Double> entry : ranked.subList(from, to)) {
+                storyIds.add(entry.getKey());
+            }
+            return new SearchPage(storyIds, ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void indexBatch(List<Story> stories) {
+        if (stories.isEmpty()) {
+            return;
+        }
+        Map<Long, List<String>> chapterText = new HashMap<>();
+        List<Long> storyIds = stories.stream().map(Story::getId).toList();
+        for (Object[] row : chapterRepository.findContentByStoryIds(storyIds)) {
+            chapterText.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        for (Story story : stories) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String term : tokenizer.tokenize(story.getTitle(), story.getLanguage())) {
+                frequencies.merge(term, TITLE_BOOST, Integer::sum);
+            }
+            int length = addTerms(frequencies, story.getContent(), story.getLanguage());
+            for (String chapter : chapterText.getOrDefault(story.getId(), Collections.emptyList())) {
+                length += addTerms(frequencies, chapter, story.getLanguage());
+            }
+            put(story.getId(), new IndexedStory(story.getLanguage(), Math.max(length, 1), frequencies.keySet()), frequencies);
+        }
+    }
+
+    void remove(Long storyId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(storyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int addTerms(Map<String, Integer> frequencies, String text, String language) {
+        List<String> terms = tokenizer.tokenize(text, language);
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return terms.size();
+    }
+
+    private void put(Long storyId, IndexedStory document, Map<String, Integer> frequencies) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(storyId);
+            documents.put(storyId, document);
+            totalLength += document.length();
+            frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(storyId, frequency));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long storyId) {
+        IndexedStory previous = documents.remove(storyId);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length();
+        for (String term : previous.terms()) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(storyId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean matchesLanguage(IndexedStory document, String language) {
+        return language == null || language.equalsIgnoreCase(document.language());
+    }
+}
@@ -1,36 +1,138 @@
 package com.multistory.languageapp.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.multistory.languageapp.dto.CursorPage;
+import com.multistory.languageapp.dto.ResourceVersion;
 import com.multistory.languageapp.dto.StoryDTO;
 import com.multistory.languageapp.dto.StoryCreateRequest;
+import com.multistory.languageapp.dto.StorySummaryDTO;
 import com.multistory.languageapp.dto.StoryUpdateRequest;
+import com.multistory.languageapp.entity.DifficultyLevel;
 import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.event.StoryChangedEvent;
 import com.multistory.languageapp.exception.StoryNotFoundException;
 import com.multistory.languageapp.repository.StoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class StoryService {
     
+    private static final Logger log = LoggerFactory.getLogger(StoryService.class);
+    
+    private static final int EXCERPT_BACKFILL_CHUNK = 500;
+    
+    // updated_at moves too, so cached listings revalidate and pick up the new excerpts
+    private static final String SET_EXCERPT_SQL = "UPDATE stories SET excerpt = ?, updated_at = ? WHERE id = ?";
+    
     @Autowired
     private StoryRepository storyRepository;
     
-    public Page<StoryDTO> getStoriesWithFilters(String language, String difficulty, String keyword, Pageable pageable) {
-        Page<Story> stories = storyRepository.findStoriesWithFilters(language, difficulty, keyword, pageable);
+    @Autowired
+    private StorySearchIndex storySearchIndex;
+    
+    @Autowired
+    private StoryTagIndex storyTagIndex;
+    
+    @Autowired
+    private StoryResponseCache storyResponseCache;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private JobExecutors jobExecutors;
+    
+    /**
+     * Stories stored before excerpts were derived on write have none; fill them in once, off the
+     * startup thread. Finds nothing to do once every row has its excerpt.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillExcerptsOnStartup() {
+        jobExecutors.runInBackground("story-excerpts", this::backfillExcerpts);
+    }
+    
+    /**
+     * Derive the missing excerpts in keyset chunks of content, each written as one JDBC batch
+     */
+    public int backfillExcerpts() {
+        int filled = 0;
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = storyRepository.findContentWithoutExcerptAfter(afterId, PageRequest.of(0, EXCERPT_BACKFILL_CHUNK));
+            if (rows.isEmpty()) {
+                break;
+            }
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(SET_EXCERPT_SQL, rows, rows.size(), (ps, row) -> {
+                ps.setString(1, Story.excerptOf((String) row[1]));
+                ps.setTimestamp(2, now);
+                ps.setLong(3, (Long) row[0]);
+            });
+            rows.forEach(row -> storyResponseCache.invalidate((Long) row[0]));
+            filled += rows.size();
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        } while (rows.size() == EXCERPT_BACKFILL_CHUNK);
+        if (filled > 0) {
+            log.info("Backfilled excerpts of {} stories", filled);
+        }
+        return filled;
+    }
+    
+    public Page<StorySummaryDTO> getStoriesWithFilters(String language, String difficulty, String keyword, Pageable pageable) {
+        Page<StorySummaryDTO> stories = storyRepository.findSummariesWithFilters(language, difficulty, keyword, pageable);
+        attachTags(stories.getContent());
+        return stories;
+    }
+    
+    public CursorPage<StorySummaryDTO> getStoriesAfterCursor(String language, String difficulty, String keyword,
+                                                      String cursor, int size, boolean includeTotal) {
+        StoryCursor position = cursor == null || cursor.isEmpty() ? null : StoryCursor.decode(cursor);
+        // Fetch one extra row to learn whether another page exists without counting
+        List<StorySummaryDTO> stories = storyRepository.findSummariesAfterCursor(
+            language, difficulty, keyword,
+            position != null ? position.createdAt() : null,
+            position != null ? position.id() : null,
+            PageRequest.of(0, size + 1));
         
-        // Batch load tags to avoid N+1 queries
-        List<Story> storyList = stories.getContent();
-        if (!storyList.isEmpty()) {
-            // Force initialize tags collection for all stories
-            storyList.forEach(story -> story.getTags().size());
+        boolean hasNext = stories.size() > size;
+        List<StorySummaryDTO> page = hasNext ? new ArrayList<>(stories.subList(0, size)) : stories;
+        String nextCursor = null;
+        if (hasNext) {
+            StorySummaryDTO last = page.get(page.size() - 1);
+            nextCursor = new StoryCursor(last.getCreatedAt(), last.getId()).encode();
         }
+        Long total = includeTotal ? storyRepository.countStoriesWithFilters(language, difficulty, keyword) : null;
         
-        return stories.map(this::convertToDTO);
+        attachTags(page);
+        return new CursorPage<>(page, nextCursor, total);
     }
     
     public StoryDTO getStoryById(Long id) {
@@ -39,10 +141,38 @@ public class StoryService {
         return convertToDTO(story);
     }
     
+    /**
+     * Validators of an active story, read without loading it (a deactivated story is not found)
+     */
+    public ResourceVersion getStoryVersion(Long id) {
+        return storyRepository.findVersionById(id)
+            .map(modifiedAt -> ResourceVersion.of("story-" + id, modifiedAt))
+            .orElseThrow(() -> new StoryNotFoundException("Story not found with id: " + id));
+    }
+    
+    /**
+     * Version of the whole catalog (any create, update or delete changes it); null when empty
+     */
+    public ResourceVersion getCatalogVersion() {
+        LocalDateTime modifiedAt = storyRepository.findCatalogVersion();
+        return modifiedAt != null ? ResourceVersion.of("catalog", modifiedAt) : null;
+    }
+    
+    /**
+     * Story detail as encoded JSON (plus its gzip variant) with its validators, served from the
+     * response cache when possible; only a cache miss reads the database
+     */
+    public StoryResponse getStoryResponse(Long id) {
+        return storyResponseCache.get(id, () -> toResponse(getStoryById(id)));
+    }
+    
     public StoryDTO createStory(StoryCreateRequest request) {
         Story story = convertToEntity(request);
         Story savedStory = storyRepository.save(story);
-        return convertToDTO(savedStory);
+        eventPublisher.publishEvent(new StoryChangedEvent(savedStory, StoryChangedEvent.ChangeType.CREATED));
+        StoryDTO dto = convertToDTO(savedStory);
+        storyResponseCache.refresh(dto.getId(), () -> toResponse(dto));
+        return dto;
     }
     
     public StoryDTO updateStory(Long id, StoryUpdateRequest request) {
@@ -50,35 +180,68 @@ public class StoryService {
             .orElseThrow(() -> new StoryNotFoundException("Story not found with id: " + id));
         
         updateEntityFromRequest(story, request);
+        // Mark dirty even for collection-only edits so the version used for ETags always moves
+        story.setUpdatedAt(LocalDateTime.now());
         Story updatedStory = storyRepository.save(story);
-        return convertToDTO(updatedStory);
+        eventPublisher.publishEvent(new StoryChangedEvent(updatedStory, StoryChangedEvent.ChangeType.UPDATED));
+        StoryDTO dto = convertToDTO(updatedStory);
+        if (Boolean.TRUE.equals(updatedStory.getIsActive())) {
+            storyResponseCache.refresh(dto.getId(), () -> toResponse(dto));
+        }
+        return dto;
     }
     
     public void deleteStory(Long id) {
         Story story = storyRepository.findByIdWithTags(id)
             .orElseThrow(() -> new StoryNotFoundException("Story not found with id: " + id));
         story.setIsActive(false);
+        story.setUpdatedAt(LocalDateTime.now());
         storyRepository.save(story);
+        eventPublisher.publishEvent(new StoryChangedEvent(story, StoryChangedEvent.ChangeType.DELETED));
+    }
+    
+    public List<StorySummaryDTO> getStoriesByLanguage(String language) {
+        List<StorySummaryDTO> stories = storyRepository.findSummariesByLanguage(language);
+        attachTags(stories);
+        return stories;
     }
     
-    public List<StoryDTO> getStoriesByLanguage(String language) {
-        List<Story> stories = storyRepository.findByLanguageAndIsActiveTrue(language);
-        return stories.stream().map(this::convertToDTO).collect(Collectors.toList());
+    public List<StorySummaryDTO> getPopularStories(int limit) {
+        List<StorySummaryDTO> stories = storyRepository.findPopularStorySummaries(Pageable.ofSize(limit));
+        attachTags(stories);
+        return stories;
     }
     
-    public List<StoryDTO> getPopularStories(int limit) {
-        List<Story> stories = storyRepository.findPopularStories(Pageable.ofSize(limit));
-        return stories.stream().map(this::convertToDTO).collect(Collectors.toList());
+    public List<StorySummaryDTO> getTrendingStories(int limit) {
+        List<StorySummaryDTO> stories = storyRepository.findTrendingStorySummaries(Pageable.ofSize(limit));
+        attachTags(stories);
+        return stories;
     }
     
-    public List<StoryDTO> searchStories(String keyword) {
-        List<Story> stories = storyRepository.searchByTitleOrContent(keyword);
-        return stories.stream().map(this::convertToDTO).collect(Collectors.toList());
+    public Page<StorySummaryDTO> searchStories(String keyword, String language, Pageable pageable) {
+        // Matching and ranking happen in the in-memory index; only the hits are loaded by id
+        StorySearchIndex.SearchPage hits = storySearchIndex.search(keyword, language, pageable);
+        return hydrate(hits.storyIds(), pageable, hits.totalHits());
     }
     
-    public List<StoryDTO> getStoriesByTags(List<String> tags) {
-        List<Story> stories = storyRepository.findByTagsInAndIsActiveTrue(tags);
-        return stories.stream().map(this::convertToDTO).collect(Collectors.toList());
+    // Load summaries for index hits, keeping the order the index returned them in
+    private Page<StorySummaryDTO> hydrate(List<Long> storyIds, Pageable pageable, long totalHits) {
+        Map<Long, StorySummaryDTO> storiesById = storyRepository.findSummariesByIdIn(storyIds).stream()
+            .collect(Collectors.toMap(StorySummaryDTO::getId, Function.identity()));
+        
+        List<StorySummaryDTO> ordered = storyIds.stream()
+            .map(storiesById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        attachTags(ordered);
+        return new PageImpl<>(ordered, pageable, totalHits);
+    }
+    
+    public Page<StorySummaryDTO> getStoriesByTags(List<String> anyTags, List<String> allTags, List<String> excludeTags,
+                                                  String language, DifficultyLevel difficulty, Pageable pageable) {
+        // Tag filtering happens in the bitmap index; only the requested page is loaded by id
+        StoryTagIndex.TagPage hits = storyTagIndex.query(anyTags, allTags, excludeTags, language, difficulty, pageable);
+        return hydrate(hits.storyIds(), pageable, hits.totalHits());
     }
     
     public Object getStoryStatistics(Long id) {
@@ -86,6 +249,32 @@ public class StoryService {
         return "Statistics for story " + id;
     }
     
+    private StoryResponse toResponse(StoryDTO dto) {
+        LocalDateTime modifiedAt = dto.getUpdatedAt() != null ? dto.getUpdatedAt() : dto.getCreatedAt();
+        return new StoryResponse(PrecompressedBody.of(toJson(dto)),
+            modifiedAt != null ? ResourceVersion.of("story-" + dto.getId(), modifiedAt) : null);
+    }
+    
+    private byte[] toJson(StoryDTO dto) {
+        try {
+            return objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize story " + dto.getId(), e);
+        }
+    }
+    
+    // Load tags for a whole list of summaries in one query
+    private void attachTags(List<StorySummaryDTO> stories) {
+        if (stories.isEmpty()) {
+            return;
+        }
+        Map<Long, StorySummaryDTO> byId = stories.stream()
+            .collect(Collectors.toMap(StorySummaryDTO::getId, Function.identity()));
+        for (Object[] row : storyRepository.findTagsByStoryIds(byId.keySet())) {
+            byId.get((Long) row[0]).getTags().add((String) row[1]);
+        }
+    }
+    
     private StoryDTO convertToDTO(Story story) {
         StoryDTO dto = new StoryDTO();
         dto.setId(story.getId());
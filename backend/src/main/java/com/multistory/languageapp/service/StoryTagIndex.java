@@ -0,0 +1,250 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.event.StoryChangedEvent;
+import com.multistory.languageapp.repository.StoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index over active stories for tag, language and difficulty filtering.
+ * Tags are dictionary-encoded to int ids; every tag, language and difficulty owns a bitmap
+ * of story ids, so AND/OR/NOT combinations are word-wise bitmap operations.
+ * Built once at startup and then kept current from StoryChangedEvent.
+ */
+@Component
+public class StoryTagIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(StoryTagIndex.class);
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    @Autowired
+    private StoryRepository storyRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // tag dictionary: tag -> id, and id -> bitmap of story ids
+    private final Map<String, Integer> tagIds = new HashMap<>();
+    private final List<BitSet> tagBitmaps = new ArrayList<>();
+    private final Map<String, BitSet> languageBitmaps = new HashMap<>();
+    private final Map<DifficultyLevel, BitSet> difficultyBitmaps = new EnumMap<>(DifficultyLevel.class);
+    private final BitSet active = new BitSet();
+    // story id -> encoded tags, needed to clear the old bits when a story changes
+    private final Map<Integer, IndexedStory> stories = new HashMap<>();
+
+    public record TagPage(List<Long> storyIds, long totalHits) {}
+
+    private record IndexedStory(String language, DifficultyLevel difficulty, int[] tags) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        clear();
+        long afterId = 0;
+        List<Object[]> keys;
+        do {
+            keys = storyRepository.findIndexKeysAfter(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            if (keys.isEmpty()) {
+                break;
+            }
+            List<Long> ids = new ArrayList<>(keys.size());
+            keys.forEach(row -> ids.add((Long) row[0]));
+            Map<Long, List<String>> tagsByStory = new HashMap<>();
+            for (Object[] row : storyRepository.findTagsByStoryIds(ids)) {
+                tagsByStory.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : keys) {
+                    Long storyId = (Long) row[0];
+                    put(storyId, (String) row[1], (DifficultyLevel) row[2], tagsByStory.getOrDefault(storyId, List.of()));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            afterId = ids.get(ids.size() - 1);
+        } while (keys.size() == REBUILD_PAGE_SIZE);
+        log.info("Tag index built: {} stories, {} tags in {} ms",
+                 size(), tagIds.size(), System.currentTimeMillis() - started);
+    }
+
+    @EventListener
+    public void onStoryChanged(StoryChangedEvent event) {
+        if (event.isRemoval()) {
+            remove(event.getStoryId());
+        } else {
+            index(event.getStory());
+        }
+    }
+
+    /**
+     * Stories carrying at least one of anyTags (ignored when empty), all of allTags and none of
+     * excludeTags, optionally restricted to a language and difficulty. Newest (highest id) first.
+     */
+    public TagPage query(Collection<String> anyTags, Collection<String> allTags, Collection<String> excludeTags,
+                         String language, DifficultyLevel difficulty, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            BitSet result = (BitSet) active.clone();
+            if (language != null) {
+                result.and(languageBitmaps.getOrDefault(language, new BitSet()));
+            }
+            if (difficulty != null) {
+                result.and(difficultyBitmaps.getOrDefault(difficulty, new BitSet()));
+            }
+            if (allTags != null) {
+                for (String tag : allTags) {
+                    result.and(tagBitmap(tag));
+                }
+            }
+            if (anyTags != null && !anyTags.isEmpty()) {
+                BitSet union = new BitSet();
+                for (String tag : anyTags) {
+                    union.or(tagBitmap(tag));
+                }
+                result.and(union);
+            }
+            if (excludeTags != null) {
+                for (String tag : excludeTags) {
+                    result.andNot(tagBitmap(tag));
+                }
+            }
+
+            // Walk down from the highest id; only the requested page is materialized
+            List<Long> storyIds = new ArrayList<>(pageable.getPageSize());
+            long skip = pageable.getOffset();
+            for (int id = result.previousSetBit(result.length() - 1);
+                 id >= 0 && storyIds.size() < pageable.getPageSize();
+                 id = result.previousSetBit(id - 1)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    storyIds.add((long) id);
+                }
+            }
+            return new TagPage(storyIds, result.cardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return active.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void index(Story story) {
+        lock.writeLock().lock();
+        try {
+            put(story.getId(), story.getLanguage(), story.getDifficulty(),
+                story.getTags() != null ? story.getTags() : List.of());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long storyId) {
+        if (!fitsBitmap(storyId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            unset(storyId.intValue());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Long storyId, String language, DifficultyLevel difficulty, List<String> tags) {
+        if (!fitsBitmap(storyId)) {
+            log.warn("Story id {} is outside the tag index range and will not be indexed", storyId);
+            return;
+        }
+        int id = storyId.intValue();
+        unset(id);
+
+        int[] encoded = tags.stream().distinct().mapToInt(this::encode).toArray();
+        for (int tagId : encoded) {
+            tagBitmaps.get(tagId).set(id);
+        }
+        if (language != null) {
+            languageBitmaps.computeIfAbsent(language, key -> new BitSet()).set(id);
+        }
+        if (difficulty != null) {
+            difficultyBitmaps.computeIfAbsent(difficulty, key -> new BitSet()).set(id);
+        }
+        active.set(id);
+        stories.put(id, new IndexedStory(language, difficulty, encoded));
+    }
+
+    private void unset(int id) {
+        IndexedStory previous = stories.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (int tagId : previous.tags()) {
+            tagBitmaps.get(tagId).clear(id);
+        }
+        if (previous.language() != null) {
+            languageBitmaps.get(previous.language()).clear(id);
+        }
+        if (previous.difficulty() != null) {
+            difficultyBitmaps.get(previous.difficulty()).clear(id);
+        }
+        active.clear(id);
+    }
+
+    // Tag ids are never recycled, so an encoded id stays valid for the life of the index
+    private int encode(String tag) {
+        return tagIds.computeIfAbsent(tag, key -> {
+            tagBitmaps.add(new BitSet());
+            return tagBitmaps.size() - 1;
+        });
+    }
+
+    private BitSet tagBitmap(String tag) {
+        Integer tagId = tagIds.get(tag);
+        return tagId != null ? tagBitmaps.get(tagId) : new BitSet();
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            tagIds.clear();
+            tagBitmaps.clear();
+            languageBitmaps.clear();
+            difficultyBitmaps.clear();
+            active.clear();
+            stories.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean fitsBitmap(Long storyId) {
+        return storyId != null && storyId >= 0 && storyId < Integer.MAX_VALUE;
+    }
+}
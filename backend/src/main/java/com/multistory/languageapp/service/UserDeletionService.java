@@ -0,0 +1,193 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.UserDeletionJobDTO;
+import com.multistory.languageapp.entity.DeletionJobStatus;
+import com.multistory.languageapp.entity.UserDeletionJob;
+import com.multistory.languageapp.repository.ProgressLogRepository;
+import com.multistory.languageapp.repository.UserDeletionJobRepository;
+import com.multistory.languageapp.repository.UserProgressRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Deletes all data of a user (GDPR) as a background job. Progress rows, their learned words
+ * and progress log entries are removed with bulk DELETEs by id in chunks of bounded size, each
+ * chunk in its own short transaction with a pause in between, so a large account holds one
+ * pooled connection for a few milliseconds at a time instead of one for the whole deletion.
+ * Jobs are persisted; the response carries the job id and its counters can be polled. A job
+ * interrupted by a shutdown is resumed on the next start; re-running a chunk is harmless.
+ */
+@Service
+public class UserDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDeletionService.class);
+
+    private static final List<DeletionJobStatus> ACTIVE = List.of(DeletionJobStatus.QUEUED, DeletionJobStatus.RUNNING);
+
+    @Autowired
+    private UserDeletionJobRepository userDeletionJobRepository;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private ProgressLogRepository progressLogRepository;
+
+    @Autowired
+    private ProgressWriteBuffer progressWriteBuffer;
+
+    @Autowired
+    private UserVocabularyService userVocabularyService;
+
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JobExecutors jobExecutors;
+
+    @Value("${progress.deletion.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${progress.deletion.pause-ms:50}")
+    private long pauseMs;
+
+    @Value("${progress.deletion.workers:1}")
+    private int workers;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = jobExecutors.newWorkerPool("user-deletion", workers);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Interrupted jobs stay RUNNING and are picked up again by resumeUnfinished
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        List<UserDeletionJob> jobs = userDeletionJobRepository.findByStatusInOrderById(ACTIVE);
+        if (!jobs.isEmpty()) {
+            log.info("Resuming {} unfinished user deletion jobs", jobs.size());
+            jobs.forEach(job -> submit(job.getId()));
+        }
+    }
+
+    /**
+     * Queue deletion of a user's data; a deletion already queued or running for the user is returned instead
+     */
+    public synchronized UserDeletionJobDTO requestDeletion(Long userId) {
+        Optional<UserDeletionJob> active = userDeletionJobRepository.findFirstByUserIdAndStatusIn(userId, ACTIVE);
+        if (active.isPresent()) {
+            return convertToDTO(active.get());
+        }
+        UserDeletionJob job = userDeletionJobRepository.save(new UserDeletionJob(userId));
+        submit(job.getId());
+        return convertToDTO(job);
+    }
+
+    public Optional<UserDeletionJobDTO> getJob(Long jobId) {
+        return userDeletionJobRepository.findById(jobId).map(this::convertToDTO);
+    }
+
+    private void submit(Long jobId) {
+        executor.execute(() -> run(jobId));
+    }
+
+    // Runs on a worker thread; package-private so tests can run a job synchronously
+    void run(Long jobId) {
+        UserDeletionJob job = userDeletionJobRepository.findById(jobId).orElse(null);
+        if (job == null || !ACTIVE.contains(job.getStatus())) {
+            return;
+        }
+        Long userId = job.getUserId();
+        long started = System.currentTimeMillis();
+        try {
+            userDeletionJobRepository.markStarted(jobId, DeletionJobStatus.RUNNING,
+                userProgressRepository.countByUserId(userId), LocalDateTime.now());
+            progressWriteBuffer.discard(userId, null);
+
+            // Learned words first: they reference the progress rows of the same chunk
+            deleteInChunks(pageable -> userProgressRepository.findIdsByUserId(userId, pageable), ids -> {
+                int words = userProgressRepository.deleteVocabularyLearnedByProgressIds(ids);
+                int rows = userProgressRepository.deleteByIds(ids);
+                userDeletionJobRepository.addDeleted(jobId, rows, rows + words);
+                return rows;
+            });
+            deleteInChunks(pageable -> progressLogRepository.findIdsByUserId(userId, pageable), ids -> {
+                int rows = progressLogRepository.deleteByIds(ids);
+                userDeletionJobRepository.addDeleted(jobId, 0, rows);
+                return rows;
+            });
+            userVocabularyService.deleteUser(userId);
+            userStatisticsService.deleteStatistics(userId);
+
+            userDeletionJobRepository.markFinished(jobId, DeletionJobStatus.COMPLETED, null, LocalDateTime.now());
+            log.info("Deleted data of user {} (job {}) in {} ms", userId, jobId, System.currentTimeMillis() - started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("User deletion job {} interrupted, it will resume on the next start", jobId);
+        } catch (RuntimeException e) {
+            log.error("User deletion job {} for user {} failed", jobId, userId, e);
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            userDeletionJobRepository.markFinished(jobId, DeletionJobStatus.FAILED,
+                error.length() > 500 ? error.substring(0, 500) : error, LocalDateTime.now());
+        }
+    }
+
+    // Delete the first chunk of remaining ids until a short chunk shows nothing is left, pausing in between
+    private void deleteInChunks(Function<Pageable, List<Long>> findIds, ToLongFunction<List<Long>> delete)
+            throws InterruptedException {
+        int found;
+        do {
+            found = transactionTemplate.execute(status -> {
+                List<Long> ids = findIds.apply(PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    delete.applyAsLong(ids);
+                }
+                return ids.size();
+            });
+            if (found == chunkSize && pauseMs > 0) {
+                Thread.sleep(pauseMs);
+            }
+        } while (found == chunkSize);
+    }
+
+    private UserDeletionJobDTO convertToDTO(UserDeletionJob job) {
+        UserDeletionJobDTO dto = new UserDeletionJobDTO();
+        dto.setId(job.getId());
+        dto.setUserId(job.getUserId());
+        dto.setStatus(job.getStatus());
+        dto.setProgressRows(job.getProgressRows());
+        dto.setDeletedProgressRows(job.getDeletedProgressRows());
+        dto.setDeletedRows(job.getDeletedRows());
+        dto.setError(job.getError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        return dto;
+    }
+}
@@ -1,15 +1,48 @@
 package com.multistory.languageapp.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.multistory.languageapp.dto.ProgressEventRequest;
+import com.multistory.languageapp.dto.ProgressEventResult;
 import com.multistory.languageapp.dto.UserProgressDTO;
 import com.multistory.languageapp.dto.UserProgressUpdateRequest;
 import com.multistory.languageapp.dto.UserStatisticsDTO;
 import com.multistory.languageapp.entity.UserProgress;
+import com.multistory.languageapp.exception.InvalidRequestException;
+import com.multistory.languageapp.repository.StoryRepository;
 import com.multistory.languageapp.repository.UserProgressRepository;
+import com.multistory.languageapp.service.UserStatisticsService.Contribution;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,66 +51,225 @@ public class UserProgressService {
     @Autowired
     private UserProgressRepository userProgressRepository;
     
+    @Autowired
+    private StoryRepository storyRepository;
+    
+    @Autowired
+    private StoryPopularityService storyPopularityService;
+    
+    @Autowired
+    private ProgressWriteBuffer progressWriteBuffer;
+    
+    @Autowired
+    private UserVocabularyService userVocabularyService;
+    
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+    
+    @Autowired
+    private ProgressEventLog progressEventLog;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${progress.ingest.max-events:1000}")
+    private int maxIngestEvents;
+    
+    @Value("${progress.optimistic-retry.max-attempts:3}")
+    private int maxSaveAttempts;
+    
+    private record EventLine(int number, ProgressEventRequest event) {}
+    
+    // A row as saved by a read-modify-write, with what it looked like before
+    private record SavedProgress(UserProgress progress, boolean isNew, boolean wasCompleted, Contribution before) {}
+    
+    // Time spent and pronunciation scores collected for an existing row during a bulk sync
+    private static final class CounterDelta {
+        private int timeSpent;
+        private final List<Double> pronunciationScores = new ArrayList<>();
+        private boolean applied;
+    }
+    
     public List<UserProgressDTO> getUserProgress(Long userId) {
         List<UserProgress> progressList = userProgressRepository.findByUserId(userId);
-        return progressList.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return progressList.stream().map(this::convertToDTO).map(progressWriteBuffer::overlay).collect(Collectors.toList());
     }
     
     public UserProgressDTO getUserStoryProgress(Long userId, Long storyId) {
+        Optional<UserProgressDTO> buffered = progressWriteBuffer.find(userId, storyId);
+        if (buffered.isPresent()) {
+            return buffered.get();
+        }
         UserProgress progress = userProgressRepository.findByUserIdAndStoryId(userId, storyId)
             .orElseThrow(() -> new RuntimeException("Progress not found for user: " + userId + " and story: " + storyId));
         return convertToDTO(progress);
     }
     
+    /**
+     * Apply a progress update. Heartbeats on an existing row go to the write-behind buffer; anything
+     * else reads, creates if missing and writes the row, and records newly learned words, in one
+     * transaction.
+     */
     public UserProgressDTO updateProgress(Long userId, Long storyId, UserProgressUpdateRequest request) {
-        UserProgress progress = userProgressRepository.findByUserIdAndStoryId(userId, storyId)
-            .orElse(new UserProgress(userId, null)); // Story would need to be fetched
+        if (progressWriteBuffer.isEnabled() && ProgressWriteBuffer.isHeartbeat(request)) {
+            // Only a row that is not buffered yet is read; the rollup and the progress log follow on flush
+            UserProgressDTO buffered = progressWriteBuffer.update(userId, storyId, request, () ->
+                userProgressRepository.findByUserIdAndStoryId(userId, storyId).map(this::convertToDTO).orElse(null));
+            if (buffered != null) {
+                // The row exists: words join the vocabulary now and the row's word list on flush
+                if (request.getVocabularyLearned() != null && !request.getVocabularyLearned().isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> learnWords(userId, storyId, request.getVocabularyLearned()));
+                }
+                return buffered;
+            }
+        }
+        progressWriteBuffer.drain(userId, storyId);
         
-        updateProgressFromRequest(progress, request);
-        progress.setLastAccessed(LocalDateTime.now());
+        SavedProgress saved = saveWithRetry(() -> transactionTemplate.execute(status -> {
+            UserProgress progress = userProgressRepository.findByUserIdAndStoryId(userId, storyId)
+                .orElseGet(() -> new UserProgress(userId, storyRepository.getReferenceById(storyId)));
+            boolean isNew = progress.getId() == null;
+            boolean wasCompleted = Boolean.TRUE.equals(progress.getIsCompleted());
+            Contribution before = isNew ? null : Contribution.of(progress);
+            
+            updateProgressFromRequest(progress, request, isNew);
+            progress.setLastAccessed(LocalDateTime.now());
+            SavedProgress result = new SavedProgress(userProgressRepository.save(progress), isNew, wasCompleted, before);
+            learnWords(userId, storyId, request.getVocabularyLearned());
+            return result;
+        }));
         
-        UserProgress savedProgress = userProgressRepository.save(progress);
+        UserProgress savedProgress = saved.progress();
+        if (!saved.isNew() && applyCounters(userId, storyId, request)) {
+            savedProgress = reload(savedProgress);
+        }
+        recordPopularity(storyId, saved.isNew(), saved.wasCompleted(), savedProgress);
+        userStatisticsService.recordChange(userId, saved.before(), Contribution.of(savedProgress));
         return convertToDTO(savedProgress);
     }
     
+    /**
+     * Apply a bulk NDJSON progress sync for one user in a single transaction. Events are applied in
+     * line order; a malformed or invalid line is rejected on its own without failing the others.
+     * A body with more than progress.ingest.max-events event lines is refused as a whole.
+     */
+    @Transactional
+    public List<ProgressEventResult> ingestEvents(Long userId, InputStream events) {
+        List<ProgressEventResult> results = new ArrayList<>();
+        List<EventLine> lines = readEvents(events, results);
+        
+        Set<Long> storyIds = new LinkedHashSet<>();
+        lines.forEach(line -> storyIds.add(line.event().getStoryId()));
+        Set<Long> activeIds = storyIds.isEmpty()
+            ? Set.of() : new HashSet<>(storyRepository.findActiveIdsByIdIn(storyIds));
+        activeIds.forEach(storyId -> progressWriteBuffer.drain(userId, storyId));
+        
+        Map<Long, UserProgress> progressByStory = activeIds.isEmpty() ? new HashMap<>()
+            : userProgressRepository.findByUserIdAndStoryIdIn(userId, activeIds).stream()
+                .collect(Collectors.toMap(progress -> progress.getStory().getId(), Function.identity(), (a, b) -> a));
+        Set<Long> existingIds = new HashSet<>(progressByStory.keySet());
+        userStatisticsService.ensureStatistics(userId);
+        Map<Long, Contribution> contributionsBefore = new HashMap<>();
+        progressByStory.forEach((storyId, progress) -> contributionsBefore.put(storyId, Contribution.of(progress)));
+        Map<Long, CounterDelta> counters = new LinkedHashMap<>();
+        Map<Long, UserProgress> touched = new LinkedHashMap<>();
+        
+        for (EventLine line : lines) {
+            Long storyId = line.event().getStoryId();
+            if (!activeIds.contains(storyId)) {
+                results.add(ProgressEventResult.rejected(line.number(), storyId, "Story not found: " + storyId));
+                continue;
+            }
+            UserProgress progress = progressByStory.computeIfAbsent(storyId,
+                id -> new UserProgress(userId, storyRepository.getReferenceById(id)));
+            boolean isNew = !existingIds.contains(storyId);
+            learnWords(userId, storyId, line.event().getVocabularyLearned());
+            updateProgressFromRequest(progress, line.event(), isNew);
+            progress.setLastAccessed(LocalDateTime.now());
+            if (!isNew) {
+                CounterDelta delta = counters.computeIfAbsent(storyId, id -> new CounterDelta());
+                if (line.event().getTimeSpent() != null) {
+                    delta.timeSpent += line.event().getTimeSpent();
+                }
+                if (line.event().getPronunciationScore() != null) {
+                    delta.pronunciationScores.add(line.event().getPronunciationScore());
+                }
+            }
+            touched.put(storyId, progress);
+            results.add(ProgressEventResult.applied(line.number(), storyId));
+        }
+        
+        // New rows go out as batched inserts; counters of existing rows as single UPDATE statements
+        userProgressRepository.saveAll(touched.values());
+        counters.forEach((storyId, delta) ->
+            delta.applied = applyCounters(userId, storyId, delta.timeSpent, delta.pronunciationScores));
+        touched.forEach((storyId, progress) -> {
+            Contribution before = contributionsBefore.get(storyId);
+            CounterDelta delta = counters.get(storyId);
+            // Time spent of existing rows was added in the database (or left to the compactor), not on the entity
+            Contribution after = Contribution.of(progress).plusTimeSpent(delta != null && delta.applied ? delta.timeSpent : 0);
+            recordPopularity(storyId, before == null, before != null && before.completed(), progress);
+            userStatisticsService.recordChange(userId, before, after);
+        });
+        
+        results.sort(Comparator.comparingInt(ProgressEventResult::getLine));
+        return results;
+    }
+    
     public List<UserProgressDTO> getCompletedStories(Long userId) {
         List<UserProgress> completedStories = userProgressRepository.findByUserIdAndIsCompletedTrue(userId);
-        return completedStories.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return completedStories.stream().map(this::convertToDTO).map(progressWriteBuffer::overlay).collect(Collectors.toList());
     }
     
     public List<UserProgressDTO> getInProgressStories(Long userId) {
         List<UserProgress> inProgressStories = userProgressRepository.findInProgressByUserId(userId);
-        return inProgressStories.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return inProgressStories.stream().map(this::convertToDTO).map(progressWriteBuffer::overlay).collect(Collectors.toList());
     }
     
     public UserStatisticsDTO getUserStatistics(Long userId) {
-        Object[] stats = userProgressRepository.getUserStatistics(userId);
-        UserStatisticsDTO statisticsDTO = new UserStatisticsDTO();
-        // Map the statistics array to DTO properties
-        // This is a simplified implementation
-        return statisticsDTO;
+        return userStatisticsService.getStatistics(userId);
     }
     
     public List<String> getUserVocabulary(Long userId) {
-        return userProgressRepository.findVocabularyLearnedByUserId(userId);
+        return userVocabularyService.getWords(userId);
+    }
+    
+    public int countUserVocabulary(Long userId) {
+        return userVocabularyService.countWords(userId);
+    }
+    
+    public int countKnownWords(Long userId, List<String> words) {
+        return userVocabularyService.countKnown(userId, words);
     }
     
     public UserProgressDTO addVocabularyWord(Long userId, Long storyId, String word) {
-        UserProgress progress = userProgressRepository.findByUserIdAndStoryId(userId, storyId)
-            .orElseThrow(() -> new RuntimeException("Progress not found"));
-        
-        progress.addVocabularyWord(word);
-        UserProgress savedProgress = userProgressRepository.save(progress);
-        return convertToDTO(savedProgress);
+        progressWriteBuffer.drain(userId, storyId);
+        SavedProgress saved = saveWithRetry(() -> transactionTemplate.execute(status -> {
+            UserProgress progress = userProgressRepository.findByUserIdAndStoryId(userId, storyId)
+                .orElseThrow(() -> new RuntimeException("Progress not found"));
+            progress.addVocabularyWord(word);
+            SavedProgress result = new SavedProgress(userProgressRepository.save(progress), false, false, null);
+            learnWords(userId, storyId, List.of(word));
+            return result;
+        }));
+        return convertToDTO(saved.progress());
     }
     
     public UserProgressDTO updatePronunciationScore(Long userId, Long storyId, Double score) {
+        progressWriteBuffer.drain(userId, storyId);
         UserProgress progress = userProgressRepository.findByUserIdAndStoryId(userId, storyId)
             .orElseThrow(() -> new RuntimeException("Progress not found"));
         
-        progress.updatePronunciationScore(score);
-        UserProgress savedProgress = userProgressRepository.save(progress);
-        return convertToDTO(savedProgress);
+        if (applyCounters(userId, storyId, 0, List.of(score))) {
+            progress = reload(progress);
+        }
+        return convertToDTO(progress);
     }
     
     public UserProgressDTO getCurrentActiveStory(Long userId) {
@@ -85,41 +277,146 @@ public class UserProgressService {
         if (activeStories.isEmpty()) {
             throw new RuntimeException("No active story found for user: " + userId);
         }
-        return convertToDTO(activeStories.get(0));
+        return progressWriteBuffer.overlay(convertToDTO(activeStories.get(0)));
     }
     
+    /**
+     * Start a story, or resume it when the user already has progress on it; only a newly created
+     * row counts as a start
+     */
     public UserProgressDTO startStory(Long userId, Long storyId) {
-        UserProgress progress = new UserProgress(userId, null); // Story would need to be fetched
-        progress.setLastAccessed(LocalDateTime.now());
+        progressWriteBuffer.drain(userId, storyId);
+        SavedProgress saved = saveWithRetry(() -> {
+            UserProgress progress = userProgressRepository.findByUserIdAndStoryId(userId, storyId)
+                .orElseGet(() -> new UserProgress(userId, storyRepository.getReferenceById(storyId)));
+            boolean isNew = progress.getId() == null;
+            progress.setLastAccessed(LocalDateTime.now());
+            return new SavedProgress(userProgressRepository.save(progress), isNew, false, null);
+        });
         
-        UserProgress savedProgress = userProgressRepository.save(progress);
-        return convertToDTO(savedProgress);
+        if (saved.isNew()) {
+            storyPopularityService.recordStart(storyId);
+            userStatisticsService.recordChange(userId, null, Contribution.of(saved.progress()));
+        }
+        return convertToDTO(saved.progress());
     }
     
     public UserProgressDTO completeChapter(Long userId, Long storyId, Integer chapterNumber, UserProgressUpdateRequest request) {
-        UserProgress progress = userProgressRepository.findByUserIdAndStoryId(userId, storyId)
-            .orElseThrow(() -> new RuntimeException("Progress not found"));
+        progressWriteBuffer.drain(userId, storyId);
+        SavedProgress saved = saveWithRetry(() -> transactionTemplate.execute(status -> {
+            UserProgress progress = userProgressRepository.findByUserIdAndStoryId(userId, storyId)
+                .orElseThrow(() -> new RuntimeException("Progress not found"));
+            boolean wasCompleted = Boolean.TRUE.equals(progress.getIsCompleted());
+            Contribution before = Contribution.of(progress);
+            
+            progress.setCurrentChapter(chapterNumber);
+            if (request != null) {
+                updateProgressFromRequest(progress, request, false);
+            }
+            SavedProgress result = new SavedProgress(userProgressRepository.save(progress), false, wasCompleted, before);
+            if (request != null) {
+                learnWords(userId, storyId, request.getVocabularyLearned());
+            }
+            return result;
+        }));
         
-        progress.setCurrentChapter(chapterNumber);
-        if (request != null) {
-            updateProgressFromRequest(progress, request);
+        UserProgress savedProgress = saved.progress();
+        if (request != null && applyCounters(userId, storyId, request)) {
+            savedProgress = reload(savedProgress);
         }
-        
-        UserProgress savedProgress = userProgressRepository.save(progress);
+        recordPopularity(storyId, false, saved.wasCompleted(), savedProgress);
+        userStatisticsService.recordChange(userId, saved.before(), Contribution.of(savedProgress));
+        progressEventLog.recordChapterCompleted(userId, storyId, chapterNumber);
         return convertToDTO(savedProgress);
     }
     
-    public List<?> getLeaderboard() {
-        return userProgressRepository.getLeaderboardData();
+    /**
+     * Store a scored quiz result (percentage) on the user's progress for the story; the row is read,
+     * created if missing and written in one transaction
+     */
+    public UserProgressDTO recordQuizScore(Long userId, Long storyId, int quizScore) {
+        progressWriteBuffer.drain(userId, storyId);
+        SavedProgress saved = saveWithRetry(() -> transactionTemplate.execute(status -> {
+            UserProgress progress = userProgressRepository.findByUserIdAndStoryId(userId, storyId)
+                .orElseGet(() -> new UserProgress(userId, storyRepository.getReferenceById(storyId)));
+            boolean isNew = progress.getId() == null;
+            boolean wasCompleted = Boolean.TRUE.equals(progress.getIsCompleted());
+            Contribution before = isNew ? null : Contribution.of(progress);
+            
+            progress.setQuizScore(quizScore);
+            progress.setLastAccessed(LocalDateTime.now());
+            return new SavedProgress(userProgressRepository.save(progress), isNew, wasCompleted, before);
+        }));
+        
+        recordPopularity(storyId, saved.isNew(), saved.wasCompleted(), saved.progress());
+        userStatisticsService.recordChange(userId, saved.before(), Contribution.of(saved.progress()));
+        return convertToDTO(saved.progress());
     }
     
+    /**
+     * Delete the user's progress on a story. The user's vocabulary is kept: it records each word
+     * once per user, not per story, so a word learned here may also have been learned elsewhere.
+     */
     public void resetStoryProgress(Long userId, Long storyId) {
-        userProgressRepository.findByUserIdAndStoryId(userId, storyId)
-            .ifPresent(userProgressRepository::delete);
+        progressWriteBuffer.discard(userId, storyId);
+        progressEventLog.discard(userId, storyId);
+        userProgressRepository.findByUserIdAndStoryId(userId, storyId).ifPresent(progress -> {
+            userProgressRepository.delete(progress);
+            userStatisticsService.recordChange(userId, Contribution.of(progress), null);
+        });
+    }
+    
+    // Parse NDJSON lines; malformed, invalid and over-limit lines are recorded as rejected
+    private List<EventLine> readEvents(InputStream events, List<ProgressEventResult> results) {
+        List<EventLine> lines = new ArrayList<>();
+        ObjectReader reader = objectMapper.readerFor(ProgressEventRequest.class);
+        try (BufferedReader input = new BufferedReader(new InputStreamReader(events, StandardCharsets.UTF_8))) {
+            String text;
+            int number = 0;
+            while ((text = input.readLine()) != null) {
+                number++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                if (lines.size() + results.size() >= maxIngestEvents) {
+                    // Stop reading: the rest of the body is never parsed or answered line by line
+                    throw new InvalidRequestException("Too many events in one request, limit is " + maxIngestEvents);
+                }
+                ProgressEventRequest event;
+                try {
+                    event = reader.readValue(text);
+                } catch (JsonProcessingException e) {
+                    results.add(ProgressEventResult.rejected(number, null, "Malformed JSON"));
+                    continue;
+                }
+                Set<ConstraintViolation<ProgressEventRequest>> violations = validator.validate(event);
+                if (!violations.isEmpty()) {
+                    results.add(ProgressEventResult.rejected(number, event.getStoryId(),
+                        violations.iterator().next().getMessage()));
+                    continue;
+                }
+                lines.add(new EventLine(number, event));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lines;
     }
     
-    public void deleteUserProgress(Long userId) {
-        userProgressRepository.deleteByUserId(userId);
+    private void learnWords(Long userId, Long storyId, Collection<String> words) {
+        List<String> added = userVocabularyService.addWords(userId, words);
+        userStatisticsService.recordVocabulary(userId, added.size());
+        progressEventLog.recordWordsLearned(userId, storyId, added);
+    }
+    
+    // Count a start for new progress rows and a completion only on the transition to COMPLETED
+    private void recordPopularity(Long storyId, boolean isNew, boolean wasCompleted, UserProgress progress) {
+        if (isNew) {
+            storyPopularityService.recordStart(storyId);
+        }
+        if (!wasCompleted && Boolean.TRUE.equals(progress.getIsCompleted())) {
+            storyPopularityService.recordCompletion(storyId);
+        }
     }
     
     private UserProgressDTO convertToDTO(UserProgress progress) {
@@ -131,7 +428,7 @@ public class UserProgressService {
         dto.setCurrentChapter(progress.getCurrentChapter());
         dto.setTimeSpent(progress.getTimeSpent());
         dto.setQuizScore(progress.getQuizScore());
-        dto.setVocabularyLearned(progress.getVocabularyLearned());
+        dto.setVocabularyLearned(new ArrayList<>(progress.getVocabularyLearned()));
         dto.setPronunciationAttempts(progress.getPronunciationAttempts());
         dto.setAvgPronunciationScore(progress.getAvgPronunciationScore());
         dto.setLastAccessed(progress.getLastAccessed());
@@ -142,14 +439,15 @@ public class UserProgressService {
         return dto;
     }
     
-    private void updateProgressFromRequest(UserProgress progress, UserProgressUpdateRequest request) {
+    // Counters of existing rows are left to applyCounters; a new row takes them in its insert
+    private void updateProgressFromRequest(UserProgress progress, UserProgressUpdateRequest request, boolean isNew) {
         if (request.getCompletionPercentage() != null) {
             progress.setCompletionPercentage(request.getCompletionPercentage());
         }
         if (request.getCurrentChapter() != null) {
             progress.setCurrentChapter(request.getCurrentChapter());
         }
-        if (request.getTimeSpent() != null) {
+        if (isNew && request.getTimeSpent() != null) {
             progress.setTimeSpent(progress.getTimeSpent() + request.getTimeSpent());
         }
         if (request.getQuizScore() != null) {
@@ -158,8 +456,50 @@ public class UserProgressService {
         if (request.getVocabularyLearned() != null) {
             request.getVocabularyLearned().forEach(progress::addVocabularyWord);
         }
-        if (request.getPronunciationScore() != null) {
+        if (isNew && request.getPronunciationScore() != null) {
             progress.updatePronunciationScore(request.getPronunciationScore());
         }
     }
+    
+    private boolean applyCounters(Long userId, Long storyId, UserProgressUpdateRequest request) {
+        return applyCounters(userId, storyId, request.getTimeSpent() != null ? request.getTimeSpent() : 0,
+            request.getPronunciationScore() != null ? List.of(request.getPronunciationScore()) : List.of());
+    }
+    
+    // Apply time spent and pronunciation to an existing row: appended to the event log for the compactor
+    // when it is enabled, otherwise as single UPDATE statements. True when the row was changed in place.
+    private boolean applyCounters(Long userId, Long storyId, int timeSpent, List<Double> pronunciationScores) {
+        if (progressEventLog.isEnabled()) {
+            progressEventLog.recordCounters(userId, storyId, timeSpent, pronunciationScores);
+            return false;
+        }
+        boolean changed = false;
+        if (timeSpent != 0) {
+            changed |= userProgressRepository.addTimeSpent(userId, storyId, timeSpent) > 0;
+        }
+        for (Double score : pronunciationScores) {
+            changed |= userProgressRepository.addPronunciationScore(userId, storyId, score) > 0;
+        }
+        return changed;
+    }
+    
+    // Re-run a read-modify-write whose save lost an optimistic version check against a concurrent writer,
+    // or whose insert lost the unique (user, story) key to a concurrent first write; the failed transaction
+    // clears the persistence context, so the next attempt reads the row afresh and updates it instead
+    private SavedProgress saveWithRetry(Supplier<SavedProgress> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= maxSaveAttempts) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    // Re-read a row after database-side updates so the response carries the new values
+    private UserProgress reload(UserProgress progress) {
+        return userProgressRepository.findById(progress.getId()).orElse(progress);
+    }
 }
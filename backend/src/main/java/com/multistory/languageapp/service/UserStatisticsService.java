@@ -0,0 +1,323 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.UserProgressDTO;
+import com.multistory.languageapp.dto.UserStatisticsDTO;
+import com.multistory.languageapp.entity.UserProgress;
+import com.multistory.languageapp.entity.UserStatistics;
+import com.multistory.languageapp.repository.UserProgressRepository;
+import com.multistory.languageapp.repository.UserStatisticsRepository;
+import com.multistory.languageapp.repository.UserVocabularyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains the user_statistics rollup. Progress write paths report each row change as a
+ * before/after Contribution and the difference is applied as one additive UPDATE, so the
+ * statistics endpoint is a primary-key read. A scheduled reconciliation rebuilds the rollup
+ * from user_progress in parallel chunks to repair any drift.
+ */
+@Service
+public class UserStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStatisticsService.class);
+
+    private static final String ADD_BUFFERED_SQL =
+        "UPDATE user_statistics SET total_time_spent = total_time_spent + ?, completion_sum = completion_sum + ?, " +
+        "updated_at = ? WHERE user_id = ?";
+
+    @Autowired
+    private UserStatisticsRepository userStatisticsRepository;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private UserVocabularyRepository userVocabularyRepository;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JobExecutors jobExecutors;
+
+    @Value("${statistics.reconcile.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${statistics.reconcile.parallelism:4}")
+    private int parallelism;
+
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+
+    /**
+     * What one progress row contributes to its user's statistics
+     */
+    public record Contribution(int completionPercentage, long timeSpent, Integer quizScore, boolean completed) {
+
+        public static Contribution of(UserProgress progress) {
+            return new Contribution(valueOf(progress.getCompletionPercentage()), valueOf(progress.getTimeSpent()),
+                progress.getQuizScore(), Boolean.TRUE.equals(progress.getIsCompleted()));
+        }
+
+        public static Contribution of(UserProgressDTO progress) {
+            return new Contribution(valueOf(progress.getCompletionPercentage()), valueOf(progress.getTimeSpent()),
+                progress.getQuizScore(), Boolean.TRUE.equals(progress.getIsCompleted()));
+        }
+
+        public Contribution plusTimeSpent(long seconds) {
+            return new Contribution(completionPercentage, timeSpent + seconds, quizScore, completed);
+        }
+
+        private static int valueOf(Integer value) {
+            return value != null ? value : 0;
+        }
+    }
+
+    /**
+     * Statistics of one user from the rollup; a user without a rollup row yet gets totals aggregated
+     * from the source rows, which are not stored, so a read never writes
+     */
+    public UserStatisticsDTO getStatistics(Long userId) {
+        UserStatistics statistics = userStatisticsRepository.findById(userId)
+            .orElseGet(() -> aggregate(List.of(userId)).get(userId));
+        return convertToDTO(statistics);
+    }
+
+    /**
+     * Build the rollup up front when several changes are about to be recorded in one unit of work,
+     * so a rebuild triggered by the first change cannot count the later ones twice
+     */
+    public void ensureStatistics(Long userId) {
+        if (!userStatisticsRepository.existsById(userId)) {
+            rebuild(List.of(userId));
+        }
+    }
+
+    /**
+     * Apply the change of one progress row; before is null for a new row, after is null for a deleted one
+     */
+    public void recordChange(Long userId, Contribution before, Contribution after) {
+        long stories = (after != null ? 1 : 0) - (before != null ? 1 : 0);
+        long completed = completedOf(after) - completedOf(before);
+        long completion = (after != null ? after.completionPercentage() : 0)
+            - (before != null ? before.completionPercentage() : 0);
+        long timeSpent = (after != null ? after.timeSpent() : 0) - (before != null ? before.timeSpent() : 0);
+        long quizScore = quizScoreOf(after) - quizScoreOf(before);
+        long quizScores = quizCountOf(after) - quizCountOf(before);
+        if (stories == 0 && completed == 0 && completion == 0 && timeSpent == 0 && quizScore == 0 && quizScores == 0) {
+            return;
+        }
+
+        int updated = userStatisticsRepository.applyDelta(userId, stories, completed, completion, timeSpent,
+            quizScore, quizScores, LocalDateTime.now());
+        if (updated == 0) {
+            // No rollup yet: build it from the source rows, which already include this change
+            rebuild(List.of(userId));
+        } else {
+            leaderboardService.applyDelta(userId, completion, stories);
+        }
+    }
+
+    /**
+     * Time spent and completion that buffered heartbeats added to one user's existing progress rows
+     */
+    public record BufferedChange(Long userId, long timeSpent, long completion) {}
+
+    /**
+     * Apply what a write-behind flush wrote to progress rows, as one batched UPDATE; called inside
+     * the flush transaction. Users without a rollup row are skipped: it is built from the source
+     * rows, which include the flushed values, on their next synchronous write.
+     */
+    public void recordBufferedChanges(List<BufferedChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] updated = jdbcTemplate.batchUpdate(ADD_BUFFERED_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, change.timeSpent());
+            ps.setLong(2, change.completion());
+            ps.setTimestamp(3, now);
+            ps.setLong(4, change.userId());
+        });
+        for (int i = 0; i < changes.size(); i++) {
+            if (updated[0][i] != 0) {
+                leaderboardService.applyDelta(changes.get(i).userId(), changes.get(i).completion(), 0);
+            }
+        }
+    }
+
+    /**
+     * Add time that was folded into existing progress rows after their change was recorded
+     */
+    public void recordTimeSpent(Long userId, long seconds) {
+        if (seconds != 0) {
+            userStatisticsRepository.applyDelta(userId, 0, 0, 0, seconds, 0, 0, LocalDateTime.now());
+        }
+    }
+
+    public void recordVocabulary(Long userId, int newWords) {
+        if (newWords > 0 && userStatisticsRepository.addVocabulary(userId, newWords, LocalDateTime.now()) == 0) {
+            rebuild(List.of(userId));
+        }
+    }
+
+    public void deleteStatistics(Long userId) {
+        if (userStatisticsRepository.existsById(userId)) {
+            userStatisticsRepository.deleteById(userId);
+        }
+        leaderboardService.remove(userId);
+    }
+
+    /**
+     * Fill an empty rollup in the background on first start, so statistics and the leaderboard
+     * do not have to wait for the nightly run
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileIfEmpty() {
+        if (userStatisticsRepository.count() == 0) {
+            jobExecutors.runInBackground("statistics-reconcile", this::reconcile);
+        }
+    }
+
+    /**
+     * Rebuild every user's rollup from user_progress. User ids are walked in keyset order and
+     * each chunk is aggregated and written on its own worker and transaction.
+     */
+    @Scheduled(cron = "${statistics.reconcile.cron:0 30 3 * * *}")
+    public void reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            log.info("Statistics reconciliation already running, skipping");
+            return;
+        }
+        long started = System.currentTimeMillis();
+        ExecutorService workers = jobExecutors.newWorkerPool("statistics-reconcile", parallelism);
+        try {
+            List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+            long afterId = 0;
+            List<Long> userIds;
+            do {
+                userIds = userProgressRepository.findUserIdsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                List<Long> chunk = userIds;
+                chunks.add(CompletableFuture.supplyAsync(() -> rebuild(chunk).size(), workers));
+                afterId = userIds.get(userIds.size() - 1);
+            } while (userIds.size() == chunkSize);
+
+            int users = chunks.stream().mapToInt(CompletableFuture::join).sum();
+            log.info("Statistics reconciled for {} users in {} chunks in {} ms",
+                     users, chunks.size(), System.currentTimeMillis() - started);
+        } finally {
+            workers.shutdown();
+            reconciling.set(false);
+        }
+    }
+
+    /**
+     * Recompute and overwrite the rollup rows of the given users from the source tables. Existing
+     * rows are locked before the source tables are read, so a delta applied concurrently either is
+     * already in the aggregates or waits and is added on top of the rewritten row.
+     */
+    Map<Long, UserStatistics> rebuild(List<Long> userIds) {
+        return transactionTemplate.execute(status -> {
+            Set<Long> existing = new HashSet<>();
+            userStatisticsRepository.findByUserIdsForUpdate(userIds).forEach(row -> existing.add(row.getUserId()));
+            // Users without any source rows still get a (zero) row, so later reads stay primary-key lookups
+            Map<Long, UserStatistics> rebuilt = aggregate(userIds);
+            List<UserStatistics> created = new ArrayList<>();
+            rebuilt.forEach((userId, statistics) -> {
+                if (existing.contains(userId)) {
+                    userStatisticsRepository.overwrite(userId, statistics.getTotalStories(),
+                        statistics.getCompletedStories(), statistics.getCompletionSum(), statistics.getTotalTimeSpent(),
+                        statistics.getQuizScoreSum(), statistics.getQuizScoreCount(), statistics.getVocabularyCount(),
+                        statistics.getUpdatedAt());
+                } else {
+                    created.add(statistics);
+                }
+            });
+            userStatisticsRepository.saveAll(created);
+            rebuilt.values().forEach(statistics -> leaderboardService.update(statistics.getUserId(),
+                statistics.getCompletionSum(), statistics.getTotalStories()));
+            return rebuilt;
+        });
+    }
+
+    // Totals of the given users from the source tables, as rollup rows that are not stored yet
+    private Map<Long, UserStatistics> aggregate(List<Long> userIds) {
+        Map<Long, UserStatistics> totals = new HashMap<>();
+        userIds.forEach(userId -> totals.put(userId, new UserStatistics(userId)));
+        Map<Long, Object[]> progress = new HashMap<>();
+        userProgressRepository.aggregateStatistics(userIds).forEach(row -> progress.put((Long) row[0], row));
+        Map<Long, Long> vocabulary = new HashMap<>();
+        for (Object[] row : userVocabularyRepository.findVocabularySizes(userIds)) {
+            vocabulary.put((Long) row[0], toLong(row[1]) + toLong(row[2]));
+        }
+        totals.forEach((userId, statistics) -> {
+            Object[] row = progress.getOrDefault(userId, new Object[7]);
+            statistics.setTotalStories(toLong(row[1]));
+            statistics.setCompletedStories(toLong(row[2]));
+            statistics.setCompletionSum(toLong(row[3]));
+            statistics.setTotalTimeSpent(toLong(row[4]));
+            statistics.setQuizScoreSum(toLong(row[5]));
+            statistics.setQuizScoreCount(toLong(row[6]));
+            statistics.setVocabularyCount(vocabulary.getOrDefault(userId, 0L));
+        });
+        return totals;
+    }
+
+    private UserStatisticsDTO convertToDTO(UserStatistics statistics) {
+        UserStatisticsDTO dto = new UserStatisticsDTO();
+        dto.setTotalStories(statistics.getTotalStories());
+        dto.setCompletedStories(statistics.getCompletedStories());
+        dto.setAvgCompletion(statistics.getTotalStories() > 0
+            ? (double) statistics.getCompletionSum() / statistics.getTotalStories() : null);
+        dto.setTotalTimeSpent(statistics.getTotalTimeSpent());
+        dto.setAvgQuizScore(statistics.getQuizScoreCount() > 0
+            ? (double) statistics.getQuizScoreSum() / statistics.getQuizScoreCount() : null);
+        dto.setVocabularyWordsLearned(statistics.getVocabularyCount());
+        return dto;
+    }
+
+    private static long completedOf(Contribution contribution) {
+        return contribution != null && contribution.completed() ? 1 : 0;
+    }
+
+    private static long quizScoreOf(Contribution contribution) {
+        return contribution != null && contribution.quizScore() != null ? contribution.quizScore() : 0;
+    }
+
+    private static long quizCountOf(Contribution contribution) {
+        return contribution != null && contribution.quizScore() != null ? 1 : 0;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+}
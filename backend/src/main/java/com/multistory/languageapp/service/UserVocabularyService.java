@@ -0,0 +1,273 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.UserVocabulary;
+import com.multistory.languageapp.entity.UserVocabularyLogEntry;
+import com.multistory.languageapp.repository.UserProgressRepository;
+import com.multistory.languageapp.repository.UserVocabularyLogRepository;
+import com.multistory.languageapp.repository.UserVocabularyRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user vocabulary kept as a bitmap over VocabularyDictionary word ids.
+ * New words are appended to user_vocabulary_log; once enough entries pile up they are folded
+ * into the user_vocabulary snapshot. Loaded sets are cached, so membership, counting and
+ * overlap never touch the database. A set changed inside a transaction that rolls back is
+ * evicted, so the next access reloads what was actually committed.
+ */
+@Service
+public class UserVocabularyService {
+
+    @Autowired
+    private VocabularyDictionary vocabularyDictionary;
+
+    @Autowired
+    private UserVocabularyRepository userVocabularyRepository;
+
+    @Autowired
+    private UserVocabularyLogRepository userVocabularyLogRepository;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${vocabulary.compact-after:256}")
+    private int compactAfter;
+
+    @Value("${vocabulary.cache.max-users:10000}")
+    private int maxCachedUsers;
+
+    // Most recently used sets, bounded by maxCachedUsers
+    private Map<Long, VocabularySet> cache;
+
+    /**
+     * A user's known word ids, plus bookkeeping for the log entries not yet compacted
+     */
+    private static final class VocabularySet {
+        private final BitSet words;
+        private int count;
+        private long lastLogId;
+        private int pendingLogEntries;
+
+        VocabularySet(BitSet words, long lastLogId, int pendingLogEntries) {
+            this.words = words;
+            this.count = words.cardinality();
+            this.lastLogId = lastLogId;
+            this.pendingLogEntries = pendingLogEntries;
+        }
+    }
+
+    @PostConstruct
+    void initCache() {
+        int capacity = maxCachedUsers;
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, VocabularySet> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * Record a learned word; returns false when the user already knew it
+     */
+    public boolean addWord(Long userId, String word) {
+        if (word == null || word.isBlank()) {
+            return false;
+        }
+        int wordId = vocabularyDictionary.idFor(word.strip());
+        VocabularySet set = load(userId);
+        boolean compact;
+        synchronized (set) {
+            if (set.words.get(wordId)) {
+                return false;
+            }
+            UserVocabularyLogEntry entry = userVocabularyLogRepository.save(new UserVocabularyLogEntry(userId, wordId));
+            set.words.set(wordId);
+            set.count++;
+            set.lastLogId = Math.max(set.lastLogId, entry.getId());
+            compact = ++set.pendingLogEntries >= compactAfter;
+        }
+        evictOnRollback(userId);
+        if (compact) {
+            compact(userId, set);
+        }
+        return true;
+    }
+
+    /**
+     * Record several learned words; returns the ones that were new to the user
+     */
+    public List<String> addWords(Long userId, Collection<String> words) {
+        List<String> added = new ArrayList<>();
+        if (words != null) {
+            for (String word : words) {
+                if (addWord(userId, word)) {
+                    added.add(word.strip());
+                }
+            }
+        }
+        return added;
+    }
+
+    public int countWords(Long userId) {
+        VocabularySet set = load(userId);
+        synchronized (set) {
+            return set.count;
+        }
+    }
+
+    /**
+     * How many of the given words the user already knows
+     */
+    public int countKnown(Long userId, Collection<String> words) {
+        List<String> stripped = words.stream().filter(word -> word != null && !word.isBlank()).map(String::strip).toList();
+        Collection<Integer> wordIds = vocabularyDictionary.findIds(stripped).values();
+        VocabularySet set = load(userId);
+        int known = 0;
+        synchronized (set) {
+            for (int wordId : wordIds) {
+                if (set.words.get(wordId)) {
+                    known++;
+                }
+            }
+        }
+        return known;
+    }
+
+    /**
+     * Number of words two users have in common
+     */
+    public int countShared(Long userId, Long otherUserId) {
+        BitSet shared;
+        VocabularySet set = load(userId);
+        synchronized (set) {
+            shared = (BitSet) set.words.clone();
+        }
+        VocabularySet other = load(otherUserId);
+        synchronized (other) {
+            shared.and(other.words);
+        }
+        return shared.cardinality();
+    }
+
+    public List<String> getWords(Long userId) {
+        List<Integer> wordIds = new ArrayList<>();
+        VocabularySet set = load(userId);
+        synchronized (set) {
+            set.words.stream().forEach(wordIds::add);
+        }
+        return vocabularyDictionary.wordsFor(wordIds);
+    }
+
+    // Drop every cached set, e.g. between tests whose transactions roll back
+    void clearCache() {
+        cache.clear();
+    }
+
+    public void deleteUser(Long userId) {
+        cache.remove(userId);
+        transactionTemplate.executeWithoutResult(status -> {
+            userVocabularyLogRepository.deleteByUserId(userId);
+            userVocabularyRepository.findById(userId).ifPresent(userVocabularyRepository::delete);
+        });
+    }
+
+    private VocabularySet load(Long userId) {
+        VocabularySet cached = cache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        VocabularySet loaded = userVocabularyRepository.findById(userId)
+            .map(this::fromSnapshot)
+            .orElseGet(() -> seed(userId));
+        // Keep whichever set another request may have cached meanwhile
+        synchronized (cache) {
+            VocabularySet raced = cache.get(userId);
+            if (raced != null) {
+                return raced;
+            }
+            cache.put(userId, loaded);
+        }
+        evictOnRollback(userId);
+        return loaded;
+    }
+
+    // The cached set may hold words and snapshot state the surrounding transaction never commits
+    private void evictOnRollback(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    cache.remove(userId);
+                }
+            }
+        });
+    }
+
+    private VocabularySet fromSnapshot(UserVocabulary snapshot) {
+        BitSet words = BitSet.valueOf(snapshot.getWordBitmap());
+        long lastLogId = snapshot.getLastLogId();
+        List<UserVocabularyLogEntry> log =
+            userVocabularyLogRepository.findByUserIdAndIdGreaterThanOrderById(snapshot.getUserId(), lastLogId);
+        for (UserVocabularyLogEntry entry : log) {
+            words.set(entry.getWordId());
+            lastLogId = entry.getId();
+        }
+        return new VocabularySet(words, lastLogId, log.size());
+    }
+
+    // First access for a user: build the snapshot from the per-story word lists once
+    private VocabularySet seed(Long userId) {
+        BitSet words = new BitSet();
+        for (String word : userProgressRepository.findVocabularyLearnedByUserId(userId)) {
+            if (word != null && !word.isBlank()) {
+                words.set(vocabularyDictionary.idFor(word.strip()));
+            }
+        }
+        List<UserVocabularyLogEntry> log = userVocabularyLogRepository.findByUserIdAndIdGreaterThanOrderById(userId, 0L);
+        long lastLogId = 0;
+        for (UserVocabularyLogEntry entry : log) {
+            words.set(entry.getWordId());
+            lastLogId = entry.getId();
+        }
+        userVocabularyRepository.save(new UserVocabulary(userId, words.toByteArray(), words.cardinality(), lastLogId));
+        userVocabularyLogRepository.deleteByUserIdUpTo(userId, lastLogId);
+        return new VocabularySet(words, lastLogId, 0);
+    }
+
+    // Fold the log into a fresh snapshot, then drop the folded entries
+    private void compact(Long userId, VocabularySet set) {
+        byte[] bitmap;
+        int count;
+        long upToId;
+        synchronized (set) {
+            bitmap = set.words.toByteArray();
+            count = set.count;
+            upToId = set.lastLogId;
+            set.pendingLogEntries = 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            userVocabularyRepository.save(new UserVocabulary(userId, bitmap, count, upToId));
+            userVocabularyLogRepository.deleteByUserIdUpTo(userId, upToId);
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.VocabularyWord;
+import com.multistory.languageapp.exception.InvalidRequestException;
+import com.multistory.languageapp.repository.VocabularyWordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps vocabulary words to stable int ids and back. Entries are never removed, so both
+ * directions are cached in memory once seen and only misses reach the database. Inside a
+ * transaction an entry is cached only after commit, so a rolled back insert leaves no stale id.
+ */
+@Component
+public class VocabularyDictionary {
+
+    @Autowired
+    private VocabularyWordRepository vocabularyWordRepository;
+
+    private final ConcurrentMap<String, Integer> idsByWord = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, String> wordsById = new ConcurrentHashMap<>();
+
+    /**
+     * Id of a word, adding it to the dictionary when it is new
+     */
+    public int idFor(String word) {
+        Integer cached = idsByWord.get(word);
+        if (cached != null) {
+            return cached;
+        }
+        if (word.length() > VocabularyWord.MAX_WORD_LENGTH) {
+            throw new InvalidRequestException("Vocabulary words must not exceed " + VocabularyWord.MAX_WORD_LENGTH + " characters");
+        }
+        VocabularyWord entry = vocabularyWordRepository.findByWord(word).orElseGet(() -> insert(word));
+        remember(entry);
+        return entry.getId();
+    }
+
+    /**
+     * Ids of the words already in the dictionary; unknown words are skipped, not added
+     */
+    public Map<String, Integer> findIds(Collection<String> words) {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String word : words) {
+            Integer cached = idsByWord.get(word);
+            if (cached != null) {
+                ids.put(word, cached);
+            } else {
+                misses.add(word);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (VocabularyWord entry : vocabularyWordRepository.findByWordIn(misses)) {
+                remember(entry);
+                ids.put(entry.getWord(), entry.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Words for a list of ids, in the same order
+     */
+    public List<String> wordsFor(List<Integer> ids) {
+        List<Integer> misses = ids.stream().filter(id -> !wordsById.containsKey(id)).toList();
+        Map<Integer, String> loaded = new HashMap<>();
+        if (!misses.isEmpty()) {
+            for (VocabularyWord entry : vocabularyWordRepository.findByIdIn(misses)) {
+                remember(entry);
+                loaded.put(entry.getId(), entry.getWord());
+            }
+        }
+        List<String> words = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            String word = wordsById.getOrDefault(id, loaded.get(id));
+            if (word != null) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private VocabularyWord insert(String word) {
+        try {
+            return vocabularyWordRepository.saveAndFlush(new VocabularyWord(word));
+        } catch (DataIntegrityViolationException e) {
+            // Another request added the same word first
+            return vocabularyWordRepository.findByWord(word).orElseThrow(() -> e);
+        }
+    }
+
+    private void remember(VocabularyWord entry) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(entry);
+                }
+            });
+        } else {
+            cache(entry);
+        }
+    }
+
+    private void cache(VocabularyWord entry) {
+        idsByWord.put(entry.getWord(), entry.getId());
+        wordsById.put(entry.getId(), entry.getWord());
+    }
+}
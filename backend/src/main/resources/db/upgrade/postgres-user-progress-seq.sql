@@ -0,0 +1,18 @@
+-- Upgrade an existing PostgreSQL schema for sequence-generated user_progress ids.
+--
+-- UserProgress ids used to come from an identity column; they are now drawn from
+-- user_progress_seq in blocks of 50 (allocationSize = 50), so the sequence must exist before the
+-- application starts with ddl-auto: validate. It is seeded one block past MAX(id) so that no
+-- allocated block can overlap an existing row. Safe to run more than once.
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_class WHERE relkind = 'S' AND relname = 'user_progress_seq') THEN
+        EXECUTE format('CREATE SEQUENCE user_progress_seq START WITH %s INCREMENT BY 50',
+            (SELECT COALESCE(MAX(id), 0) + 51 FROM user_progress));
+    END IF;
+END
+$$;
+
+-- Ids are now assigned by Hibernate; drop the identity default so nothing else draws from it
+ALTER TABLE user_progress ALTER COLUMN id DROP IDENTITY IF EXISTS;
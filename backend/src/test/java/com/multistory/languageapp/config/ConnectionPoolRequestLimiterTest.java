@@ -0,0 +1,31 @@
+package com.multistory.languageapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolRequestLimiterTest {
+
+    private final ConnectionPoolRequestLimiter limiter =
+        new ConnectionPoolRequestLimiter(1, 0, new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    void doFilter_ShouldRejectRequestsBeyondThePermits() throws Exception {
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+
+        // The second request arrives while the first one still holds the only permit
+        limiter.doFilter(new MockHttpServletRequest("GET", "/api/stories"), outer, (request, response) ->
+            limiter.doFilter(new MockHttpServletRequest("GET", "/api/stories/1"), inner, (r, s) -> fail()));
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(503, inner.getStatus());
+        assertEquals("1", inner.getHeader("Retry-After"));
+        assertTrue(inner.getContentAsString().contains("/api/stories/1"));
+        assertEquals(1, limiter.availablePermits());
+    }
+}
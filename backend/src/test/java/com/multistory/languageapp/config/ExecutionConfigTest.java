@@ -0,0 +1,34 @@
+package com.multistory.languageapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ExecutionConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withUserConfiguration(ExecutionConfig.class);
+
+    @Test
+    void virtualThreads_ShouldFailStartupBeforeJava21() {
+        assumeTrue(JavaVersion.getJavaVersion().isOlderThan(JavaVersion.TWENTY_ONE));
+
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            assertNotNull(context.getStartupFailure());
+            Throwable cause = context.getStartupFailure();
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            assertInstanceOf(IllegalStateException.class, cause);
+            assertTrue(cause.getMessage().contains("Java 21"));
+        });
+    }
+
+    @Test
+    void platformThreads_ShouldStart() {
+        contextRunner.run(context -> assertNull(context.getStartupFailure()));
+    }
+}
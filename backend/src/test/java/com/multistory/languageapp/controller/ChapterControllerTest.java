@@ -0,0 +1,164 @@
+package com.multistory.languageapp.controller;
+
+import com.multistory.languageapp.config.SecurityConfig;
+import com.multistory.languageapp.dto.ChapterContentChunk;
+import com.multistory.languageapp.dto.ResourceVersion;
+import com.multistory.languageapp.exception.InvalidCursorException;
+import com.multistory.languageapp.service.ChapterContentService;
+import com.multistory.languageapp.service.StoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ChapterController.class)
+@Import(SecurityConfig.class)
+class ChapterControllerTest {
+
+    private static final String CONTENT_URL = "/api/stories/1/chapters/2/content";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChapterContentService chapterContentService;
+
+    @MockBean
+    private StoryService storyService;
+
+    // @EnableJpaAuditing on the application class needs a mapping context the web slice does not build
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    @BeforeEach
+    void setUp() {
+        when(storyService.getStoryVersion(1L)).thenReturn(ResourceVersion.of("story-1", LocalDateTime.of(2024, 5, 1, 12, 0)));
+    }
+
+    private static ChapterContentChunk chunk(String text, long start, long totalBytes, long endCharacter) {
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        return new ChapterContentChunk(data, start, start + data.length, totalBytes, endCharacter);
+    }
+
+    @Test
+    void getChapterContent_ShouldReturnWholeChapterWithoutRange() throws Exception {
+        when(chapterContentService.readChunk(1L, 2, null, 16384)).thenReturn(chunk("Hola", 0, 4, 4));
+
+        mockMvc.perform(get(CONTENT_URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(content().string("Hola"));
+    }
+
+    @Test
+    void getChapterContent_ShouldServeByteRanges() throws Exception {
+        when(chapterContentService.readRange(1L, 2, 10L, 5)).thenReturn(chunk("Grüß", 10, 40, 9));
+
+        mockMvc.perform(get(CONTENT_URL).header(HttpHeaders.RANGE, "bytes=10-14"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-15/40"))
+                .andExpect(header().string("X-Next-Cursor", "16:9"));
+    }
+
+    @Test
+    void getChapterContent_ShouldFollowCursor() throws Exception {
+        when(chapterContentService.readChunk(1L, 2, "16:9", 16384)).thenReturn(chunk("Ende", 16, 20, 13));
+
+        mockMvc.perform(get(CONTENT_URL).param("cursor", "16:9").header(HttpHeaders.RANGE, "bytes=0-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(content().string("Ende"));
+        verify(chapterContentService, never()).readRange(any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getChapterContent_ShouldReturnOkWithNextCursorForPartialChunks() throws Exception {
+        when(chapterContentService.readChunk(1L, 2, null, 4)).thenReturn(chunk("Hola", 0, 20, 4));
+
+        mockMvc.perform(get(CONTENT_URL).param("maxBytes", "4"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(header().string("X-Next-Cursor", "4:4"))
+                .andExpect(content().string("Hola"));
+    }
+
+    @Test
+    void getChapterContent_ShouldServeSuffixRanges() throws Exception {
+        when(chapterContentService.getContentLength(1L, 2)).thenReturn(40L);
+        when(chapterContentService.readRange(1L, 2, 36L, 16384)).thenReturn(chunk("Ende", 36, 40, 30));
+
+        mockMvc.perform(get(CONTENT_URL).header(HttpHeaders.RANGE, "bytes=-4"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 36-39/40"))
+                .andExpect(content().string("Ende"));
+    }
+
+    @Test
+    void getChapterContent_ShouldRejectRangeEndingBeforeItStarts() throws Exception {
+        when(chapterContentService.getContentLength(1L, 2)).thenReturn(40L);
+
+        mockMvc.perform(get(CONTENT_URL).header(HttpHeaders.RANGE, "bytes=20-10"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */40"));
+        verify(chapterContentService, never()).readRange(any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getChapterContent_ShouldRejectRangeStartingPastTheEnd() throws Exception {
+        when(chapterContentService.readRange(1L, 2, 50L, 16384)).thenReturn(chunk("", 40, 40, 30));
+
+        mockMvc.perform(get(CONTENT_URL).header(HttpHeaders.RANGE, "bytes=50-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */40"));
+    }
+
+    @Test
+    void getChapterContent_ShouldRejectMalformedRanges() throws Exception {
+        when(chapterContentService.getContentLength(1L, 2)).thenReturn(40L);
+
+        for (String range : List.of("bytes=x-3", "bytes=5", "bytes=-0", "bytes=0-1,5-6", "bytes=--3")) {
+            mockMvc.perform(get(CONTENT_URL).header(HttpHeaders.RANGE, range))
+                    .andExpect(status().isRequestedRangeNotSatisfiable())
+                    .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */40"));
+        }
+        verify(chapterContentService, never()).readRange(any(), any(), anyLong(), anyInt());
+        verify(chapterContentService, never()).readChunk(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getChapterContent_ShouldIgnoreRangesInOtherUnits() throws Exception {
+        when(chapterContentService.readChunk(1L, 2, null, 16384)).thenReturn(chunk("Hola", 0, 4, 4));
+
+        mockMvc.perform(get(CONTENT_URL).header(HttpHeaders.RANGE, "lines=0-3"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Hola"));
+    }
+
+    @Test
+    void getChapterContent_ShouldReturnBadRequestForMalformedCursor() throws Exception {
+        when(chapterContentService.readChunk(1L, 2, "oops", 16384))
+            .thenThrow(new InvalidCursorException("Malformed cursor: oops"));
+
+        mockMvc.perform(get(CONTENT_URL).param("cursor", "oops"))
+                .andExpect(status().isBadRequest());
+    }
+}
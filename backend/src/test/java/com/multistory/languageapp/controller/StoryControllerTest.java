@@ -1,17 +1,28 @@
 package com.multistory.languageapp.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.multistory.languageapp.config.SecurityConfig;
+import com.multistory.languageapp.dto.CursorPage;
+import com.multistory.languageapp.dto.ResourceVersion;
 import com.multistory.languageapp.dto.StoryDTO;
+import com.multistory.languageapp.dto.StorySummaryDTO;
 import com.multistory.languageapp.dto.StoryCreateRequest;
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.service.PrecompressedBody;
+import com.multistory.languageapp.service.StoryResponse;
 import com.multistory.languageapp.service.StoryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -20,11 +31,14 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(StoryController.class)
+@Import(SecurityConfig.class)
 class StoryControllerTest {
 
     @Autowired
@@ -33,10 +47,15 @@ class StoryControllerTest {
     @MockBean
     private StoryService storyService;
 
+    // @EnableJpaAuditing on the application class needs a mapping context the web slice does not build
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     private StoryDTO sampleStoryDTO;
+    private StorySummaryDTO sampleSummary;
     private StoryCreateRequest sampleCreateRequest;
 
     @BeforeEach
@@ -53,6 +72,10 @@ class StoryControllerTest {
         sampleStoryDTO.setTags(Arrays.asList("romance", "daily_conversation"));
         sampleStoryDTO.setCreatedAt(LocalDateTime.now());
 
+        sampleSummary = new StorySummaryDTO(1L, "Café Love Story", "en", DifficultyLevel.INTERMEDIATE,
+                                            25, 45, "Emma walked into the small café...", LocalDateTime.now());
+        sampleSummary.setTags(Arrays.asList("romance", "daily_conversation"));
+
         sampleCreateRequest = new StoryCreateRequest();
         sampleCreateRequest.setTitle("New Story");
         sampleCreateRequest.setContent("Once upon a time...");
@@ -64,8 +87,8 @@ class StoryControllerTest {
     @Test
     void getAllStories_ShouldReturnPageOfStories() throws Exception {
         // Given
-        List<StoryDTO> stories = Arrays.asList(sampleStoryDTO);
-        Page<StoryDTO> page = new PageImpl<>(stories);
+        List<StorySummaryDTO> stories = Arrays.asList(sampleSummary);
+        Page<StorySummaryDTO> page = new PageImpl<>(stories, PageRequest.of(0, 20), stories.size());
         when(storyService.getStoriesWithFilters(any(), any(), any(), any(Pageable.class)))
                 .thenReturn(page);
 
@@ -81,10 +104,31 @@ class StoryControllerTest {
                 .andExpect(jsonPath("$.content[0].language").value("en"));
     }
 
+    @Test
+    void getAllStories_ShouldReturnCursorPage_WhenCursorParamPresent() throws Exception {
+        // Given
+        CursorPage<StorySummaryDTO> page = new CursorPage<>(Arrays.asList(sampleSummary), "next-token", null);
+        when(storyService.getStoriesAfterCursor(eq("en"), isNull(), isNull(), eq(""), eq(20), eq(false)))
+                .thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/api/stories")
+                .param("language", "en")
+                .param("cursor", "")
+                .param("size", "20")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
     @Test
     void getStoryById_ShouldReturnStory_WhenStoryExists() throws Exception {
         // Given
-        when(storyService.getStoryById(1L)).thenReturn(sampleStoryDTO);
+        when(storyService.getStoryResponse(1L)).thenReturn(
+            new StoryResponse(PrecompressedBody.of(objectMapper.writeValueAsBytes(sampleStoryDTO)), null));
 
         // When & Then
         mockMvc.perform(get("/api/stories/1")
@@ -96,6 +140,39 @@ class StoryControllerTest {
                 .andExpect(jsonPath("$.difficulty").value("INTERMEDIATE"));
     }
 
+    @Test
+    void getStoryById_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        // Given
+        ResourceVersion version = ResourceVersion.of("story-1", LocalDateTime.of(2024, 5, 1, 12, 0));
+        when(storyService.getStoryVersion(1L)).thenReturn(version);
+
+        // When & Then
+        mockMvc.perform(get("/api/stories/1")
+                .header(HttpHeaders.IF_NONE_MATCH, version.getETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, version.getETag()));
+        verify(storyService, never()).getStoryResponse(any());
+    }
+
+    @Test
+    void getStoryById_ShouldReturnGzip_WhenClientAcceptsIt() throws Exception {
+        // Given
+        sampleStoryDTO.setContent("Once upon a time in a small café. ".repeat(100));
+        PrecompressedBody body = PrecompressedBody.of(objectMapper.writeValueAsBytes(sampleStoryDTO));
+        ResourceVersion version = ResourceVersion.of("story-1", LocalDateTime.of(2024, 5, 1, 12, 0));
+        when(storyService.getStoryVersion(1L)).thenReturn(version);
+        when(storyService.getStoryResponse(1L)).thenReturn(new StoryResponse(body, version));
+
+        // When & Then
+        mockMvc.perform(get("/api/stories/1")
+                .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, version.derive("gzip").getETag()))
+                .andExpect(content().bytes(body.getGzip()));
+    }
+
     @Test
     void createStory_ShouldReturnCreatedStory_WhenValidRequest() throws Exception {
         // Given
@@ -146,7 +223,7 @@ class StoryControllerTest {
     @Test
     void getStoriesByLanguage_ShouldReturnStoriesForLanguage() throws Exception {
         // Given
-        List<StoryDTO> stories = Arrays.asList(sampleStoryDTO);
+        List<StorySummaryDTO> stories = Arrays.asList(sampleSummary);
         when(storyService.getStoriesByLanguage("en")).thenReturn(stories);
 
         // When & Then
@@ -160,7 +237,7 @@ class StoryControllerTest {
     @Test
     void getPopularStories_ShouldReturnPopularStories() throws Exception {
         // Given
-        List<StoryDTO> popularStories = Arrays.asList(sampleStoryDTO);
+        List<StorySummaryDTO> popularStories = Arrays.asList(sampleSummary);
         when(storyService.getPopularStories(10)).thenReturn(popularStories);
 
         // When & Then
@@ -175,8 +252,9 @@ class StoryControllerTest {
     @Test
     void searchStories_ShouldReturnMatchingStories() throws Exception {
         // Given
-        List<StoryDTO> searchResults = Arrays.asList(sampleStoryDTO);
-        when(storyService.searchStories("café")).thenReturn(searchResults);
+        List<StorySummaryDTO> searchResults = Arrays.asList(sampleSummary);
+        when(storyService.searchStories(eq("café"), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(searchResults));
 
         // When & Then
         mockMvc.perform(get("/api/stories/search")
@@ -184,9 +262,33 @@ class StoryControllerTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
+                .andExpect(header().string("X-Total-Count", "1"))
                 .andExpect(jsonPath("$[0].title").value("Café Love Story"));
     }
 
+    @Test
+    void searchStories_ShouldCapPageSize() throws Exception {
+        when(storyService.searchStories(eq("café"), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        mockMvc.perform(get("/api/stories/search")
+                .param("keyword", "café")
+                .param("size", "100000"))
+                .andExpect(status().isOk());
+
+        verify(storyService).searchStories(eq("café"), isNull(), eq(PageRequest.of(0, StoryController.MAX_PAGE_SIZE)));
+    }
+
+    @Test
+    void searchStories_ShouldRejectNegativePage() throws Exception {
+        mockMvc.perform(get("/api/stories/search")
+                .param("keyword", "café")
+                .param("page", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verify(storyService, never()).searchStories(any(), any(), any());
+    }
+
     @Test
     void healthCheck_ShouldReturnOk() throws Exception {
         // When & Then
@@ -0,0 +1,142 @@
+package com.multistory.languageapp.repository;
+
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.entity.UserProgress;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every UserProgressRepository query, captures the SQL Hibernate sends and EXPLAINs it
+ * on H2. Fails when any statement reads user_progress (or its vocabulary table) with a full
+ * table scan, so a new query pattern must come with an index.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.multistory.languageapp.repository.UserProgressQueryPlanTest$RecordingInspector"
+})
+class UserProgressQueryPlanTest {
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Story story;
+
+    public static class RecordingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        story = entityManager.persist(new Story("Story", "Content", "en", DifficultyLevel.BEGINNER));
+        Story other = entityManager.persist(new Story("Other", "Content", "en", DifficultyLevel.BEGINNER));
+        for (long userId = 1; userId <= 3; userId++) {
+            UserProgress progress = new UserProgress(userId, story);
+            progress.setLastAccessed(LocalDateTime.now().minusDays(userId));
+            progress.addVocabularyWord("hola");
+            entityManager.persist(progress);
+            entityManager.persist(new UserProgress(userId, other));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void repositoryQueries_ShouldNotScanWholeTables() {
+        Long storyId = story.getId();
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByUserId", () -> userProgressRepository.findByUserId(1L));
+        queries.put("findByUserIdAndStoryId", () -> userProgressRepository.findByUserIdAndStoryId(1L, storyId)
+            .ifPresent(progress -> progress.getVocabularyLearned().size()));
+        queries.put("findByUserIdAndStoryIdIn", () -> userProgressRepository.findByUserIdAndStoryIdIn(1L, List.of(storyId)));
+        queries.put("findByUserIdAndIsCompletedTrue", () -> userProgressRepository.findByUserIdAndIsCompletedTrue(1L));
+        queries.put("findInProgressByUserId", () -> userProgressRepository.findInProgressByUserId(1L));
+        queries.put("aggregateStatistics", () -> userProgressRepository.aggregateStatistics(List.of(1L, 2L)));
+        queries.put("findUserIdsAfter", () -> userProgressRepository.findUserIdsAfter(0L, PageRequest.of(0, 10)));
+        queries.put("findByUserIdAndLastAccessedAfter", () ->
+            userProgressRepository.findByUserIdAndLastAccessedAfterOrderByLastAccessedDesc(1L, now.minusDays(7)));
+        queries.put("findVocabularyLearnedByUserId", () -> userProgressRepository.findVocabularyLearnedByUserId(1L));
+        queries.put("countVocabularyLearnedByUserId", () -> userProgressRepository.countVocabularyLearnedByUserId(1L));
+        queries.put("findByStoryIdAndIsCompletedTrue", () -> userProgressRepository.findByStoryIdAndIsCompletedTrue(storyId));
+        queries.put("getAverageCompletionRateForStory", () -> userProgressRepository.getAverageCompletionRateForStory(storyId));
+        queries.put("findStaleProgress", () -> userProgressRepository.findStaleProgress(1L, now));
+        queries.put("findCurrentActiveStory", () -> userProgressRepository.findCurrentActiveStory(1L));
+        queries.put("addTimeSpent", () -> userProgressRepository.addTimeSpent(1L, storyId, 30));
+        queries.put("addPronunciationScore", () -> userProgressRepository.addPronunciationScore(1L, storyId, 80.0));
+        queries.put("countByUserId", () -> userProgressRepository.countByUserId(3L));
+        queries.put("findIdsByUserId", () -> userProgressRepository.findIdsByUserId(3L, PageRequest.of(0, 10)));
+        List<Long> ids = userProgressRepository.findIdsByUserId(3L, PageRequest.of(0, 10));
+        queries.put("deleteVocabularyLearnedByProgressIds", () -> userProgressRepository.deleteVocabularyLearnedByProgressIds(ids));
+        queries.put("deleteByIds", () -> userProgressRepository.deleteByIds(ids));
+
+        List<String> failures = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            RecordingInspector.STATEMENTS.clear();
+            query.run();
+            assertFalse(RecordingInspector.STATEMENTS.isEmpty(), name + " sent no SQL");
+            for (String sql : RecordingInspector.STATEMENTS) {
+                String plan = explain(sql);
+                if (plan != null && plan.contains("tableScan")) {
+                    failures.add(name + ":\n  " + sql + "\n  " + plan);
+                }
+            }
+        });
+        assertTrue(failures.isEmpty(), "Full table scans:\n" + String.join("\n", failures));
+    }
+
+    // Plan of a captured statement with every parameter bound to null; null for inserts
+    private String explain(String sql) {
+        String verb = sql.stripLeading().toLowerCase();
+        if (!verb.startsWith("select") && !verb.startsWith("update") && !verb.startsWith("delete")) {
+            return null;
+        }
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    StringBuilder text = new StringBuilder();
+                    while (plan.next()) {
+                        text.append(plan.getString(1));
+                    }
+                    return text.toString();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.multistory.languageapp.repository;
+
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.entity.UserProgress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class UserProgressRepositoryTest {
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Story story;
+
+    @BeforeEach
+    void setUp() {
+        story = entityManager.persist(new Story("Story", "Content", "en", DifficultyLevel.BEGINNER));
+        UserProgress progress = new UserProgress(1L, story);
+        progress.setTimeSpent(100);
+        entityManager.persistAndFlush(progress);
+    }
+
+    @Test
+    void addTimeSpent_ShouldIncrementInPlace() {
+        assertEquals(1, userProgressRepository.addTimeSpent(1L, story.getId(), 30));
+        assertEquals(1, userProgressRepository.addTimeSpent(1L, story.getId(), 15));
+
+        assertEquals(145, reload().getTimeSpent());
+    }
+
+    @Test
+    void addPronunciationScore_ShouldKeepRunningMean() {
+        userProgressRepository.addPronunciationScore(1L, story.getId(), 80.0);
+        userProgressRepository.addPronunciationScore(1L, story.getId(), 60.0);
+        userProgressRepository.addPronunciationScore(1L, story.getId(), 100.0);
+
+        UserProgress progress = reload();
+        assertEquals(3, progress.getPronunciationAttempts());
+        assertEquals(80.0, progress.getAvgPronunciationScore(), 0.0001);
+    }
+
+    @Test
+    void addTimeSpent_ShouldReportMissingRow() {
+        assertEquals(0, userProgressRepository.addTimeSpent(2L, story.getId(), 30));
+    }
+
+    private UserProgress reload() {
+        return userProgressRepository.findByUserIdAndStoryId(1L, story.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,133 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.ChapterContentChunk;
+import com.multistory.languageapp.entity.Chapter;
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.exception.InvalidCursorException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(ChapterContentService.class)
+class ChapterContentServiceTest {
+
+    // 1-, 2-, 3- and 4-byte characters (the last one a surrogate pair in Java)
+    private static final String CONTENT = "Añ€😀 café\nZweite Zeile: Grüße 😀😀\nFin.";
+
+    @Autowired
+    private ChapterContentService chapterContentService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long storyId;
+
+    @BeforeEach
+    void setUp() {
+        Story story = entityManager.persist(new Story("Story", "Content", "en", DifficultyLevel.BEGINNER));
+        entityManager.persistAndFlush(new Chapter("One", 1, CONTENT, story));
+        storyId = story.getId();
+    }
+
+    private static String decodeStrictly(byte[] data) throws CharacterCodingException {
+        return StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT)
+            .decode(ByteBuffer.wrap(data))
+            .toString();
+    }
+
+    @Test
+    void readChunk_ShouldFollowCursorsWithoutSplittingCharacters() throws Exception {
+        byte[] expected = CONTENT.getBytes(StandardCharsets.UTF_8);
+        for (int maxBytes = 1; maxBytes <= 8; maxBytes++) {
+            ByteArrayOutputStream read = new ByteArrayOutputStream();
+            String cursor = null;
+            int chunks = 0;
+            do {
+                ChapterContentChunk chunk = chapterContentService.readChunk(storyId, 1, cursor, maxBytes);
+                assertEquals(read.size(), chunk.getStart());
+                assertEquals(expected.length, chunk.getTotalBytes());
+                decodeStrictly(chunk.getData());
+                read.write(chunk.getData());
+                cursor = chunk.getNextCursor();
+                assertTrue(++chunks <= expected.length, "no progress with maxBytes " + maxBytes);
+            } while (cursor != null);
+            assertArrayEquals(expected, read.toByteArray(), "maxBytes " + maxBytes);
+        }
+    }
+
+    @Test
+    void readChunk_ShouldCutAtLastLineBreak() throws Exception {
+        ChapterContentChunk first = chapterContentService.readChunk(storyId, 1, null, 24);
+
+        assertEquals("Añ€😀 café\n", decodeStrictly(first.getData()));
+        ChapterContentChunk second = chapterContentService.readChunk(storyId, 1, first.getNextCursor(), 1024);
+        assertEquals("Zweite Zeile: Grüße 😀😀\nFin.", decodeStrictly(second.getData()));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void readRange_ShouldSnapToTheNextCharacterBoundary() throws Exception {
+        // Byte 4 is inside "€" (bytes 3-5), so the range starts at "😀" (byte 6)
+        ChapterContentChunk chunk = chapterContentService.readRange(storyId, 1, 4, 4);
+
+        assertEquals(6, chunk.getStart());
+        assertEquals("😀", decodeStrictly(chunk.getData()));
+        ChapterContentChunk next = chapterContentService.readChunk(storyId, 1, chunk.getNextCursor(), 6);
+        assertEquals(" café", decodeStrictly(next.getData()));
+    }
+
+    @Test
+    void readRange_ShouldStartAtTheFirstCharacterBoundaryAtOrAfterEveryOffset() throws Exception {
+        byte[] expected = CONTENT.getBytes(StandardCharsets.UTF_8);
+        for (int start = 0; start < expected.length; start++) {
+            int boundary = start;
+            while ((expected[boundary] & 0xC0) == 0x80) {
+                boundary++;
+            }
+
+            ChapterContentChunk chunk = chapterContentService.readRange(storyId, 1, start, 8);
+
+            assertEquals(boundary, chunk.getStart(), "start " + start);
+            decodeStrictly(chunk.getData());
+            assertArrayEquals(Arrays.copyOfRange(expected, boundary, (int) chunk.getEnd()), chunk.getData());
+            if (chunk.getNextCursor() != null) {
+                ChapterContentChunk next = chapterContentService.readChunk(storyId, 1, chunk.getNextCursor(), 8);
+                assertEquals(chunk.getEnd(), next.getStart(), "cursor after start " + start);
+            }
+        }
+    }
+
+    @Test
+    void readRange_ShouldReturnEmptyChunkPastTheEnd() {
+        long total = CONTENT.getBytes(StandardCharsets.UTF_8).length;
+
+        ChapterContentChunk chunk = chapterContentService.readRange(storyId, 1, total + 10, 16);
+
+        assertEquals(0, chunk.getData().length);
+        assertEquals(total, chunk.getStart());
+        assertEquals(total, chapterContentService.getContentLength(storyId, 1));
+    }
+
+    @Test
+    void readChunk_ShouldRejectMalformedCursors() {
+        assertThrows(InvalidCursorException.class, () -> chapterContentService.readChunk(storyId, 1, "12", 16));
+        assertThrows(InvalidCursorException.class, () -> chapterContentService.readChunk(storyId, 1, "a:b", 16));
+        assertThrows(InvalidCursorException.class, () -> chapterContentService.readChunk(storyId, 1, "2:5", 16));
+    }
+}
@@ -0,0 +1,83 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.QuestionType;
+import com.multistory.languageapp.entity.QuizQuestion;
+import com.multistory.languageapp.service.ClozeGenerator.Vocabulary;
+import com.multistory.languageapp.service.ClozeGenerator.VocabularyBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClozeGeneratorTest {
+
+    private static final String CHAPTER =
+        "Maria walked through the quiet garden every morning. " +
+        "The garden smelled of roses after the rain. " +
+        "Her brother painted the wooden fence near the garden. " +
+        "Later they cooked dinner together in the small kitchen.";
+
+    private static final String OTHER =
+        "The market opened early and every merchant shouted prices. " +
+        "Travelers carried baskets, blankets and lanterns across the bridge. " +
+        "A musician played songs beside the fountain while children danced.";
+
+    private final ClozeGenerator generator = new ClozeGenerator();
+
+    private Vocabulary vocabulary() {
+        VocabularyBuilder builder = new VocabularyBuilder();
+        builder.add(generator.countTerms(CHAPTER, "en"));
+        builder.add(generator.countTerms(OTHER, "en"));
+        return builder.build();
+    }
+
+    @Test
+    void generate_ShouldBlankTargetWordsAndKeepAnswerKeys() {
+        List<QuizQuestion> questions = generator.generate(CHAPTER, "en", DifficultyLevel.BEGINNER, vocabulary(), 4);
+
+        assertFalse(questions.isEmpty());
+        for (QuizQuestion question : questions) {
+            assertTrue(question.getQuestion().contains(ClozeGenerator.BLANK));
+            if (question.getType() == QuestionType.FILL_BLANK) {
+                assertNotNull(question.getCorrectText());
+                assertFalse(question.getQuestion().contains(" " + question.getCorrectText() + " "));
+            } else {
+                assertEquals(QuestionType.MULTIPLE_CHOICE, question.getType());
+                assertEquals(4, question.getOptions().size());
+                assertEquals(4, question.getOptions().stream().distinct().count());
+            }
+        }
+    }
+
+    @Test
+    void generate_ShouldAskAboutRarerWordsForHarderStories() {
+        Vocabulary vocabulary = vocabulary();
+        QuizQuestion beginner = generator.generate(CHAPTER, "en", DifficultyLevel.BEGINNER, vocabulary, 1).get(0);
+        QuizQuestion proficient = generator.generate(CHAPTER, "en", DifficultyLevel.PROFICIENT, vocabulary, 1).get(0);
+
+        assertTrue(vocabulary.percentile(beginner.getCorrectText()) < vocabulary.percentile(proficient.getCorrectText()));
+    }
+
+    @Test
+    void generate_ShouldBeDeterministic() {
+        Vocabulary vocabulary = vocabulary();
+        List<QuizQuestion> first = generator.generate(CHAPTER, "en", DifficultyLevel.ADVANCED, vocabulary, 4);
+        List<QuizQuestion> second = generator.generate(CHAPTER, "en", DifficultyLevel.ADVANCED, vocabulary, 4);
+
+        assertEquals(first.stream().map(QuizQuestion::getQuestion).toList(),
+                     second.stream().map(QuizQuestion::getQuestion).toList());
+        assertEquals(first.stream().map(QuizQuestion::getOptions).toList(),
+                     second.stream().map(QuizQuestion::getOptions).toList());
+    }
+
+    @Test
+    void sourceHash_ShouldChangeWithTextAndDifficulty() {
+        String hash = ClozeGenerator.sourceHash(CHAPTER, "en", DifficultyLevel.BEGINNER);
+
+        assertEquals(hash, ClozeGenerator.sourceHash(CHAPTER, "en", DifficultyLevel.BEGINNER));
+        assertNotEquals(hash, ClozeGenerator.sourceHash(CHAPTER + " ", "en", DifficultyLevel.BEGINNER));
+        assertNotEquals(hash, ClozeGenerator.sourceHash(CHAPTER, "en", DifficultyLevel.ADVANCED));
+    }
+}
@@ -0,0 +1,54 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.QuestionType;
+import com.multistory.languageapp.entity.QuizQuestion;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledQuizTest {
+
+    private static QuizQuestion question(long id, QuestionType type, List<String> options, Integer correctOption,
+                                         String correctText, int points) {
+        QuizQuestion question = new QuizQuestion(null, null, type, "Question " + id);
+        question.setId(id);
+        question.setOptions(options);
+        question.setCorrectOption(correctOption);
+        question.setCorrectText(correctText);
+        question.setPoints(points);
+        return question;
+    }
+
+    private final CompiledQuiz quiz = CompiledQuiz.compile(List.of(
+        question(30L, QuestionType.MULTIPLE_CHOICE, List.of("Adventure", "Romance", "Mystery"), 2, null, 10),
+        question(10L, QuestionType.FILL_BLANK, List.of(), null, "completed", 15),
+        question(20L, QuestionType.TRUE_FALSE, List.of("True", "False"), 1, null, 5)
+    ), "[]".getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void positionOf_ShouldMapQuestionIdsToQuizOrder() {
+        assertEquals(0, quiz.positionOf(30L));
+        assertEquals(1, quiz.positionOf(10L));
+        assertEquals(2, quiz.positionOf(20L));
+        assertEquals(-1, quiz.positionOf(99L));
+        assertEquals(30, quiz.getMaxScore());
+    }
+
+    @Test
+    void isCorrect_ShouldCheckAnswersAgainstTheKey() {
+        assertTrue(quiz.isCorrectOption(0, 2));
+        assertFalse(quiz.isCorrectOption(0, 0));
+        assertTrue(quiz.isCorrectText(0, "mystery"));
+
+        assertTrue(quiz.isCorrectText(1, "  Completed "));
+        assertFalse(quiz.isCorrectText(1, "complete"));
+        assertFalse(quiz.isCorrectOption(1, -1));
+
+        assertTrue(quiz.isCorrectBoolean(2, false));
+        assertFalse(quiz.isCorrectBoolean(2, true));
+        assertTrue(quiz.isCorrectOption(2, 1));
+    }
+}
@@ -0,0 +1,75 @@
+package com.multistory.languageapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.multistory.languageapp.exception.IdempotencyKeyReusedException;
+import com.multistory.languageapp.exception.InvalidRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyStore idempotencyStore;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new IdempotencyStore();
+        ReflectionTestUtils.setField(idempotencyStore, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyStore, "maxEntries", 2);
+        ReflectionTestUtils.setField(idempotencyStore, "ttlMinutes", 60L);
+        idempotencyStore.initEntries();
+    }
+
+    @Test
+    void execute_ShouldReplayResponseForSameKey() {
+        IdempotencyStore.Outcome<Integer> first = idempotencyStore.execute("user:1", "key-1", List.of(1, "a"), calls::incrementAndGet);
+        IdempotencyStore.Outcome<Integer> retry = idempotencyStore.execute("user:1", "key-1", List.of(1, "a"), calls::incrementAndGet);
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(1, retry.response());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_ShouldRejectKeyReusedForDifferentRequest() {
+        idempotencyStore.execute("user:1", "key-1", List.of(1, "a"), calls::incrementAndGet);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+            () -> idempotencyStore.execute("user:1", "key-1", List.of(2, "a"), calls::incrementAndGet));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_ShouldRunAgainAfterFailure() {
+        assertThrows(IllegalStateException.class, () -> idempotencyStore.execute("user:1", "key-1", List.of(1),
+            () -> { throw new IllegalStateException("boom"); }));
+
+        assertFalse(idempotencyStore.execute("user:1", "key-1", List.of(1), calls::incrementAndGet).replayed());
+    }
+
+    @Test
+    void execute_ShouldScopeKeysAndEvictOldest() {
+        idempotencyStore.execute("user:1", "key", List.of(1), calls::incrementAndGet);
+        idempotencyStore.execute("user:2", "key", List.of(1), calls::incrementAndGet);
+        idempotencyStore.execute("user:3", "key", List.of(1), calls::incrementAndGet);
+
+        assertEquals(3, calls.get());
+        assertEquals(2, idempotencyStore.size());
+        assertFalse(idempotencyStore.execute("user:1", "key", List.of(1), calls::incrementAndGet).replayed());
+    }
+
+    @Test
+    void execute_ShouldRejectOverlongKeys() {
+        assertThrows(InvalidRequestException.class,
+            () -> idempotencyStore.execute("user:1", "k".repeat(256), List.of(1), calls::incrementAndGet));
+        assertEquals(0, calls.get());
+    }
+}
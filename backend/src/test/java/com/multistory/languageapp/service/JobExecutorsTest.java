@@ -0,0 +1,62 @@
+package com.multistory.languageapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JobExecutorsTest {
+
+    @Test
+    void newWorkerPool_ShouldCapWorkersAcrossAllPools() throws Exception {
+        JobExecutors jobExecutors = new JobExecutors();
+        ReflectionTestUtils.setField(jobExecutors, "environment", new MockEnvironment());
+        ReflectionTestUtils.setField(jobExecutors, "dataSource", mock(DataSource.class));
+        ReflectionTestUtils.setField(jobExecutors, "connectionShare", 0.2);
+        jobExecutors.init();
+
+        // 10 connections (not Hikari) x 0.2 = 2 workers in total, even though each pool asks for 2
+        ExecutorService first = jobExecutors.newWorkerPool("first", 2);
+        ExecutorService second = jobExecutors.newWorkerPool("second", 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable task = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        };
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(first.submit(task));
+                futures.add(second.submit(task));
+            }
+            Thread.sleep(200);
+            assertEquals(2, running.get());
+            release.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(2, maxRunning.get());
+        } finally {
+            first.shutdownNow();
+            second.shutdownNow();
+        }
+    }
+}
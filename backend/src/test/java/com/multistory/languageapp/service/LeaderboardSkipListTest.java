@@ -0,0 +1,66 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.service.LeaderboardSkipList.Score;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardSkipListTest {
+
+    @Test
+    void put_ShouldOrderByAverageThenStoriesThenUserId() {
+        LeaderboardSkipList ranking = new LeaderboardSkipList();
+        ranking.put(new Score(1L, 100, 2));  // 50%
+        ranking.put(new Score(2L, 160, 2));  // 80%
+        ranking.put(new Score(3L, 200, 4));  // 50%, more stories
+        ranking.put(new Score(4L, 50, 1));   // 50%, fewest stories
+
+        assertEquals(List.of(2L, 3L, 1L, 4L), ranking.range(0, 10).stream().map(Score::userId).toList());
+        assertEquals(3, ranking.rankOf(1L));
+        assertEquals(0, ranking.rankOf(99L));
+    }
+
+    @Test
+    void put_ShouldMoveUserWhenScoreChanges() {
+        LeaderboardSkipList ranking = new LeaderboardSkipList();
+        ranking.put(new Score(1L, 10, 1));
+        ranking.put(new Score(2L, 20, 1));
+        ranking.put(new Score(1L, 90, 1));
+
+        assertEquals(2, ranking.size());
+        assertEquals(1, ranking.rankOf(1L));
+        assertEquals(2, ranking.rankOf(2L));
+    }
+
+    @Test
+    void rankAndRange_ShouldMatchSortedOrderAfterRandomUpdates() {
+        Random random = new Random(42);
+        LeaderboardSkipList ranking = new LeaderboardSkipList();
+        TreeMap<Long, Score> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            long userId = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                ranking.remove(userId);
+                expected.remove(userId);
+            } else {
+                Score score = new Score(userId, random.nextInt(300), 1 + random.nextInt(3));
+                ranking.put(score);
+                expected.put(userId, score);
+            }
+        }
+
+        List<Score> sorted = new ArrayList<>(expected.values());
+        Collections.sort(sorted);
+        assertEquals(sorted, ranking.range(0, sorted.size()));
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i + 1, ranking.rankOf(sorted.get(i).userId()));
+        }
+        assertEquals(sorted.subList(100, 110), ranking.range(100, 10));
+    }
+}
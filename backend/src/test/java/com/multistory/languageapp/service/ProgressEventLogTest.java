@@ -0,0 +1,84 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.entity.UserProgress;
+import com.multistory.languageapp.repository.ProgressLogRepository;
+import com.multistory.languageapp.repository.UserProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "progress.event-log.enabled=true"
+})
+@Import(ProgressEventLog.class)
+class ProgressEventLogTest {
+
+    @Autowired
+    private ProgressEventLog progressEventLog;
+
+    @Autowired
+    private ProgressLogRepository progressLogRepository;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private UserStatisticsService userStatisticsService;
+
+    private Story story;
+
+    @BeforeEach
+    void setUp() {
+        story = entityManager.persist(new Story("Story", "Content", "en", DifficultyLevel.BEGINNER));
+        UserProgress progress = new UserProgress(1L, story);
+        progress.setTimeSpent(100);
+        entityManager.persistAndFlush(progress);
+    }
+
+    @Test
+    void compact_ShouldFoldCounterEventsIntoProgressRow() {
+        progressEventLog.recordCounters(1L, story.getId(), 30, List.of(80.0));
+        progressEventLog.recordCounters(1L, story.getId(), 15, List.of(60.0));
+        progressEventLog.recordChapterCompleted(1L, story.getId(), 2);
+
+        progressEventLog.compact();
+        entityManager.clear();
+
+        UserProgress progress = userProgressRepository.findByUserIdAndStoryId(1L, story.getId()).orElseThrow();
+        assertEquals(145, progress.getTimeSpent());
+        assertEquals(2, progress.getPronunciationAttempts());
+        assertEquals(70.0, progress.getAvgPronunciationScore(), 0.0001);
+        assertTrue(progressLogRepository.findPendingForUpdate(PageRequest.of(0, 10)).isEmpty());
+        assertEquals(5, progressLogRepository.count());
+        verify(userStatisticsService).recordTimeSpent(1L, 45L);
+    }
+
+    @Test
+    void discard_ShouldDropOnlyPendingEventsOfTheRow() {
+        progressEventLog.recordCounters(1L, story.getId(), 30, List.of());
+        progressEventLog.recordChapterCompleted(1L, story.getId(), 1);
+
+        progressEventLog.discard(1L, story.getId());
+        progressEventLog.compact();
+        entityManager.clear();
+
+        assertEquals(100, userProgressRepository.findByUserIdAndStoryId(1L, story.getId()).orElseThrow().getTimeSpent());
+        assertEquals(1, progressLogRepository.count());
+    }
+}
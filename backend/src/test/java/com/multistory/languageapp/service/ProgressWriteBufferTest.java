@@ -0,0 +1,131 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.UserProgressDTO;
+import com.multistory.languageapp.dto.UserProgressUpdateRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProgressWriteBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private UserStatisticsService userStatisticsService;
+
+    @Mock
+    private ProgressEventLog progressEventLog;
+
+    @InjectMocks
+    private ProgressWriteBuffer progressWriteBuffer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(progressWriteBuffer, "enabled", true);
+        ReflectionTestUtils.setField(progressWriteBuffer, "maxPending", 100);
+    }
+
+    @Test
+    void update_ShouldMergeHeartbeatsWithoutReloading() {
+        Supplier<UserProgressDTO> loader = mock(Supplier.class);
+        when(loader.get()).thenReturn(persisted());
+
+        progressWriteBuffer.update(1L, 2L, heartbeat(30, 40, "hola"), loader);
+        UserProgressDTO merged = progressWriteBuffer.update(1L, 2L, heartbeat(15, 35, "adiós"), loader);
+
+        assertEquals(145, merged.getTimeSpent());
+        assertEquals(40, merged.getCompletionPercentage());
+        assertEquals(List.of("gracias", "hola", "adiós"), merged.getVocabularyLearned());
+        assertEquals(merged.getTimeSpent(), progressWriteBuffer.find(1L, 2L).orElseThrow().getTimeSpent());
+        verify(loader, times(1)).get();
+    }
+
+    @Test
+    void update_ShouldReturnNull_WhenNoProgressRowExists() {
+        assertNull(progressWriteBuffer.update(1L, 2L, heartbeat(30, 40), () -> null));
+        assertEquals(0, progressWriteBuffer.size());
+    }
+
+    @Test
+    void flush_ShouldWriteOneBatchAndEvictIdleRows() {
+        progressWriteBuffer.update(1L, 2L, heartbeat(30, 40), this::persisted);
+        progressWriteBuffer.update(1L, 2L, heartbeat(30, 50), this::persisted);
+
+        progressWriteBuffer.flush();
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+        assertEquals(1, progressWriteBuffer.size());
+
+        progressWriteBuffer.flush();
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+        assertEquals(0, progressWriteBuffer.size());
+    }
+
+    @Test
+    void flush_ShouldApplyTheRollupChangeAndLogOfFlushedHeartbeats() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        progressWriteBuffer.update(1L, 2L, heartbeat(30, 40), this::persisted);
+        progressWriteBuffer.update(1L, 2L, heartbeat(15, 35), this::persisted);
+
+        progressWriteBuffer.flush();
+        verify(userStatisticsService).recordBufferedChanges(List.of(new UserStatisticsService.BufferedChange(1L, 45, 20)));
+        verify(progressEventLog).recordTimeApplied(argThat(times -> times.size() == 1 && times.get(0).seconds() == 45));
+
+        progressWriteBuffer.update(1L, 2L, heartbeat(10, 50), this::persisted);
+        progressWriteBuffer.flush();
+        verify(userStatisticsService).recordBufferedChanges(List.of(new UserStatisticsService.BufferedChange(1L, 10, 10)));
+    }
+
+    @Test
+    void isHeartbeat_ShouldRejectScoringAndCompletingUpdates() {
+        UserProgressUpdateRequest completing = heartbeat(10, 100);
+        UserProgressUpdateRequest scoring = heartbeat(10, 20);
+        scoring.setQuizScore(80);
+
+        assertTrue(ProgressWriteBuffer.isHeartbeat(heartbeat(10, 20)));
+        assertFalse(ProgressWriteBuffer.isHeartbeat(completing));
+        assertFalse(ProgressWriteBuffer.isHeartbeat(scoring));
+    }
+
+    private UserProgressDTO persisted() {
+        UserProgressDTO dto = new UserProgressDTO();
+        dto.setId(7L);
+        dto.setUserId(1L);
+        dto.setStoryId(2L);
+        dto.setTimeSpent(100);
+        dto.setCompletionPercentage(20);
+        dto.setVocabularyLearned(new ArrayList<>(List.of("gracias")));
+        return dto;
+    }
+
+    private UserProgressUpdateRequest heartbeat(int timeSpent, int completion, String... words) {
+        UserProgressUpdateRequest request = new UserProgressUpdateRequest();
+        request.setTimeSpent(timeSpent);
+        request.setCompletionPercentage(completion);
+        request.setVocabularyLearned(List.of(words));
+        return request;
+    }
+}
@@ -0,0 +1,128 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.QuizQuestionAnalyticsDTO;
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.QuestionType;
+import com.multistory.languageapp.entity.QuizQuestion;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.repository.QuizQuestionStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(QuizAnalyticsService.class)
+class QuizAnalyticsServiceTest {
+
+    private static final int WRONG = QuizSubmission.WRONG;
+    private static final int TEXT_CORRECT = QuizSubmission.TEXT_CORRECT;
+    private static final int UNANSWERED = QuizSubmission.UNANSWERED;
+
+    @Autowired
+    private QuizAnalyticsService quizAnalyticsService;
+
+    @Autowired
+    private QuizQuestionStatsRepository quizQuestionStatsRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long storyId;
+    private CompiledQuiz quiz;
+
+    @BeforeEach
+    void setUp() {
+        Story story = entityManager.persist(new Story("Story", "Content", "en", DifficultyLevel.BEGINNER));
+        QuizQuestion choice = new QuizQuestion(story, null, QuestionType.MULTIPLE_CHOICE, "Pick one");
+        choice.setOptions(List.of("forest", "garden", "window"));
+        choice.setCorrectOption(1);
+        choice.setPoints(10);
+        choice.setPosition(0);
+        QuizQuestion blank = new QuizQuestion(story, null, QuestionType.FILL_BLANK, "Fill in the blank");
+        blank.setCorrectText("completed");
+        blank.setPoints(15);
+        blank.setPosition(1);
+        List<QuizQuestion> questions = List.of(entityManager.persist(choice), entityManager.persist(blank));
+        entityManager.flush();
+        storyId = story.getId();
+        quiz = CompiledQuiz.compile(questions, "[]".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void flush_ShouldAddCountedSubmissionsToTheRollup() {
+        quizAnalyticsService.record(storyId, quiz, new int[] {1, TEXT_CORRECT});
+        quizAnalyticsService.record(storyId, quiz, new int[] {0, WRONG});
+        quizAnalyticsService.flush();
+        quizAnalyticsService.record(storyId, quiz, new int[] {1, UNANSWERED});
+        quizAnalyticsService.record(storyId, quiz, new int[] {2, TEXT_CORRECT});
+        quizAnalyticsService.flush();
+        entityManager.clear();
+
+        List<QuizQuestionAnalyticsDTO> analytics = quizAnalyticsService.getAnalytics(storyId);
+
+        QuizQuestionAnalyticsDTO choice = analytics.get(0);
+        assertEquals(4, choice.getAttempts());
+        assertEquals(2, choice.getCorrectCount());
+        assertEquals(List.of(1L, 2L, 1L), choice.getChoiceCounts());
+        assertEquals(0.5, choice.getDifficultyIndex());
+
+        QuizQuestionAnalyticsDTO blank = analytics.get(1);
+        assertEquals(4, blank.getAttempts());
+        assertEquals(2, blank.getCorrectCount());
+        assertEquals(1, blank.getSkippedCount());
+        assertNull(blank.getChoiceCounts());
+    }
+
+    @Test
+    void reset_ShouldStartARewrittenQuestionOver() {
+        quizAnalyticsService.record(storyId, quiz, new int[] {1, TEXT_CORRECT});
+        quizAnalyticsService.flush();
+        quizAnalyticsService.record(storyId, quiz, new int[] {0, WRONG});
+
+        quizAnalyticsService.reset(List.of(quiz.getQuestionId(0)));
+        quizAnalyticsService.flush();
+        entityManager.clear();
+
+        List<QuizQuestionAnalyticsDTO> analytics = quizAnalyticsService.getAnalytics(storyId);
+        assertEquals(0, analytics.get(0).getAttempts());
+        assertEquals(List.of(0L, 0L, 0L), analytics.get(0).getChoiceCounts());
+        assertEquals(2, analytics.get(1).getAttempts());
+    }
+
+    @Test
+    void flush_ShouldCountOptionsAddedAfterTheRollupWasCreated() {
+        quizAnalyticsService.record(storyId, quiz, new int[] {1, TEXT_CORRECT});
+        quizAnalyticsService.flush();
+
+        QuizQuestion choice = entityManager.find(QuizQuestion.class, quiz.getQuestionId(0));
+        choice.setOptions(new ArrayList<>(List.of("forest", "garden", "window", "river")));
+        entityManager.flush();
+        QuizQuestion blank = entityManager.find(QuizQuestion.class, quiz.getQuestionId(1));
+        CompiledQuiz widened = CompiledQuiz.compile(List.of(choice, blank), "[]".getBytes(StandardCharsets.UTF_8));
+        quizAnalyticsService.record(storyId, widened, new int[] {3, WRONG});
+        quizAnalyticsService.flush();
+        entityManager.clear();
+
+        assertEquals(List.of(0L, 1L, 0L, 1L), quizAnalyticsService.getAnalytics(storyId).get(0).getChoiceCounts());
+    }
+
+    @Test
+    void getAnalytics_ShouldReportQuestionsWithoutAttempts() {
+        List<QuizQuestionAnalyticsDTO> analytics = quizAnalyticsService.getAnalytics(storyId);
+
+        assertEquals(2, analytics.size());
+        assertEquals(0, analytics.get(0).getAttempts());
+        assertEquals(List.of(0L, 0L, 0L), analytics.get(0).getChoiceCounts());
+        assertNull(analytics.get(0).getDifficultyIndex());
+        assertEquals(0, quizQuestionStatsRepository.count());
+    }
+}
@@ -0,0 +1,98 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.QuizQuestion;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.repository.QuizGenerationStateRepository;
+import com.multistory.languageapp.repository.QuizQuestionRepository;
+import com.multistory.languageapp.repository.StoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+// Generation runs on worker threads with their own transactions, so the fixtures are committed
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "quiz.generation.on-startup=false",
+    "quiz.generation.questions-per-source=2"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({QuizGenerationService.class, JobExecutors.class})
+class QuizGenerationServiceTest {
+
+    private static final String TEXT =
+        "Maria walked through the quiet garden every morning. " +
+        "The garden smelled of roses after the rain. " +
+        "Her brother painted the wooden fence near the garden. " +
+        "Later they cooked dinner together in the small kitchen.";
+
+    @Autowired
+    private QuizGenerationService quizGenerationService;
+
+    @Autowired
+    private StoryRepository storyRepository;
+
+    @Autowired
+    private QuizQuestionRepository quizQuestionRepository;
+
+    @Autowired
+    private QuizGenerationStateRepository quizGenerationStateRepository;
+
+    @MockBean
+    private QuizService quizService;
+
+    @MockBean
+    private QuizAnalyticsService quizAnalyticsService;
+
+    @AfterEach
+    void tearDown() {
+        quizQuestionRepository.deleteAll();
+        quizGenerationStateRepository.deleteAll();
+        storyRepository.deleteAll();
+    }
+
+    @Test
+    void generateAll_ShouldKeepQuestionIdsWhenTheTextChanges() {
+        Story story = storyRepository.save(new Story("Garden", TEXT, "en", DifficultyLevel.BEGINNER));
+        quizGenerationService.generateAll();
+        List<QuizQuestion> before = quizQuestionRepository.findByStoryIdWithOptions(story.getId());
+        assertEquals(2, before.size());
+
+        story.setContent(TEXT.replace("garden", "orchard"));
+        storyRepository.save(story);
+        quizGenerationService.generateAll();
+
+        List<QuizQuestion> after = quizQuestionRepository.findByStoryIdWithOptions(story.getId());
+        assertEquals(before.stream().map(QuizQuestion::getId).toList(),
+                     after.stream().map(QuizQuestion::getId).toList());
+        // Only questions whose content changed lose their analytics
+        List<Long> rewritten = new ArrayList<>();
+        for (int i = 0; i < after.size(); i++) {
+            if (!content(before.get(i)).equals(content(after.get(i)))) {
+                rewritten.add(after.get(i).getId());
+            }
+        }
+        assertFalse(rewritten.isEmpty());
+        verify(quizAnalyticsService).reset(rewritten);
+        assertTrue(after.stream().allMatch(question -> story.getContent().contains(
+            question.getQuestion().substring(0, question.getQuestion().indexOf(ClozeGenerator.BLANK)))),
+            "questions carry no prompt of their own");
+    }
+
+    private static List<Object> content(QuizQuestion question) {
+        return Arrays.asList(question.getType(), question.getQuestion(), List.copyOf(question.getOptions()),
+                             question.getCorrectOption(), question.getCorrectText());
+    }
+}
@@ -0,0 +1,76 @@
+package com.multistory.languageapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.multistory.languageapp.repository.QuizQuestionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuizServiceTest {
+
+    @Mock
+    private QuizQuestionRepository quizQuestionRepository;
+
+    @InjectMocks
+    private QuizService quizService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(quizService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(quizService, "maxQuizzes", 10);
+        lenient().when(quizQuestionRepository.findByStoryIdWithOptions(anyLong())).thenReturn(List.of());
+    }
+
+    @Test
+    void getQuiz_ShouldEvictLeastRecentlyUsedQuizzesOverCapacity() {
+        for (long storyId = 1; storyId <= 10; storyId++) {
+            quizService.getQuiz(storyId, null);
+        }
+        quizService.getQuiz(1L, null);
+        quizService.getQuiz(11L, null);
+
+        // Down to 90% of capacity: stories 2 and 3 were used least recently
+        assertEquals(9, quizService.size());
+        quizService.getQuiz(1L, null);
+        quizService.getQuiz(4L, null);
+        verify(quizQuestionRepository, times(1)).findByStoryIdWithOptions(1L);
+        verify(quizQuestionRepository, times(1)).findByStoryIdWithOptions(4L);
+        quizService.getQuiz(2L, null);
+        verify(quizQuestionRepository, times(2)).findByStoryIdWithOptions(2L);
+    }
+
+    @Test
+    void invalidate_ShouldDropTheStoryQuizzes() {
+        quizService.getQuiz(1L, null);
+        quizService.getQuiz(2L, null);
+
+        quizService.invalidate(1L);
+
+        assertEquals(1, quizService.size());
+        quizService.getQuiz(1L, null);
+        verify(quizQuestionRepository, times(2)).findByStoryIdWithOptions(1L);
+    }
+
+    @Test
+    void getQuiz_ShouldNotCacheALoadThatRacedWithAnInvalidation() {
+        when(quizQuestionRepository.findByStoryIdWithOptions(1L)).thenAnswer(invocation -> {
+            quizService.invalidate(1L);
+            return List.of();
+        });
+
+        quizService.getQuiz(1L, null);
+
+        assertEquals(0, quizService.size());
+    }
+}
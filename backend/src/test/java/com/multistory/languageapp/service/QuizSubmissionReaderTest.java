@@ -0,0 +1,74 @@
+package com.multistory.languageapp.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.multistory.languageapp.entity.QuestionType;
+import com.multistory.languageapp.entity.QuizQuestion;
+import com.multistory.languageapp.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizSubmissionReaderTest {
+
+    private static QuizQuestion question(long id, QuestionType type, List<String> options, Integer correctOption,
+                                         String correctText) {
+        QuizQuestion question = new QuizQuestion(null, null, type, "Question " + id);
+        question.setId(id);
+        question.setOptions(options);
+        question.setCorrectOption(correctOption);
+        question.setCorrectText(correctText);
+        question.setPoints(10);
+        return question;
+    }
+
+    private final CompiledQuiz quiz = CompiledQuiz.compile(List.of(
+        question(30L, QuestionType.MULTIPLE_CHOICE, List.of("Adventure", "Romance", "Mystery"), 2, null),
+        question(10L, QuestionType.FILL_BLANK, List.of(), null, "completed"),
+        question(20L, QuestionType.TRUE_FALSE, List.of("True", "False"), 1, null)
+    ), "[]".getBytes(StandardCharsets.UTF_8));
+
+    private final QuizSubmissionReader reader = new QuizSubmissionReader(new JsonFactory(), 5, 20);
+
+    private QuizSubmission read(String json) {
+        return reader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), quiz);
+    }
+
+    @Test
+    void read_ShouldResolveAnswersIntoQuizPositions() {
+        QuizSubmission submission = read("""
+            {"userId": 7, "client": {"app": "web"}, "answers": [
+              {"userAnswer": false, "questionId": 20},
+              {"questionId": 30, "userAnswer": "mystery"},
+              {"questionId": 10, "userAnswer": " Completed "},
+              {"questionId": 30, "userAnswer": 0},
+              {"questionId": 99, "userAnswer": 1}
+            ]}""");
+
+        assertEquals(7L, submission.userId());
+        assertArrayEquals(new int[] {2, QuizSubmission.TEXT_CORRECT, 1}, submission.answers());
+    }
+
+    @Test
+    void read_ShouldMarkAnswersOfTheWrongKind() {
+        QuizSubmission submission = read("""
+            {"answers": [{"questionId": 10, "userAnswer": 1}, {"questionId": 20, "userAnswer": "maybe"}]}""");
+
+        assertNull(submission.userId());
+        assertArrayEquals(new int[] {QuizSubmission.UNANSWERED, QuizSubmission.WRONG, QuizSubmission.WRONG},
+                          submission.answers());
+    }
+
+    @Test
+    void read_ShouldRejectMalformedOrOversizedSubmissions() {
+        assertThrows(InvalidRequestException.class, () -> read("[]"));
+        assertThrows(InvalidRequestException.class, () -> read("{\"answers\": [{\"questionId\": 30,"));
+        assertThrows(InvalidRequestException.class, () -> read("{\"answers\": [1]}"));
+        assertThrows(InvalidRequestException.class,
+            () -> read("{\"answers\": [{\"questionId\": 10, \"userAnswer\": \"" + "x".repeat(21) + "\"}]}"));
+        assertThrows(InvalidRequestException.class, () -> read("{\"answers\": [{}, {}, {}, {}, {}, {}]}"));
+    }
+}
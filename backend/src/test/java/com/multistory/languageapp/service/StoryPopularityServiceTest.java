@@ -0,0 +1,115 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.StorySummaryDTO;
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.entity.UserProgress;
+import com.multistory.languageapp.repository.StoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "story.trending.half-life-hours=1"
+})
+@Import(StoryPopularityService.class)
+class StoryPopularityServiceTest {
+
+    private static final Instant NOW = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Autowired
+    private StoryPopularityService storyPopularityService;
+
+    @Autowired
+    private StoryRepository storyRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private JobExecutors jobExecutors;
+
+    private Long persistStory(String title) {
+        return entityManager.persistAndFlush(new Story(title, "Content", "en", DifficultyLevel.BEGINNER)).getId();
+    }
+
+    private Story reload(Long id) {
+        entityManager.clear();
+        return entityManager.find(Story.class, id);
+    }
+
+    @Test
+    void recordStartAndCompletion_ShouldIncrementCounters() {
+        Long storyId = persistStory("Story");
+
+        storyPopularityService.recordStart(storyId);
+        storyPopularityService.recordStart(storyId);
+        storyPopularityService.recordCompletion(storyId);
+        storyPopularityService.recordStart(null);
+
+        Story story = reload(storyId);
+        assertEquals(2L, story.getStartCount());
+        assertEquals(1L, story.getCompletionCount());
+    }
+
+    @Test
+    void recordCompletion_ShouldRankRecentCompletionsHigherWithoutOverflowing() {
+        Long older = persistStory("Older");
+        Long recent = persistStory("Recent");
+
+        // Years after the epoch with a one-hour half-life: the plain weights would be Infinity
+        for (int i = 0; i < 3; i++) {
+            storyPopularityService.recordCompletion(older, NOW);
+        }
+        storyPopularityService.recordCompletion(recent, NOW.plusSeconds(3 * 3600));
+
+        double olderScore = reload(older).getTrendingScore();
+        double recentScore = reload(recent).getTrendingScore();
+        assertTrue(Double.isFinite(olderScore) && Double.isFinite(recentScore));
+        // Three half-lives later one completion weighs 8, against 3 older ones
+        assertEquals(Math.log(8.0 / 3.0), recentScore - olderScore, 1e-6);
+
+        List<Long> trending = storyRepository.findTrendingStorySummaries(Pageable.ofSize(2)).stream()
+            .map(StorySummaryDTO::getId)
+            .toList();
+        assertEquals(List.of(recent, older), trending);
+    }
+
+    @Test
+    void backfill_ShouldSeedCountersFromExistingProgress() {
+        Long seeded = persistStory("Seeded");
+        Long recorded = persistStory("Recorded");
+        Long untouched = persistStory("Untouched");
+        Story story = entityManager.find(Story.class, seeded);
+        for (long userId = 1; userId <= 3; userId++) {
+            UserProgress progress = new UserProgress(userId, story);
+            progress.setIsCompleted(userId <= 2);
+            progress.setLastAccessed(LocalDateTime.ofInstant(NOW.plusSeconds(userId * 3600), ZoneId.systemDefault()));
+            entityManager.persist(progress);
+        }
+        entityManager.flush();
+        storyPopularityService.recordCompletion(recorded, NOW.plusSeconds(3600));
+        storyPopularityService.recordCompletion(recorded, NOW.plusSeconds(2 * 3600));
+
+        assertEquals(1, storyPopularityService.backfill());
+
+        Story result = reload(seeded);
+        assertEquals(3L, result.getStartCount());
+        assertEquals(2L, result.getCompletionCount());
+        // Same score as if both completions had been recorded live
+        assertEquals(reload(recorded).getTrendingScore(), result.getTrendingScore(), 1e-9);
+        assertEquals(0L, reload(untouched).getStartCount());
+    }
+}
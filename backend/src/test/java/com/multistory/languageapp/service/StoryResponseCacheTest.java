@@ -0,0 +1,106 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.ResourceVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoryResponseCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StoryResponseCache cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new StoryResponseCache(meterRegistry, 250);
+    }
+
+    // Bodies stay below the gzip threshold, so a response takes exactly its length in bytes
+    private Supplier<StoryResponse> loader(int bytes) {
+        return () -> {
+            loads.incrementAndGet();
+            return new StoryResponse(PrecompressedBody.of(new byte[bytes]), new ResourceVersion("\"story\"", 0L));
+        };
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("story.response.cache.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeHitsFromTheCache() {
+        StoryResponse first = cache.get(1L, loader(100));
+        StoryResponse second = cache.get(1L, loader(100));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, requests("miss"));
+        assertEquals(1.0, requests("hit"));
+    }
+
+    @Test
+    void get_ShouldEvictLeastRecentlyUsedEntriesOverTheByteBudget() {
+        cache.get(1L, loader(100));
+        cache.get(2L, loader(100));
+        cache.get(1L, loader(100));
+        cache.get(3L, loader(100));
+
+        assertEquals(2, cache.size());
+        assertEquals(200, cache.bytes());
+        assertEquals(1.0, meterRegistry.get("story.response.cache.evictions").counter().count());
+        cache.get(1L, loader(100));
+        assertEquals(3, loads.get());
+        cache.get(2L, loader(100));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotCacheResponsesLargerThanTheBudget() {
+        cache.get(1L, loader(100));
+        cache.get(2L, loader(300));
+
+        assertEquals(1, cache.size());
+        assertEquals(100, cache.bytes());
+    }
+
+    @Test
+    void refreshAndInvalidate_ShouldKeepTheByteCountInStep() {
+        cache.get(1L, loader(100));
+        cache.get(2L, loader(50));
+
+        cache.refresh(1L, loader(150));
+        assertEquals(2, cache.size());
+        assertEquals(200, cache.bytes());
+
+        cache.invalidate(1L);
+        assertEquals(50, cache.bytes());
+        cache.invalidate(1L);
+        assertEquals(50, cache.bytes());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytes());
+    }
+
+    @Test
+    void get_ShouldNotCacheARefillThatRacedWithAnInvalidation() {
+        StoryResponse stale = cache.get(1L, () -> {
+            cache.invalidate(1L);
+            return loader(100).get();
+        });
+
+        assertNotNull(stale);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytes());
+        cache.get(1L, loader(100));
+        assertEquals(2, loads.get());
+    }
+}
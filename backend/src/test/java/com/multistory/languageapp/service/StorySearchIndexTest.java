@@ -0,0 +1,88 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.repository.ChapterRepository;
+import com.multistory.languageapp.repository.StoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StorySearchIndexTest {
+
+    @Mock
+    private StoryRepository storyRepository;
+
+    @Mock
+    private ChapterRepository chapterRepository;
+
+    @InjectMocks
+    private StorySearchIndex storySearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(chapterRepository.findContentByStoryIds(anyCollection())).thenReturn(Collections.emptyList());
+        storySearchIndex.indexBatch(Arrays.asList(
+            story(1L, "Café Love Story", "Emma walked into the small café and ordered a coffee.", "en"),
+            story(2L, "The Lost Key", "Tom searched the whole house for his coffee mug and his key.", "en"),
+            story(3L, "El Café", "María abrió el café por la mañana.", "es")
+        ));
+    }
+
+    @Test
+    void search_ShouldMatchAccentFoldedTerms() {
+        StorySearchIndex.SearchPage result = storySearchIndex.search("cafe", null, PageRequest.of(0, 10));
+
+        assertEquals(2, result.totalHits());
+        assertTrue(result.storyIds().containsAll(List.of(1L, 3L)));
+    }
+
+    @Test
+    void search_ShouldRequireAllTerms() {
+        StorySearchIndex.SearchPage result = storySearchIndex.search("coffee key", "en", PageRequest.of(0, 10));
+
+        assertEquals(List.of(2L), result.storyIds());
+    }
+
+    @Test
+    void search_ShouldDropStopWordsOfEveryLanguageWithoutALanguage() {
+        assertEquals(List.of(2L), storySearchIndex.search("the lost key", null, PageRequest.of(0, 10)).storyIds());
+        assertEquals(List.of(3L), storySearchIndex.search("el café por la mañana", null, PageRequest.of(0, 10)).storyIds());
+    }
+
+    @Test
+    void search_ShouldFilterByLanguageAndPaginate() {
+        assertEquals(List.of(3L), storySearchIndex.search("café", "es", PageRequest.of(0, 10)).storyIds());
+
+        StorySearchIndex.SearchPage secondPage = storySearchIndex.search("coffee", null, PageRequest.of(1, 1));
+        assertEquals(2, secondPage.totalHits());
+        assertEquals(1, secondPage.storyIds().size());
+    }
+
+    @Test
+    void remove_ShouldDropStoryFromResults() {
+        storySearchIndex.remove(2L);
+
+        assertTrue(storySearchIndex.search("key", null, PageRequest.of(0, 10)).storyIds().isEmpty());
+        assertEquals(2, storySearchIndex.size());
+    }
+
+    private Story story(Long id, String title, String content, String language) {
+        Story story = new Story(title, content, language, DifficultyLevel.BEGINNER);
+        story.setId(id);
+        return story;
+    }
+}
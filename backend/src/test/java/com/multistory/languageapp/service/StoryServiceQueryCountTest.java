@@ -0,0 +1,190 @@
+package com.multistory.languageapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.multistory.languageapp.dto.StorySummaryDTO;
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.Story;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+/**
+ * Guards against N+1 regressions: every story listing must cost the same number of
+ * JDBC statements whatever the page size.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(StoryService.class)
+class StoryServiceQueryCountTest {
+
+    private static final int STORY_COUNT = 60;
+
+    @Autowired
+    private StoryService storyService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private StorySearchIndex storySearchIndex;
+
+    @MockBean
+    private StoryTagIndex storyTagIndex;
+
+    @MockBean
+    private StoryResponseCache storyResponseCache;
+
+    @MockBean
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private JobExecutors jobExecutors;
+
+    private Statistics statistics;
+
+    private final List<Long> storyIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < STORY_COUNT; i++) {
+            // A quarter of the stories are German, so the by-language listing has a small and a large result
+            Story story = new Story("Story " + i, "Content of story " + i, i % 4 == 0 ? "de" : "en",
+                                    DifficultyLevel.BEGINNER);
+            story.setTags(Arrays.asList("tag-" + (i % 3), "tag-" + (i % 5)));
+            story.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            story.setCompletionCount((long) i);
+            story.setTrendingScore((double) i);
+            storyIds.add(entityManager.persist(story).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getStoriesWithFilters_ShouldUseConstantStatementCount_RegardlessOfPageSize() {
+        long smallPage = statementsFor(5);
+        long largePage = statementsFor(50);
+
+        // page query + count query + one batched tag query
+        assertEquals(3, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void getStoriesWithFilters_ShouldAttachTagsToEveryStory() {
+        Page<StorySummaryDTO> page = storyService.getStoriesWithFilters(null, null, null, PageRequest.of(0, 20));
+
+        assertEquals(20, page.getContent().size());
+        page.getContent().forEach(story -> assertEquals(2, story.getTags().size()));
+    }
+
+    @Test
+    void getStoriesAfterCursor_ShouldUseConstantStatementCount_RegardlessOfPageSize() {
+        long smallPage = statementsFor(5, () -> storyService.getStoriesAfterCursor(null, null, null, null, 5, false).getContent());
+        long largePage = statementsFor(50, () -> storyService.getStoriesAfterCursor(null, null, null, null, 50, false).getContent());
+        long withTotal = statementsFor(50, () -> storyService.getStoriesAfterCursor(null, null, null, null, 50, true).getContent());
+
+        // page query + one batched tag query, plus the count when asked for a total
+        assertEquals(2, smallPage);
+        assertEquals(smallPage, largePage);
+        assertEquals(3, withTotal);
+    }
+
+    @Test
+    void getStoriesByLanguage_ShouldUseConstantStatementCount_RegardlessOfResultSize() {
+        long few = statementsFor(15, () -> storyService.getStoriesByLanguage("de"));
+        long many = statementsFor(45, () -> storyService.getStoriesByLanguage("en"));
+
+        assertEquals(2, few);
+        assertEquals(few, many);
+    }
+
+    @Test
+    void getPopularAndTrendingStories_ShouldUseConstantStatementCount_RegardlessOfLimit() {
+        long popularFew = statementsFor(5, () -> storyService.getPopularStories(5));
+        long popularMany = statementsFor(50, () -> storyService.getPopularStories(50));
+        long trendingFew = statementsFor(5, () -> storyService.getTrendingStories(5));
+        long trendingMany = statementsFor(50, () -> storyService.getTrendingStories(50));
+
+        assertEquals(2, popularFew);
+        assertEquals(popularFew, popularMany);
+        assertEquals(2, trendingFew);
+        assertEquals(trendingFew, trendingMany);
+    }
+
+    @Test
+    void searchStories_ShouldUseConstantStatementCount_RegardlessOfPageSize() {
+        long smallPage = statementsFor(5, () -> {
+            when(storySearchIndex.search(any(), isNull(), any()))
+                .thenReturn(new StorySearchIndex.SearchPage(storyIds.subList(0, 5), STORY_COUNT));
+            return storyService.searchStories("story", null, PageRequest.of(0, 5)).getContent();
+        });
+        long largePage = statementsFor(50, () -> {
+            when(storySearchIndex.search(any(), isNull(), any()))
+                .thenReturn(new StorySearchIndex.SearchPage(storyIds.subList(0, 50), STORY_COUNT));
+            return storyService.searchStories("story", null, PageRequest.of(0, 50)).getContent();
+        });
+
+        // the index runs in memory: one summary query by id + one batched tag query
+        assertEquals(2, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void getStoriesByTags_ShouldUseConstantStatementCount_RegardlessOfPageSize() {
+        long smallPage = statementsFor(5, () -> {
+            when(storyTagIndex.query(any(), any(), any(), any(), any(), any()))
+                .thenReturn(new StoryTagIndex.TagPage(storyIds.subList(0, 5), STORY_COUNT));
+            return storyService.getStoriesByTags(List.of("tag-1"), null, null, null, null, PageRequest.of(0, 5)).getContent();
+        });
+        long largePage = statementsFor(50, () -> {
+            when(storyTagIndex.query(any(), any(), any(), any(), any(), any()))
+                .thenReturn(new StoryTagIndex.TagPage(storyIds.subList(0, 50), STORY_COUNT));
+            return storyService.getStoriesByTags(List.of("tag-1"), null, null, null, null, PageRequest.of(0, 50)).getContent();
+        });
+
+        assertEquals(2, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    private long statementsFor(int pageSize) {
+        return statementsFor(pageSize,
+            () -> storyService.getStoriesWithFilters(null, null, null, PageRequest.of(0, pageSize)).getContent());
+    }
+
+    private long statementsFor(int expectedSize, Supplier<List<StorySummaryDTO>> listing) {
+        entityManager.clear();
+        statistics.clear();
+        List<StorySummaryDTO> stories = listing.get();
+        assertEquals(expectedSize, stories.size());
+        stories.forEach(story -> assertEquals(2, story.getTags().size()));
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -2,6 +2,7 @@ package com.multistory.languageapp.service;
 
 import com.multistory.languageapp.dto.StoryCreateRequest;
 import com.multistory.languageapp.dto.StoryDTO;
+import com.multistory.languageapp.dto.StorySummaryDTO;
 import com.multistory.languageapp.dto.StoryUpdateRequest;
 import com.multistory.languageapp.entity.Story;
 import com.multistory.languageapp.entity.DifficultyLevel;
@@ -12,11 +13,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
 
+import java.sql.PreparedStatement;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -31,10 +36,26 @@ class StoryServiceTest {
     @Mock
     private StoryRepository storyRepository;
 
+    @Mock
+    private StorySearchIndex storySearchIndex;
+
+    @Mock
+    private StoryTagIndex storyTagIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StoryResponseCache storyResponseCache;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     @InjectMocks
     private StoryService storyService;
 
     private Story sampleStory;
+    private StorySummaryDTO sampleSummary;
     private StoryCreateRequest sampleCreateRequest;
 
     @BeforeEach
@@ -47,6 +68,9 @@ class StoryServiceTest {
         sampleStory.setDifficulty(DifficultyLevel.INTERMEDIATE);
         sampleStory.setIsActive(true);
 
+        sampleSummary = new StorySummaryDTO(1L, "Test Story", "en", DifficultyLevel.INTERMEDIATE,
+                                            10, 25, "This is a test story content...", null);
+
         sampleCreateRequest = new StoryCreateRequest();
         sampleCreateRequest.setTitle("New Story");
         sampleCreateRequest.setContent("New story content...");
@@ -58,7 +82,7 @@ class StoryServiceTest {
     @Test
     void getStoryById_ShouldReturnStoryDTO_WhenStoryExists() {
         // Given
-        when(storyRepository.findById(1L)).thenReturn(Optional.of(sampleStory));
+        when(storyRepository.findByIdWithTags(1L)).thenReturn(Optional.of(sampleStory));
 
         // When
         StoryDTO result = storyService.getStoryById(1L);
@@ -68,17 +92,17 @@ class StoryServiceTest {
         assertEquals(1L, result.getId());
         assertEquals("Test Story", result.getTitle());
         assertEquals("en", result.getLanguage());
-        verify(storyRepository).findById(1L);
+        verify(storyRepository).findByIdWithTags(1L);
     }
 
     @Test
     void getStoryById_ShouldThrowException_WhenStoryNotFound() {
         // Given
-        when(storyRepository.findById(999L)).thenReturn(Optional.empty());
+        when(storyRepository.findByIdWithTags(999L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(RuntimeException.class, () -> storyService.getStoryById(999L));
-        verify(storyRepository).findById(999L);
+        verify(storyRepository).findByIdWithTags(999L);
     }
 
     @Test
@@ -98,90 +122,96 @@ class StoryServiceTest {
     @Test
     void getStoriesByLanguage_ShouldReturnStoriesForSpecificLanguage() {
         // Given
-        List<Story> stories = Arrays.asList(sampleStory);
-        when(storyRepository.findByLanguageAndIsActiveTrue("en")).thenReturn(stories);
+        List<StorySummaryDTO> stories = Arrays.asList(sampleSummary);
+        when(storyRepository.findSummariesByLanguage("en")).thenReturn(stories);
+        when(storyRepository.findTagsByStoryIds(anyCollection()))
+            .thenReturn(List.<Object[]>of(new Object[] {1L, "adventure"}));
 
         // When
-        List<StoryDTO> result = storyService.getStoriesByLanguage("en");
+        List<StorySummaryDTO> result = storyService.getStoriesByLanguage("en");
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("en", result.get(0).getLanguage());
-        verify(storyRepository).findByLanguageAndIsActiveTrue("en");
+        assertEquals(List.of("adventure"), result.get(0).getTags());
+        verify(storyRepository).findSummariesByLanguage("en");
     }
 
     @Test
     void getStoriesWithFilters_ShouldReturnFilteredStories() {
         // Given
-        List<Story> stories = Arrays.asList(sampleStory);
-        Page<Story> page = new PageImpl<>(stories);
+        List<StorySummaryDTO> stories = Arrays.asList(sampleSummary);
+        Page<StorySummaryDTO> page = new PageImpl<>(stories);
         Pageable pageable = PageRequest.of(0, 10);
         
-        when(storyRepository.findStoriesWithFilters(
+        when(storyRepository.findSummariesWithFilters(
             eq("en"), eq("INTERMEDIATE"), eq("test"), eq(pageable)))
             .thenReturn(page);
 
         // When
-        Page<StoryDTO> result = storyService.getStoriesWithFilters("en", "INTERMEDIATE", "test", pageable);
+        Page<StorySummaryDTO> result = storyService.getStoriesWithFilters("en", "INTERMEDIATE", "test", pageable);
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
         assertEquals("Test Story", result.getContent().get(0).getTitle());
-        verify(storyRepository).findStoriesWithFilters("en", "INTERMEDIATE", "test", pageable);
+        verify(storyRepository).findSummariesWithFilters("en", "INTERMEDIATE", "test", pageable);
+        verify(storyRepository).findTagsByStoryIds(anyCollection());
     }
 
     @Test
     void searchStories_ShouldReturnMatchingStories() {
         // Given
-        List<Story> stories = Arrays.asList(sampleStory);
-        when(storyRepository.searchByTitleOrContent("test")).thenReturn(stories);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(storySearchIndex.search("test", null, pageable))
+            .thenReturn(new StorySearchIndex.SearchPage(List.of(1L), 1));
+        when(storyRepository.findSummariesByIdIn(List.of(1L))).thenReturn(Arrays.asList(sampleSummary));
 
         // When
-        List<StoryDTO> result = storyService.searchStories("test");
+        Page<StorySummaryDTO> result = storyService.searchStories("test", null, pageable);
 
         // Then
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertTrue(result.get(0).getTitle().toLowerCase().contains("test") ||
-                  result.get(0).getContent().toLowerCase().contains("test"));
-        verify(storyRepository).searchByTitleOrContent("test");
+        assertEquals(1, result.getContent().size());
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Test Story", result.getContent().get(0).getTitle());
+        verify(storySearchIndex).search("test", null, pageable);
     }
 
     @Test
     void deleteStory_ShouldMarkStoryAsInactive() {
         // Given
-        when(storyRepository.findById(1L)).thenReturn(Optional.of(sampleStory));
+        when(storyRepository.findByIdWithTags(1L)).thenReturn(Optional.of(sampleStory));
         when(storyRepository.save(any(Story.class))).thenReturn(sampleStory);
 
         // When
         storyService.deleteStory(1L);
 
         // Then
-        verify(storyRepository).findById(1L);
+        verify(storyRepository).findByIdWithTags(1L);
         verify(storyRepository).save(argThat(story -> !story.getIsActive()));
     }
 
     @Test
     void getPopularStories_ShouldReturnPopularStories() {
         // Given
-        List<Story> popularStories = Arrays.asList(sampleStory);
-        when(storyRepository.findPopularStories(any(Pageable.class))).thenReturn(popularStories);
+        List<StorySummaryDTO> popularStories = Arrays.asList(sampleSummary);
+        when(storyRepository.findPopularStorySummaries(any(Pageable.class))).thenReturn(popularStories);
 
         // When
-        List<StoryDTO> result = storyService.getPopularStories(5);
+        List<StorySummaryDTO> result = storyService.getPopularStories(5);
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(storyRepository).findPopularStories(any(Pageable.class));
+        verify(storyRepository).findPopularStorySummaries(any(Pageable.class));
     }
 
     @Test
     void updateStory_ShouldUpdateAndReturnStoryDTO() {
         // Given
-        when(storyRepository.findById(1L)).thenReturn(Optional.of(sampleStory));
+        when(storyRepository.findByIdWithTags(1L)).thenReturn(Optional.of(sampleStory));
         when(storyRepository.save(any(Story.class))).thenReturn(sampleStory);
 
         StoryUpdateRequest updateRequest = new StoryUpdateRequest();
@@ -193,7 +223,7 @@ class StoryServiceTest {
 
         // Then
         assertNotNull(result);
-        verify(storyRepository).findById(1L);
+        verify(storyRepository).findByIdWithTags(1L);
         verify(storyRepository).save(any(Story.class));
     }
 
@@ -201,15 +231,40 @@ class StoryServiceTest {
     void getStoriesByTags_ShouldReturnStoriesWithMatchingTags() {
         // Given
         List<String> tags = Arrays.asList("romance", "adventure");
-        List<Story> stories = Arrays.asList(sampleStory);
-        when(storyRepository.findByTagsInAndIsActiveTrue(tags)).thenReturn(stories);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(storyTagIndex.query(tags, null, null, null, null, pageable))
+            .thenReturn(new StoryTagIndex.TagPage(List.of(1L), 1));
+        when(storyRepository.findSummariesByIdIn(List.of(1L))).thenReturn(Arrays.asList(sampleSummary));
 
         // When
-        List<StoryDTO> result = storyService.getStoriesByTags(tags);
+        Page<StorySummaryDTO> result = storyService.getStoriesByTags(tags, null, null, null, null, pageable);
 
         // Then
         assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(storyRepository).findByTagsInAndIsActiveTrue(tags);
+        assertEquals(1, result.getContent().size());
+        assertEquals(1, result.getTotalElements());
+        verify(storyTagIndex).query(tags, null, null, null, null, pageable);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backfillExcerpts_ShouldDeriveMissingExcerptsFromContent() throws Exception {
+        List<Object[]> rows = List.<Object[]>of(new Object[] { 1L, "  Once   upon\na time  " });
+        when(storyRepository.findContentWithoutExcerptAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(jdbcTemplate.batchUpdate(anyString(), eq(rows), eq(1), any(ParameterizedPreparedStatementSetter.class)))
+            .thenAnswer(invocation -> {
+                ParameterizedPreparedStatementSetter<Object[]> setter = invocation.getArgument(3);
+                setter.setValues(statement, rows.get(0));
+                return new int[][] { { 1 } };
+            });
+
+        int filled = storyService.backfillExcerpts();
+
+        assertEquals(1, filled);
+        verify(statement).setString(1, "Once upon a time");
+        verify(statement).setLong(3, 1L);
+        verify(storyResponseCache).invalidate(1L);
+        verify(storyRepository, times(1)).findContentWithoutExcerptAfter(anyLong(), any(Pageable.class));
     }
 }
@@ -0,0 +1,73 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoryTagIndexTest {
+
+    @InjectMocks
+    private StoryTagIndex storyTagIndex;
+
+    @BeforeEach
+    void setUp() {
+        storyTagIndex.index(story(1L, "en", DifficultyLevel.BEGINNER, "romance", "city"));
+        storyTagIndex.index(story(2L, "en", DifficultyLevel.INTERMEDIATE, "adventure", "city"));
+        storyTagIndex.index(story(3L, "es", DifficultyLevel.BEGINNER, "romance"));
+        storyTagIndex.index(story(4L, "en", DifficultyLevel.BEGINNER, "adventure", "romance"));
+    }
+
+    @Test
+    void query_ShouldCombineAnyAllAndExclude() {
+        StoryTagIndex.TagPage result = storyTagIndex.query(
+            List.of("romance", "adventure"), List.of(), List.of("city"), null, null, PageRequest.of(0, 10));
+
+        assertEquals(List.of(4L, 3L), result.storyIds());
+        assertEquals(2, result.totalHits());
+    }
+
+    @Test
+    void query_ShouldFilterByLanguageAndDifficulty() {
+        StoryTagIndex.TagPage result = storyTagIndex.query(
+            null, List.of("romance"), null, "en", DifficultyLevel.BEGINNER, PageRequest.of(0, 10));
+
+        assertEquals(List.of(4L, 1L), result.storyIds());
+    }
+
+    @Test
+    void query_ShouldPageNewestFirst() {
+        StoryTagIndex.TagPage result = storyTagIndex.query(null, null, null, null, null, PageRequest.of(1, 3));
+
+        assertEquals(List.of(1L), result.storyIds());
+        assertEquals(4, result.totalHits());
+    }
+
+    @Test
+    void index_ShouldReplaceTagsWhenStoryChanges() {
+        storyTagIndex.index(story(1L, "en", DifficultyLevel.BEGINNER, "mystery"));
+        storyTagIndex.remove(4L);
+
+        assertEquals(List.of(3L), storyTagIndex.query(
+            List.of("romance"), null, null, null, null, PageRequest.of(0, 10)).storyIds());
+        assertEquals(List.of(1L), storyTagIndex.query(
+            List.of("mystery"), null, null, null, null, PageRequest.of(0, 10)).storyIds());
+        assertEquals(3, storyTagIndex.size());
+    }
+
+    private Story story(Long id, String language, DifficultyLevel difficulty, String... tags) {
+        Story story = new Story("Story " + id, "Content " + id, language, difficulty);
+        story.setId(id);
+        story.setTags(List.of(tags));
+        return story;
+    }
+}
@@ -0,0 +1,105 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.DeletionJobStatus;
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.ProgressEventType;
+import com.multistory.languageapp.entity.ProgressLogEntry;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.entity.UserDeletionJob;
+import com.multistory.languageapp.entity.UserProgress;
+import com.multistory.languageapp.repository.ProgressLogRepository;
+import com.multistory.languageapp.repository.UserDeletionJobRepository;
+import com.multistory.languageapp.repository.UserProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "progress.deletion.chunk-size=2",
+    "progress.deletion.pause-ms=0"
+})
+@Import({UserDeletionService.class, JobExecutors.class})
+class UserDeletionServiceTest {
+
+    @Autowired
+    private UserDeletionService userDeletionService;
+
+    @Autowired
+    private UserDeletionJobRepository userDeletionJobRepository;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private ProgressLogRepository progressLogRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private ProgressWriteBuffer progressWriteBuffer;
+
+    @MockBean
+    private UserVocabularyService userVocabularyService;
+
+    @MockBean
+    private UserStatisticsService userStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            Story story = entityManager.persist(new Story("Story " + i, "Content", "en", DifficultyLevel.BEGINNER));
+            UserProgress progress = new UserProgress(1L, story);
+            progress.addVocabularyWord("hola");
+            progress.addVocabularyWord("adios");
+            entityManager.persist(progress);
+            entityManager.persist(new ProgressLogEntry(1L, story.getId(), ProgressEventType.WORD_LEARNED, true));
+            if (i == 0) {
+                entityManager.persist(new UserProgress(2L, story));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void run_ShouldDeleteAllRowsOfTheUserInChunks() {
+        Long jobId = userDeletionJobRepository.save(new UserDeletionJob(1L)).getId();
+
+        userDeletionService.run(jobId);
+        entityManager.clear();
+
+        assertEquals(0, userProgressRepository.countByUserId(1L));
+        assertEquals(1, userProgressRepository.countByUserId(2L));
+        assertEquals(0, progressLogRepository.count());
+        UserDeletionJob job = userDeletionJobRepository.findById(jobId).orElseThrow();
+        assertEquals(DeletionJobStatus.COMPLETED, job.getStatus());
+        assertEquals(5L, job.getProgressRows());
+        assertEquals(5L, job.getDeletedProgressRows());
+        assertEquals(20L, job.getDeletedRows());
+        assertNotNull(job.getFinishedAt());
+        verify(progressWriteBuffer).discard(1L, null);
+        verify(userVocabularyService).deleteUser(1L);
+        verify(userStatisticsService).deleteStatistics(1L);
+    }
+
+    @Test
+    void run_ShouldSkipFinishedJobs() {
+        UserDeletionJob job = new UserDeletionJob(1L);
+        job.setStatus(DeletionJobStatus.COMPLETED);
+        Long jobId = userDeletionJobRepository.save(job).getId();
+
+        userDeletionService.run(jobId);
+
+        assertEquals(5, userProgressRepository.countByUserId(1L));
+        verifyNoInteractions(userVocabularyService, userStatisticsService);
+    }
+}
@@ -0,0 +1,135 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.ProgressEventResult;
+import com.multistory.languageapp.dto.UserStatisticsDTO;
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.entity.UserProgress;
+import com.multistory.languageapp.exception.InvalidRequestException;
+import com.multistory.languageapp.repository.UserProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "progress.ingest.max-events=4",
+    "progress.event-log.enabled=false"
+})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({UserProgressService.class, StoryPopularityService.class, ProgressWriteBuffer.class, ProgressEventLog.class,
+         UserVocabularyService.class, VocabularyDictionary.class, UserStatisticsService.class,
+         LeaderboardService.class, JobExecutors.class})
+class UserProgressServiceIngestTest {
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long started;
+    private Long fresh;
+    private Long inactive;
+
+    @BeforeEach
+    void setUp() {
+        Story startedStory = entityManager.persist(new Story("Started", "Content", "es", DifficultyLevel.BEGINNER));
+        Story freshStory = entityManager.persist(new Story("Fresh", "Content", "es", DifficultyLevel.BEGINNER));
+        Story inactiveStory = new Story("Retired", "Content", "es", DifficultyLevel.BEGINNER);
+        inactiveStory.setIsActive(false);
+        entityManager.persist(inactiveStory);
+        UserProgress progress = new UserProgress(1L, startedStory);
+        progress.setCompletionPercentage(40);
+        progress.setTimeSpent(100);
+        entityManager.persistAndFlush(progress);
+        started = startedStory.getId();
+        fresh = freshStory.getId();
+        inactive = inactiveStory.getId();
+        userStatisticsService.ensureStatistics(1L);
+    }
+
+    private List<ProgressEventResult> ingest(String... lines) {
+        byte[] body = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        return userProgressService.ingestEvents(1L, new ByteArrayInputStream(body));
+    }
+
+    @Test
+    void ingestEvents_ShouldApplyValidLinesAndRejectTheOthers() {
+        List<ProgressEventResult> results = ingest(
+            "{\"storyId\": " + started + ", \"completionPercentage\": 60, \"vocabularyLearned\": [\"hola\"]}",
+            "{\"storyId\": " + fresh + ", \"completionPercentage\": ",
+            "",
+            "{\"storyId\": " + fresh + ", \"completionPercentage\": 150}",
+            "{\"storyId\": " + inactive + ", \"completionPercentage\": 10}");
+
+        assertEquals(List.of(1, 2, 4, 5), results.stream().map(ProgressEventResult::getLine).toList());
+        assertEquals(List.of(ProgressEventResult.Status.APPLIED, ProgressEventResult.Status.REJECTED,
+                             ProgressEventResult.Status.REJECTED, ProgressEventResult.Status.REJECTED),
+                     results.stream().map(ProgressEventResult::getStatus).toList());
+        assertEquals("Malformed JSON", results.get(1).getMessage());
+        assertEquals("Story not found: " + inactive, results.get(3).getMessage());
+        entityManager.clear();
+        assertEquals(60, userProgressRepository.findByUserIdAndStoryId(1L, started).orElseThrow().getCompletionPercentage());
+        assertTrue(userProgressRepository.findByUserIdAndStoryId(1L, fresh).isEmpty());
+    }
+
+    @Test
+    void ingestEvents_ShouldRefuseBodiesOverTheLimitWithoutReadingOn() {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            lines.append("{\"storyId\": ").append(fresh).append(", \"timeSpent\": 1}\n");
+        }
+        ByteArrayInputStream body = new ByteArrayInputStream(lines.toString().getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidRequestException.class, () -> userProgressService.ingestEvents(1L, body));
+
+        assertTrue(body.available() > 0, "the body should not be read past the limit");
+        assertTrue(userProgressRepository.findByUserIdAndStoryId(1L, fresh).isEmpty());
+    }
+
+    @Test
+    void ingestEvents_ShouldApplyStatisticsAndLeaderboardDeltas() {
+        ingest("{\"storyId\": " + started + ", \"completionPercentage\": 100, \"timeSpent\": 20}",
+               "{\"storyId\": " + fresh + ", \"completionPercentage\": 50, \"timeSpent\": 30}",
+               "{\"storyId\": " + fresh + ", \"vocabularyLearned\": [\"gato\", \"perro\"]}");
+        entityManager.clear();
+
+        UserStatisticsDTO statistics = userStatisticsService.getStatistics(1L);
+        assertEquals(2L, statistics.getTotalStories());
+        assertEquals(1L, statistics.getCompletedStories());
+        assertEquals(75.0, statistics.getAvgCompletion(), 0.0001);
+        assertEquals(150L, statistics.getTotalTimeSpent());
+        assertEquals(2, userProgressService.countUserVocabulary(1L));
+        runAfterCommit();
+        assertEquals(75.0, leaderboardService.getNeighbourhood(1L, 0).get(0).getAvgCompletion(), 0.0001);
+    }
+
+    // The test transaction is rolled back, so run what its commit would have triggered
+    private static void runAfterCommit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+}
@@ -0,0 +1,207 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.UserProgressDTO;
+import com.multistory.languageapp.dto.UserProgressUpdateRequest;
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.entity.UserProgress;
+import com.multistory.languageapp.repository.StoryRepository;
+import com.multistory.languageapp.repository.UserProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserProgressServiceTest {
+
+    @Mock
+    private UserProgressRepository userProgressRepository;
+
+    @Mock
+    private StoryRepository storyRepository;
+
+    @Mock
+    private StoryPopularityService storyPopularityService;
+
+    @Mock
+    private ProgressWriteBuffer progressWriteBuffer;
+
+    @Mock
+    private UserVocabularyService userVocabularyService;
+
+    @Mock
+    private UserStatisticsService userStatisticsService;
+
+    @Mock
+    private ProgressEventLog progressEventLog;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private UserProgressService userProgressService;
+
+    private Story story;
+    private UserProgressUpdateRequest request;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userProgressService, "maxSaveAttempts", 3);
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        story = new Story("Story", "Content", "en", DifficultyLevel.BEGINNER);
+        story.setId(1L);
+        request = new UserProgressUpdateRequest();
+        request.setCompletionPercentage(40);
+    }
+
+    private UserProgress existing() {
+        UserProgress progress = new UserProgress(7L, story);
+        progress.setId(100L);
+        progress.setCompletionPercentage(10);
+        return progress;
+    }
+
+    private static OptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(UserProgress.class, 100L);
+    }
+
+    @Test
+    void updateProgress_ShouldRereadAndRetryAfterVersionConflict() {
+        when(userProgressRepository.findByUserIdAndStoryId(7L, 1L))
+            .thenReturn(Optional.of(existing()), Optional.of(existing()));
+        when(userProgressRepository.save(any(UserProgress.class)))
+            .thenThrow(conflict())
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        UserProgressDTO result = userProgressService.updateProgress(7L, 1L, request);
+
+        assertEquals(40, result.getCompletionPercentage());
+        verify(userProgressRepository, times(2)).findByUserIdAndStoryId(7L, 1L);
+        verify(userProgressRepository, times(2)).save(any(UserProgress.class));
+        verify(userStatisticsService).recordChange(eq(7L), any(), any());
+    }
+
+    @Test
+    void updateProgress_ShouldGiveUpAfterMaxAttempts() {
+        when(userProgressRepository.findByUserIdAndStoryId(7L, 1L)).thenAnswer(invocation -> Optional.of(existing()));
+        when(userProgressRepository.save(any(UserProgress.class))).thenThrow(conflict());
+
+        assertThrows(OptimisticLockingFailureException.class,
+            () -> userProgressService.updateProgress(7L, 1L, request));
+
+        verify(userProgressRepository, times(3)).save(any(UserProgress.class));
+        verify(userStatisticsService, never()).recordChange(anyLong(), any(), any());
+        verifyNoInteractions(storyPopularityService);
+    }
+
+    @Test
+    void updateProgress_ShouldCountStartOnlyForNewRows() {
+        when(userProgressRepository.findByUserIdAndStoryId(7L, 1L)).thenReturn(Optional.empty());
+        when(storyRepository.getReferenceById(1L)).thenReturn(story);
+        when(userProgressRepository.save(any(UserProgress.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userProgressService.updateProgress(7L, 1L, request);
+
+        verify(storyPopularityService).recordStart(1L);
+        verify(storyPopularityService, never()).recordCompletion(any());
+    }
+
+    @Test
+    void updateProgress_ShouldCountCompletionOnlyOnTransition() {
+        UserProgress completed = existing();
+        completed.setCompletionPercentage(100);
+        when(userProgressRepository.findByUserIdAndStoryId(7L, 1L))
+            .thenReturn(Optional.of(existing()), Optional.of(completed));
+        when(userProgressRepository.save(any(UserProgress.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        request.setCompletionPercentage(100);
+
+        userProgressService.updateProgress(7L, 1L, request);
+        userProgressService.updateProgress(7L, 1L, request);
+
+        verify(storyPopularityService, times(1)).recordCompletion(1L);
+        verify(storyPopularityService, never()).recordStart(any());
+    }
+
+    @Test
+    void updateProgress_ShouldUpdateTheRowAConcurrentFirstWriteInserted() {
+        when(userProgressRepository.findByUserIdAndStoryId(7L, 1L))
+            .thenReturn(Optional.empty(), Optional.of(existing()));
+        when(storyRepository.getReferenceById(1L)).thenReturn(story);
+        when(userProgressRepository.save(any(UserProgress.class)))
+            .thenThrow(new DataIntegrityViolationException("uk_progress_user_story"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        UserProgressDTO result = userProgressService.updateProgress(7L, 1L, request);
+
+        assertEquals(100L, result.getId());
+        assertEquals(40, result.getCompletionPercentage());
+        verify(storyPopularityService, never()).recordStart(any());
+    }
+
+    @Test
+    void startStory_ShouldResumeExistingProgressWithoutCountingAStart() {
+        when(userProgressRepository.findByUserIdAndStoryId(7L, 1L)).thenReturn(Optional.of(existing()));
+        when(userProgressRepository.save(any(UserProgress.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        UserProgressDTO result = userProgressService.startStory(7L, 1L);
+
+        assertEquals(100L, result.getId());
+        assertEquals(10, result.getCompletionPercentage());
+        verify(storyPopularityService, never()).recordStart(any());
+        verify(userStatisticsService, never()).recordChange(anyLong(), any(), any());
+    }
+
+    @Test
+    void startStory_ShouldCreateAndCountANewRow() {
+        when(userProgressRepository.findByUserIdAndStoryId(7L, 1L)).thenReturn(Optional.empty());
+        when(storyRepository.getReferenceById(1L)).thenReturn(story);
+        when(userProgressRepository.save(any(UserProgress.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userProgressService.startStory(7L, 1L);
+
+        verify(storyPopularityService).recordStart(1L);
+        verify(userStatisticsService).recordChange(eq(7L), isNull(), any());
+    }
+
+    @Test
+    void updateProgress_ShouldLearnWordsOnlyAfterTheRowIsSaved() {
+        when(userProgressRepository.findByUserIdAndStoryId(7L, 1L)).thenReturn(Optional.of(existing()));
+        when(userProgressRepository.save(any(UserProgress.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userVocabularyService.addWords(7L, List.of("dragon"))).thenReturn(List.of("dragon"));
+        request.setVocabularyLearned(List.of("dragon"));
+
+        userProgressService.updateProgress(7L, 1L, request);
+
+        InOrder order = inOrder(transactionTemplate, userProgressRepository, userVocabularyService);
+        order.verify(transactionTemplate).execute(any());
+        order.verify(userProgressRepository).save(any(UserProgress.class));
+        order.verify(userVocabularyService).addWords(7L, List.of("dragon"));
+    }
+
+    @Test
+    void addVocabularyWord_ShouldNotLearnTheWordWithoutProgress() {
+        when(userProgressRepository.findByUserIdAndStoryId(7L, 1L)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> userProgressService.addVocabularyWord(7L, 1L, "dragon"));
+
+        verifyNoInteractions(userVocabularyService);
+    }
+}
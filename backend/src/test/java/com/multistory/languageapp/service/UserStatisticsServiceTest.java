@@ -0,0 +1,126 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.dto.UserStatisticsDTO;
+import com.multistory.languageapp.entity.DifficultyLevel;
+import com.multistory.languageapp.entity.Story;
+import com.multistory.languageapp.entity.UserProgress;
+import com.multistory.languageapp.repository.UserStatisticsRepository;
+import com.multistory.languageapp.service.UserStatisticsService.Contribution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({UserStatisticsService.class, LeaderboardService.class, JobExecutors.class})
+class UserStatisticsServiceTest {
+
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+
+    @Autowired
+    private UserStatisticsRepository userStatisticsRepository;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Story story;
+
+    @BeforeEach
+    void setUp() {
+        story = entityManager.persist(new Story("Story", "Content", "en", DifficultyLevel.BEGINNER));
+        UserProgress progress = new UserProgress(1L, story);
+        progress.setCompletionPercentage(40);
+        progress.setTimeSpent(100);
+        progress.setQuizScore(80);
+        entityManager.persistAndFlush(progress);
+    }
+
+    @Test
+    void getStatistics_ShouldAggregateSourceRowsWithoutWritingARollup() {
+        UserStatisticsDTO statistics = userStatisticsService.getStatistics(1L);
+
+        assertEquals(1L, statistics.getTotalStories());
+        assertEquals(0L, statistics.getCompletedStories());
+        assertEquals(40.0, statistics.getAvgCompletion(), 0.0001);
+        assertEquals(100L, statistics.getTotalTimeSpent());
+        assertEquals(80.0, statistics.getAvgQuizScore(), 0.0001);
+        assertFalse(userStatisticsRepository.existsById(1L));
+    }
+
+    @Test
+    void recordChange_ShouldApplyDifferenceToRollup() {
+        userStatisticsService.ensureStatistics(1L);
+
+        userStatisticsService.recordChange(1L,
+            new Contribution(40, 100, 80, false), new Contribution(100, 160, 80, true));
+        userStatisticsService.recordChange(1L, null, new Contribution(20, 30, 60, false));
+        entityManager.clear();
+        assertTrue(leaderboardService.getNeighbourhood(1L, 0).isEmpty(), "ranked before the commit");
+        runAfterCommit();
+
+        UserStatisticsDTO statistics = userStatisticsService.getStatistics(1L);
+        assertEquals(2L, statistics.getTotalStories());
+        assertEquals(1L, statistics.getCompletedStories());
+        assertEquals(60.0, statistics.getAvgCompletion(), 0.0001);
+        assertEquals(190L, statistics.getTotalTimeSpent());
+        assertEquals(70.0, statistics.getAvgQuizScore(), 0.0001);
+        assertEquals(60.0, leaderboardService.getNeighbourhood(1L, 0).get(0).getAvgCompletion(), 0.0001);
+    }
+
+    @Test
+    void getStatistics_ShouldReturnZeroRollupForUnknownUser() {
+        UserStatisticsDTO statistics = userStatisticsService.getStatistics(2L);
+
+        assertEquals(0L, statistics.getTotalStories());
+        assertNull(statistics.getAvgCompletion());
+        assertFalse(userStatisticsRepository.existsById(2L));
+    }
+
+    @Test
+    void recordBufferedChanges_ShouldAddFlushedHeartbeatsToExistingRollups() {
+        userStatisticsService.ensureStatistics(1L);
+        entityManager.flush();
+
+        userStatisticsService.recordBufferedChanges(List.of(new UserStatisticsService.BufferedChange(1L, 45, 20),
+            new UserStatisticsService.BufferedChange(2L, 10, 10)));
+        entityManager.clear();
+        runAfterCommit();
+
+        assertEquals(145L, userStatisticsService.getStatistics(1L).getTotalTimeSpent());
+        assertEquals(60.0, leaderboardService.getNeighbourhood(1L, 0).get(0).getAvgCompletion(), 0.0001);
+        assertFalse(userStatisticsRepository.existsById(2L));
+    }
+
+    @Test
+    void rebuild_ShouldOverwriteADriftedRollupRow() {
+        userStatisticsService.ensureStatistics(1L);
+        userStatisticsService.recordChange(1L, null, new Contribution(90, 500, null, true));
+
+        userStatisticsService.rebuild(List.of(1L));
+        entityManager.clear();
+        runAfterCommit();
+
+        UserStatisticsDTO statistics = userStatisticsService.getStatistics(1L);
+        assertEquals(1L, statistics.getTotalStories());
+        assertEquals(0L, statistics.getCompletedStories());
+        assertEquals(100L, statistics.getTotalTimeSpent());
+        assertEquals(40.0, leaderboardService.getNeighbourhood(1L, 0).get(0).getAvgCompletion(), 0.0001);
+    }
+
+    // The test transaction is rolled back, so run what its commit would have triggered
+    private static void runAfterCommit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+}
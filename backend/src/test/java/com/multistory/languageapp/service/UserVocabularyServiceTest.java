@@ -0,0 +1,89 @@
+package com.multistory.languageapp.service;
+
+import com.multistory.languageapp.entity.UserVocabulary;
+import com.multistory.languageapp.exception.InvalidRequestException;
+import com.multistory.languageapp.repository.UserVocabularyLogRepository;
+import com.multistory.languageapp.repository.UserVocabularyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "vocabulary.compact-after=3"
+})
+@Import({UserVocabularyService.class, VocabularyDictionary.class})
+class UserVocabularyServiceTest {
+
+    @Autowired
+    private UserVocabularyService userVocabularyService;
+
+    @Autowired
+    private UserVocabularyRepository userVocabularyRepository;
+
+    @Autowired
+    private UserVocabularyLogRepository userVocabularyLogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        userVocabularyService.clearCache();
+    }
+
+    @Test
+    void addWord_ShouldIgnoreWordsAlreadyKnown() {
+        assertTrue(userVocabularyService.addWord(1L, "hola"));
+        assertFalse(userVocabularyService.addWord(1L, " hola "));
+        assertTrue(userVocabularyService.addWord(1L, "gracias"));
+
+        assertEquals(2, userVocabularyService.countWords(1L));
+        assertEquals(List.of("hola", "gracias"), userVocabularyService.getWords(1L));
+    }
+
+    @Test
+    void countKnownAndShared_ShouldUseTheWordBitmaps() {
+        userVocabularyService.addWords(1L, List.of("hola", "gracias", "adiós"));
+        userVocabularyService.addWords(2L, List.of("gracias", "adiós", "perro"));
+
+        assertEquals(2, userVocabularyService.countKnown(1L, List.of("hola", "adiós", "gato")));
+        assertEquals(2, userVocabularyService.countShared(1L, 2L));
+    }
+
+    @Test
+    void addWord_ShouldCompactLogIntoSnapshot() {
+        userVocabularyService.addWords(1L, List.of("uno", "dos", "tres"));
+
+        UserVocabulary snapshot = userVocabularyRepository.findById(1L).orElseThrow();
+        assertEquals(3, snapshot.getWordCount());
+        assertTrue(userVocabularyLogRepository.findByUserIdAndIdGreaterThanOrderById(1L, 0L).isEmpty());
+    }
+
+    @Test
+    void addWord_ShouldForgetWordsOfRolledBackTransactions() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> {
+            assertTrue(userVocabularyService.addWord(5L, "deshecho"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, userVocabularyService.countWords(5L));
+        assertTrue(userVocabularyService.addWord(5L, "deshecho"));
+    }
+
+    @Test
+    void addWord_ShouldRejectOverlongWords() {
+        assertThrows(InvalidRequestException.class, () -> userVocabularyService.addWord(1L, "a".repeat(101)));
+    }
+}
@@ -2,6 +2,7 @@ export interface Story {
   id: number;
   title: string;
   content: string;
+  excerpt?: string;
   language: string;
   difficulty: DifficultyLevel;
   audioUrl?: string;